@@ -0,0 +1,77 @@
+package com.excellence.spring_boot_testing.codec;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads and writes collections as {@link LengthPrefixedFrames}, one frame per element, in the
+ * format of the given {@link ObjectMapper}. Single objects are left to the regular Jackson
+ * converters.
+ */
+public class FramedJacksonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Collection<?>> {
+
+    private ObjectMapper objectMapper;
+
+    public FramedJacksonHttpMessageConverter(ObjectMapper objectMapper, MediaType mediaType) {
+        super(mediaType);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return objectMapper.constructType(GenericTypeResolver.resolveType(type, contextClass)).isCollectionLikeType()
+                && canRead(mediaType);
+    }
+
+    @Override
+    public Collection<?> read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        JavaType collectionType = objectMapper.constructType(GenericTypeResolver.resolveType(type, contextClass));
+        return readFrames(objectMapper.readerFor(collectionType.getContentType()), inputMessage);
+    }
+
+    @Override
+    protected Collection<?> readInternal(Class<? extends Collection<?>> clazz, HttpInputMessage inputMessage) throws IOException {
+        return readFrames(objectMapper.readerFor(Object.class), inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Collection<?> collection, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        LengthPrefixedFrames.Writer frames = new LengthPrefixedFrames.Writer(objectMapper.writer(), outputMessage.getBody());
+        for (Object element : collection) {
+            frames.write(element);
+        }
+    }
+
+    private List<Object> readFrames(ObjectReader reader, HttpInputMessage inputMessage) throws IOException {
+        DataInputStream body = new DataInputStream(inputMessage.getBody());
+        List<Object> elements = new ArrayList<>();
+        try {
+            for (byte[] frame = LengthPrefixedFrames.read(body); frame != null; frame = LengthPrefixedFrames.read(body)) {
+                elements.add(reader.readValue(frame));
+            }
+        } catch (IOException e) {
+            throw new HttpMessageNotReadableException("Invalid framed body: " + e.getMessage(), e, inputMessage);
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,79 @@
+package com.excellence.spring_boot_testing.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Framing for streams of CBOR records: every record is a 4-byte big-endian length followed by
+ * that many bytes of CBOR. A reader can decode each record as soon as it has arrived, or skip
+ * it without parsing, which one large CBOR array does not allow. CBOR rather than Smile because
+ * Smile's savings come from back-references to earlier values, which self-contained frames lose.
+ */
+public final class LengthPrefixedFrames {
+
+    public static final String APPLICATION_CBOR_FRAMED_VALUE = "application/x-cbor-framed";
+
+    public static final MediaType APPLICATION_CBOR_FRAMED = MediaType.parseMediaType(APPLICATION_CBOR_FRAMED_VALUE);
+
+    // one employee is at most three 255-character fields of 4-byte UTF-8, plus keys and an id
+    public static final int MAX_FRAME_LENGTH = 8 * 1024;
+
+    private LengthPrefixedFrames() {
+    }
+
+    // the next record, or null at the end of the stream; a stream cut inside a record is an error.
+    // The length comes from the sender, so it is checked before anything is allocated for it.
+    public static byte[] read(DataInputStream inputStream) throws IOException {
+        int first = inputStream.read();
+        if (first < 0) {
+            return null;
+        }
+        int length = (first << 24) | (inputStream.readUnsignedByte() << 16)
+                | (inputStream.readUnsignedByte() << 8) | inputStream.readUnsignedByte();
+        if (length < 0 || length > MAX_FRAME_LENGTH) {
+            throw new IOException("Invalid frame length " + length + ", the limit is " + MAX_FRAME_LENGTH);
+        }
+        byte[] record = new byte[length];
+        inputStream.readFully(record);
+        return record;
+    }
+
+    /**
+     * Writes frames to one stream. The generator and the frame buffer are reused for every
+     * record, so a frame costs the encoding and a copy, not a new generator and array each.
+     */
+    public static final class Writer {
+
+        private final ObjectWriter objectWriter;
+
+        private final OutputStream outputStream;
+
+        private final ByteArrayOutputStream frame = new ByteArrayOutputStream(256);
+
+        private final JsonGenerator generator;
+
+        public Writer(ObjectWriter objectWriter, OutputStream outputStream) throws IOException {
+            this.objectWriter = objectWriter;
+            this.outputStream = outputStream;
+            this.generator = objectWriter.createGenerator(frame);
+        }
+
+        public void write(Object value) throws IOException {
+            frame.reset();
+            objectWriter.writeValue(generator, value);
+            generator.flush();
+            int length = frame.size();
+            outputStream.write(length >>> 24);
+            outputStream.write(length >>> 16);
+            outputStream.write(length >>> 8);
+            outputStream.write(length);
+            frame.writeTo(outputStream);
+        }
+    }
+}
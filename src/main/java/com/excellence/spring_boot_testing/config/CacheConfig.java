@@ -0,0 +1,15 @@
+package com.excellence.spring_boot_testing.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns on the employee read-through cache. Size, TTL and the on/off switch
+ * ({@code spring.cache.type=none}) live in {@code application.properties}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String EMPLOYEES_CACHE = "employees";
+}
@@ -0,0 +1,35 @@
+package com.excellence.spring_boot_testing.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+
+/**
+ * Connection pools for configurations that spread the data over several databases. They are
+ * not beans, so the owning configuration closes them; each publishes {@code hikaricp.*} meters
+ * tagged with its name, as Boot does for the pool it creates itself.
+ */
+final class HikariPools {
+
+    private HikariPools() {
+    }
+
+    // credentials are shared with spring.datasource.*
+    static HikariDataSource create(String name, String url, DataSourceProperties properties,
+                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource pool = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(properties.determineUsername())
+                .password(properties.determinePassword())
+                .build();
+        pool.setPoolName(name);
+        // fills in the defaults now, so settings such as the pool size are readable before the pool starts
+        pool.validate();
+        meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        return pool;
+    }
+}
@@ -0,0 +1,25 @@
+package com.excellence.spring_boot_testing.config;
+
+import com.excellence.spring_boot_testing.metrics.SqlStatementMetricsFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the per-request SQL statement count. Endpoint, service, Hibernate and pool meters
+ * are switched on in {@code application.properties} and scraped from {@code /actuator/prometheus}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class MetricsConfig {
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementMetricsFilter> sqlStatementMetricsFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlStatementMetricsFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatementMetricsFilter(meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
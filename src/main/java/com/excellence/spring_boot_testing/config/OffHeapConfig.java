@@ -0,0 +1,36 @@
+package com.excellence.spring_boot_testing.config;
+
+import com.excellence.spring_boot_testing.offheap.EmployeeColumnStore;
+import com.excellence.spring_boot_testing.offheap.OffHeapProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+
+/**
+ * Off-heap employee store for the {@code offheap} profile (see {@code OffHeapEmployeeRepository}).
+ * {@code spring.datasource.*} stays the database Flyway and Hibernate start against; under this
+ * profile it holds no employees.
+ */
+@Configuration
+@Profile("offheap")
+@EnableConfigurationProperties(OffHeapProperties.class)
+public class OffHeapConfig {
+
+    // replays the journal before anything can read
+    @Bean
+    public EmployeeColumnStore employeeColumnStore(OffHeapProperties properties, ObjectProvider<MeterRegistry> meterRegistry)
+            throws IOException {
+        EmployeeColumnStore store = new EmployeeColumnStore(properties.journal(), properties.fsync());
+        meterRegistry.ifAvailable(registry -> Gauge.builder("employees.offheap.reserved", store, EmployeeColumnStore::reservedBytes)
+                .description("Off-heap memory reserved by the employee store")
+                .baseUnit("bytes")
+                .register(registry));
+        return store;
+    }
+}
@@ -0,0 +1,72 @@
+package com.excellence.spring_boot_testing.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * R2DBC access for the {@code reactive} profile. The connection pool is deliberately not a
+ * bean: a {@code ConnectionFactory} bean makes Boot drop the JDBC {@code DataSource} that
+ * Flyway, JPA and the in-memory indexes still use. For the same reason the R2DBC transaction
+ * manager is only reachable through the {@link TransactionalOperator}, so {@code @Transactional}
+ * keeps resolving to the JPA one.
+ * <p>
+ * Tomcat is on the classpath for the servlet stack and Boot would prefer it here as well,
+ * so Netty's event loop is asked for explicitly.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig implements DisposableBean {
+
+    private final ConnectionPool connectionPool;
+
+    // same credentials as the JDBC side, which owns the database
+    public ReactiveConfig(@Value("${employees.reactive.r2dbc-url}") String url,
+                          @Value("${spring.datasource.username}") String username,
+                          @Value("${spring.datasource.password:}") String password,
+                          @Value("${employees.reactive.pool-size:10}") int poolSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(poolSize)
+                .maxSize(poolSize)
+                // r2dbc-h2 runs statements on the subscribing thread; without this a released
+                // connection is handed to the next waiter on the releasing event loop, which then
+                // serves the whole backlog while its own channels go unread
+                .customizer(pool -> pool.acquisitionScheduler(Schedulers.boundedElastic()))
+                .build());
+    }
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public DatabaseClient databaseClient() {
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator() {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionPool));
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+}
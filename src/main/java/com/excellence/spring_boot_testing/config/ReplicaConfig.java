@@ -0,0 +1,92 @@
+package com.excellence.spring_boot_testing.config;
+
+import com.excellence.spring_boot_testing.replica.ReadYourWritesFilter;
+import com.excellence.spring_boot_testing.replica.ReplicaProperties;
+import com.excellence.spring_boot_testing.replica.ReplicaRoutingDataSource;
+import com.excellence.spring_boot_testing.replica.ReplicaSynchronizer;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas for the {@code replica} profile (servlet stack only): read-only transactions
+ * run on one of {@code employees.replica.urls}, everything else on {@code spring.datasource.url}.
+ * The pools are not beans, so the single {@code DataSource} bean is the routing one and the
+ * slow-query proxy wraps it once.
+ */
+@Configuration
+@Profile("replica")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaConfig implements DisposableBean {
+
+    private final HikariDataSource primary;
+
+    private final List<HikariDataSource> replicas = new ArrayList<>();
+
+    private ReplicaProperties replicaProperties;
+
+    public ReplicaConfig(DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties,
+                         ObjectProvider<MeterRegistry> meterRegistry) {
+        this.replicaProperties = replicaProperties;
+        this.primary = HikariPools.create("primary", dataSourceProperties.determineUrl(), dataSourceProperties, meterRegistry);
+        for (int i = 0; i < replicaProperties.urls().size(); i++) {
+            replicas.add(HikariPools.create("replica-" + (i + 1), replicaProperties.urls().get(i), dataSourceProperties, meterRegistry));
+        }
+    }
+
+    // the routing decision is made when the first statement runs, once the transaction is read-only or not
+    @Bean
+    public DataSource dataSource() {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public ReplicaSynchronizer replicaSynchronizer(ObjectProvider<CacheManager> cacheManager) {
+        return new ReplicaSynchronizer(primary, replicas, replicaProperties.lag(), cacheManager);
+    }
+
+    // Flyway runs against the routing DataSource, i.e. the primary; replicas get the same migrations and rows
+    @Bean
+    public FlywayMigrationStrategy replicaMigrationStrategy(ReplicaSynchronizer replicaSynchronizer) {
+        return flyway -> {
+            flyway.migrate();
+            for (HikariDataSource replica : replicas) {
+                Flyway.configure().configuration(flyway.getConfiguration()).dataSource(replica).load().migrate();
+            }
+            replicaSynchronizer.copyAll();
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter() {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(replicaProperties.stickiness()));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(HikariDataSource::close);
+        primary.close();
+    }
+}
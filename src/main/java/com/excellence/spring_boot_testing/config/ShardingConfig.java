@@ -0,0 +1,80 @@
+package com.excellence.spring_boot_testing.config;
+
+import com.excellence.spring_boot_testing.shard.EmployeeShards;
+import com.excellence.spring_boot_testing.shard.ShardProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Employee shards for the {@code sharded} profile, one per
+ * {@code employees.shards.urls} entry. {@code spring.datasource.*} stays the JPA database
+ * Flyway and Hibernate start against; under this profile it holds no employees.
+ */
+@Configuration
+@Profile("sharded")
+@EnableConfigurationProperties(ShardProperties.class)
+public class ShardingConfig implements DisposableBean {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    private final ExecutorService fanOutExecutor;
+
+    public ShardingConfig(DataSourceProperties dataSourceProperties, ShardProperties shardProperties,
+                          ObjectProvider<MeterRegistry> meterRegistry) {
+        if (shardProperties.urls().isEmpty()) {
+            throw new IllegalStateException("The sharded profile needs at least one employees.shards.urls entry");
+        }
+        for (int i = 0; i < shardProperties.urls().size(); i++) {
+            pools.add(HikariPools.create("shard-" + i, shardProperties.urls().get(i), dataSourceProperties, meterRegistry));
+        }
+        // one thread per pooled connection: a fan-out never queues behind threads that could not get one anyway
+        int threads = pools.stream().mapToInt(HikariDataSource::getMaximumPoolSize).sum();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.fanOutExecutor = Executors.newFixedThreadPool(threads, runnable -> Thread.ofPlatform()
+                .name("shard-fan-out-" + threadNumber.incrementAndGet()).daemon().unstarted(runnable));
+    }
+
+    @Bean
+    public EmployeeShards employeeShards() {
+        return new EmployeeShards(pools.stream().map(JdbcTemplate::new).toList(), fanOutExecutor);
+    }
+
+    // every shard gets the regular schema plus db/shard, which keeps its own history table
+    @Bean
+    public FlywayMigrationStrategy shardMigrationStrategy() {
+        return flyway -> {
+            flyway.migrate();
+            for (HikariDataSource pool : pools) {
+                Flyway.configure().configuration(flyway.getConfiguration()).dataSource(pool).load().migrate();
+                Flyway.configure().configuration(flyway.getConfiguration()).dataSource(pool)
+                        .locations("classpath:db/shard")
+                        .table("flyway_shard_schema_history")
+                        .baselineOnMigrate(true)
+                        .baselineVersion("0")
+                        .load().migrate();
+            }
+        };
+    }
+
+    @Override
+    public void destroy() {
+        fanOutExecutor.shutdownNow();
+        pools.forEach(HikariDataSource::close);
+    }
+}
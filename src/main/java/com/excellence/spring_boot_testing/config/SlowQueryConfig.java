@@ -0,0 +1,62 @@
+package com.excellence.spring_boot_testing.config;
+
+import com.excellence.spring_boot_testing.metrics.RepositoryMethodContext;
+import com.excellence.spring_boot_testing.metrics.SlowQueryListener;
+import com.excellence.spring_boot_testing.metrics.SlowQueryLog;
+import com.excellence.spring_boot_testing.metrics.SlowQueryProperties;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes every JDBC statement through {@link SlowQueryListener} by wrapping the pool in a
+ * datasource-proxy, and tags repository calls so slow statements name the method that issued them.
+ */
+@Configuration
+@EnableConfigurationProperties(SlowQueryProperties.class)
+public class SlowQueryConfig {
+
+    @Bean
+    public SlowQueryLog slowQueryLog(SlowQueryProperties properties) {
+        return new SlowQueryLog(properties.capacity());
+    }
+
+    // static so the post-processors are registered without initializing this configuration early
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourceProxy(ObjectProvider<SlowQueryProperties> properties,
+                                                             ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SlowQueryListener(properties.getObject(), slowQueryLog.getObject()))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryMethodAttribution() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                                    new RepositoryMethodContext(repositoryInformation.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package com.excellence.spring_boot_testing.config;
+
+import com.excellence.spring_boot_testing.codec.FramedJacksonHttpMessageConverter;
+import com.excellence.spring_boot_testing.codec.LengthPrefixedFrames;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary payloads for internal callers. {@code application/cbor} and
+ * {@code application/x-jackson-smile} bodies are handled by the converters Spring MVC registers
+ * when the Jackson data formats are on the classpath; the framed CBOR added here carries lists
+ * as {@link LengthPrefixedFrames}. JSON stays the default when the caller has no preference.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WebConfig implements WebMvcConfigurer {
+
+    private Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    // Boot's builder, so the binary formats see the same Jackson settings as JSON
+    public WebConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new FramedJacksonHttpMessageConverter(
+                objectMapperBuilder.factory(new CBORFactory()).build(), LengthPrefixedFrames.APPLICATION_CBOR_FRAMED));
+    }
+}
@@ -0,0 +1,111 @@
+package com.excellence.spring_boot_testing.controller;
+
+import com.excellence.spring_boot_testing.dto.EmployeeChange;
+import com.excellence.spring_boot_testing.dto.EmployeeChanges;
+import com.excellence.spring_boot_testing.service.impl.EmployeeChangeFeed;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-Sent Events over the {@link EmployeeChangeFeed}. Each subscriber has its own thread
+ * that reads the feed from the subscriber's cursor and writes to its connection, so a slow
+ * client only holds up itself, never writers or other subscribers. A client that falls
+ * further behind than the feed keeps gets a {@code reset} event and is disconnected; it
+ * reloads the list and resubscribes from the sequence in that event.
+ * <p>
+ * The threads are platform threads: {@link SseEmitter#send} writes while holding the
+ * emitter's monitor, which would pin a virtual thread to its carrier for a slow client.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class EmployeeChangeStream implements DisposableBean {
+
+    // changes written per read of the feed
+    private static final int BATCH_SIZE = 500;
+
+    // idle connections get a comment this often, so proxies keep them and dead ones are noticed
+    private static final Duration HEARTBEAT = Duration.ofSeconds(15);
+
+    private EmployeeChangeFeed changeFeed;
+
+    private int maxSubscribers;
+
+    private final Set<Thread> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong subscriberNumbers = new AtomicLong();
+
+    public EmployeeChangeStream(EmployeeChangeFeed changeFeed,
+                                @Value("${employees.change-feed.max-subscribers:256}") int maxSubscribers) {
+        this.changeFeed = changeFeed;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    // every change after the cursor, then new ones as they commit; only new ones without a cursor
+    public SseEmitter subscribe(Long after) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many change feed subscribers");
+        }
+        long cursor = after != null ? after : changeFeed.latestSequence();
+        SseEmitter emitter = new SseEmitter();
+        Thread thread = Thread.ofPlatform()
+                .name("employee-changes-" + subscriberNumbers.incrementAndGet())
+                .daemon()
+                .unstarted(() -> stream(emitter, cursor));
+        subscribers.add(thread);
+        emitter.onCompletion(thread::interrupt);
+        emitter.onTimeout(thread::interrupt);
+        emitter.onError(error -> thread.interrupt());
+        thread.start();
+        return emitter;
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.forEach(Thread::interrupt);
+    }
+
+    private void stream(SseEmitter emitter, long after) {
+        long cursor = after;
+        try {
+            // commits the response headers, so the client knows it is subscribed before any change
+            emitter.send(SseEmitter.event().comment("subscribed"));
+            while (!Thread.currentThread().isInterrupted()) {
+                EmployeeChanges changes = changeFeed.changesAfter(cursor, BATCH_SIZE);
+                if (changes.reset()) {
+                    emitter.send(SseEmitter.event().name("reset").id(Long.toString(changes.lastSequence()))
+                            .data(changes.lastSequence()));
+                    return;
+                }
+                for (EmployeeChange change : changes.changes()) {
+                    emitter.send(SseEmitter.event().name("change").id(Long.toString(change.sequence()))
+                            .data(change, MediaType.APPLICATION_JSON));
+                }
+                cursor = changes.lastSequence();
+                if (changes.changes().isEmpty() && !changeFeed.awaitChangeAfter(cursor, HEARTBEAT)) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // the client went away, or the emitter already completed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            subscribers.remove(Thread.currentThread());
+            emitter.complete();
+        }
+    }
+}
@@ -1,21 +1,89 @@
 package com.excellence.spring_boot_testing.controller;
 
+import com.excellence.spring_boot_testing.codec.LengthPrefixedFrames;
+import com.excellence.spring_boot_testing.dto.EmployeeBatchResult;
+import com.excellence.spring_boot_testing.dto.EmployeeBulkDelete;
+import com.excellence.spring_boot_testing.dto.EmployeeBulkDeleteResult;
+import com.excellence.spring_boot_testing.dto.EmployeeChanges;
+import com.excellence.spring_boot_testing.dto.EmployeeCollectionVersion;
+import com.excellence.spring_boot_testing.dto.EmployeeGroupCount;
+import com.excellence.spring_boot_testing.dto.EmployeePage;
+import com.excellence.spring_boot_testing.dto.EmployeePatch;
+import com.excellence.spring_boot_testing.dto.EmployeeStats;
+import com.excellence.spring_boot_testing.dto.EmployeeSummary;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.exception.EmployeeVersionMismatchException;
 import com.excellence.spring_boot_testing.model.Employee;
 import com.excellence.spring_boot_testing.service.EmployeeService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
+import static com.excellence.spring_boot_testing.codec.LengthPrefixedFrames.APPLICATION_CBOR_FRAMED;
+import static com.excellence.spring_boot_testing.codec.LengthPrefixedFrames.APPLICATION_CBOR_FRAMED_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_CBOR;
+
+// replaced by ReactiveEmployeeController under the reactive profile
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
+    static final int MAX_PAGE_SIZE = 1000;
+
+    static final int MAX_SEARCH_RESULTS = 100;
+
+    static final int MAX_STATS_GROUPS = 1000;
+
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    // rows written between flushes of the export stream; the first row is always flushed
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+
     private EmployeeService employeeService;
 
-    public EmployeeController(EmployeeService employeeService) {
+    private ObjectMapper objectMapper;
+
+    private ObjectWriter cborFrameWriter;
+
+    private EmployeeListSnapshot listSnapshot;
+
+    private EmployeeChangeStream changeStream;
+
+    public EmployeeController(EmployeeService employeeService, ObjectMapper objectMapper,
+                              Jackson2ObjectMapperBuilder objectMapperBuilder,
+                              ObjectProvider<EmployeeListSnapshot> listSnapshot,
+                              ObjectProvider<EmployeeChangeStream> changeStream) {
         this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
+        this.listSnapshot = listSnapshot.getIfAvailable();
+        // only servlet web applications stream; the controller also exists without a web server
+        this.changeStream = changeStream.getIfAvailable();
+        this.cborFrameWriter = objectMapperBuilder.factory(new CBORFactory()).build().writerFor(EmployeeView.class);
     }
 
     @PostMapping
@@ -24,43 +92,356 @@ public class EmployeeController {
         return employeeService.saveEmployee(employee);
     }
 
+    // creates many employees in JDBC batches; one result per item, in request order
+    @PostMapping("/batch")
+    public List<EmployeeBatchResult> createEmployees(@RequestBody List<Employee> employees) {
+        return employeeService.saveEmployees(employees);
+    }
+
     @GetMapping
-    public List<Employee> getAllEmployees() {
-        return employeeService.getAllEmployees();
+    public ResponseEntity<?> getAllEmployees(WebRequest webRequest) {
+        // JSON callers get the pre-serialized list while no write has committed since it was read
+        EmployeeListSnapshot.Snapshot snapshot = listSnapshot != null && prefersJson(webRequest.getHeader(HttpHeaders.ACCEPT))
+                ? listSnapshot.current() : null;
+        if (snapshot != null) {
+            return snapshotResponse(snapshot, webRequest);
+        }
+        // taken before the list is read, so a concurrent write can only make the ETag older than the body
+        String eTag = collectionETag(employeeService.getEmployeesVersion());
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(employeeService.getAllEmployees());
+    }
+
+    // the gzip and identity bodies are different bytes, so each gets its own strong ETag;
+    // a client holding either one is current, and its 304 names the tag it holds
+    private static ResponseEntity<byte[]> snapshotResponse(EmployeeListSnapshot.Snapshot snapshot, WebRequest webRequest) {
+        String identityETag = collectionETag(snapshot.version());
+        String gzipETag = gzipETag(identityETag);
+        String cached = matchingETag(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH), identityETag, gzipETag);
+        if (cached != null) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(cached).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        boolean gzip = acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(gzip ? gzipETag : identityETag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
+    }
+
+    // If-None-Match compares weakly: the first of ours that the header lists, ignoring W/
+    private static String matchingETag(String ifNoneMatch, String... eTags) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*")) {
+                return eTags[0];
+            }
+            String opaque = tag.startsWith("W/") ? tag.substring(2) : tag;
+            for (String eTag : eTags) {
+                if (eTag.equals(opaque)) {
+                    return eTag;
+                }
+            }
+        }
+        return null;
+    }
+
+    // JSON unless CBOR or Smile is listed before anything JSON accepts; a missing header means JSON
+    private static boolean prefersJson(String accept) {
+        if (accept == null) {
+            return true;
+        }
+        try {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return true;
+                }
+                if (type.isCompatibleWith(APPLICATION_CBOR) || type.isCompatibleWith(APPLICATION_SMILE)) {
+                    return false;
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // keyset pagination: ?limit=N with either ?after=<id> or the opaque ?cursor= from the previous page
+    @GetMapping(params = "limit")
+    public EmployeePage getEmployeePage(@RequestParam(value = "after", required = false) Long afterId,
+                                        @RequestParam(value = "cursor", required = false) String cursor,
+                                        @RequestParam("limit") int limit) {
+        long after;
+        try {
+            after = cursor != null ? EmployeePage.decodeCursor(cursor) : (afterId != null ? afterId : 0L);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        // fetch one extra row to find out whether another page follows
+        List<EmployeeView> employees = employeeService.getEmployeesAfter(after, pageSize + 1);
+        if (employees.size() <= pageSize) {
+            return new EmployeePage(employees, null);
+        }
+        List<EmployeeView> content = employees.subList(0, pageSize);
+        return new EmployeePage(content, EmployeePage.encodeCursor(content.get(pageSize - 1).id()));
+    }
+
+    // search-as-you-type over names and email, answered from the in-memory index
+    @GetMapping("/search")
+    public List<EmployeeSummary> searchEmployees(@RequestParam("q") String query,
+                                                 @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return employeeService.searchEmployees(query, Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS));
+    }
+
+    // dashboard aggregates kept in memory: the total plus the largest last-name and email-domain groups
+    @GetMapping("/stats")
+    public EmployeeStats getEmployeeStats(@RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return employeeService.getEmployeeStats(Math.min(Math.max(limit, 1), MAX_STATS_GROUPS));
+    }
+
+    @GetMapping("/stats/last-names")
+    public List<EmployeeGroupCount> getLastNameCounts(@RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return employeeService.getLastNameCounts(Math.min(Math.max(limit, 1), MAX_STATS_GROUPS));
+    }
+
+    @GetMapping("/stats/email-domains")
+    public List<EmployeeGroupCount> getEmailDomainCounts(@RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return employeeService.getEmailDomainCounts(Math.min(Math.max(limit, 1), MAX_STATS_GROUPS));
+    }
+
+    // polling fallback for the change stream: changes after ?after=, resume from lastSequence
+    @GetMapping("/changes")
+    public EmployeeChanges getChanges(@RequestParam("after") long afterSequence,
+                                      @RequestParam(value = "limit", defaultValue = "500") int limit) {
+        return employeeService.getChangesAfter(afterSequence, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+    }
+
+    // Server-Sent Events from ?after=, or the Last-Event-ID an EventSource sends when it reconnects
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(value = "after", required = false) Long afterSequence,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return changeStream.subscribe(afterSequence != null ? afterSequence : lastEventId);
+    }
+
+    // streams every employee while rows are read from the database: newline-delimited JSON,
+    // or length-prefixed CBOR records for binary callers that ask for them by name
+    @GetMapping(value = "/export", produces = {APPLICATION_NDJSON_VALUE, APPLICATION_CBOR_FRAMED_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportEmployees(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (prefersFramedCbor(accept)) {
+            return exportEmployeesFramed();
+        }
+        ObjectWriter writer = objectMapper.writerFor(EmployeeView.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                // records are separated by the newline written below, not by Jackson's default space
+                generator.setRootValueSeparator(null);
+                int[] written = {0};
+                employeeService.exportEmployees(employee -> {
+                    try {
+                        writer.writeValue(generator, employee);
+                        generator.writeRaw('\n');
+                        if (written[0]++ % EXPORT_FLUSH_INTERVAL == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportEmployeesFramed() {
+        StreamingResponseBody body = outputStream -> {
+            BufferedOutputStream buffered = new BufferedOutputStream(outputStream);
+            LengthPrefixedFrames.Writer frames = new LengthPrefixedFrames.Writer(cborFrameWriter, buffered);
+            int[] written = {0};
+            employeeService.exportEmployees(employee -> {
+                try {
+                    frames.write(employee);
+                    if (written[0]++ % EXPORT_FLUSH_INTERVAL == 0) {
+                        buffered.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            buffered.flush();
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_CBOR_FRAMED).body(body);
+    }
+
+    // framed CBOR only when named before NDJSON in the Accept header; wildcards keep NDJSON
+    static boolean prefersFramedCbor(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        for (MediaType type : MediaType.parseMediaTypes(accept)) {
+            if (type.equalsTypeAndSubtype(APPLICATION_CBOR_FRAMED)) {
+                return true;
+            }
+            if (type.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    @GetMapping(params = "email")
+    public ResponseEntity<EmployeeView> getEmployeeByEmail(@RequestParam("email") String email) {
+        return employeeService.getEmployeeByEmail(email)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping("{id}")
-    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long employeeId) {
+    public ResponseEntity<EmployeeView> getEmployeeById(@PathVariable("id") long employeeId, WebRequest webRequest) {
+        // conditional request: answer 304 from the row version alone, without loading the employee
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> version = employeeService.getEmployeeVersion(employeeId);
+            if (version.isPresent() && webRequest.checkNotModified(eTag(version.get()))) {
+                return null;
+            }
+        }
         return employeeService.getEmployeeById(employeeId)
-                .map(ResponseEntity::ok)
+                .map(employee -> ResponseEntity.ok().eTag(eTag(employee.version())).body(employee))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // If-Match with the ETag from a GET makes the write conditional: 412 when the employee changed since
     @PutMapping("{id}")
-    public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long employeeId,
-                                                   @RequestBody Employee employee) {
-        return employeeService.getEmployeeById(employeeId)
-                .map(savedEmployee -> {
+    public ResponseEntity<EmployeeView> updateEmployee(@PathVariable("id") long employeeId,
+                                                       @RequestBody Employee employee,
+                                                       WebRequest webRequest) {
+        return employeeService.updateEmployee(employeeId, employee, ifMatchVersion(employeeId, webRequest))
+                .map(updatedEmployee -> ResponseEntity.ok().eTag(eTag(updatedEmployee.version())).body(updatedEmployee))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // applies only the supplied fields in a single UPDATE, without reading the employee first
+    @PatchMapping("{id}")
+    public ResponseEntity<Void> patchEmployee(@PathVariable("id") long employeeId,
+                                              @RequestBody EmployeePatch patch,
+                                              WebRequest webRequest) {
+        return employeeService.patchEmployee(employeeId, patch, ifMatchVersion(employeeId, webRequest))
+                .map(version -> ResponseEntity.noContent().eTag(eTag(version)).<Void>build())
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 
-                    savedEmployee.setFirstName(employee.getFirstName());
-                    savedEmployee.setLastName(employee.getLastName());
-                    savedEmployee.setEmail(employee.getEmail());
+    // the version an If-Match header requires, null without one or for "*". Several tags are
+    // narrowed to the current version when it is among them; tags that cannot match fail now.
+    private Long ifMatchVersion(long employeeId, WebRequest webRequest) {
+        String ifMatch = webRequest.getHeader(HttpHeaders.IF_MATCH);
+        List<Long> versions = ifMatchVersions(ifMatch);
+        if (versions == null) {
+            return null;
+        }
+        if (versions.size() == 1) {
+            return versions.get(0);
+        }
+        Optional<Long> current = versions.isEmpty() ? Optional.empty() : employeeService.getEmployeeVersion(employeeId);
+        if (current.isPresent() && versions.contains(current.get())) {
+            return current.get();
+        }
+        throw ifMatchFailed(ifMatch, employeeId);
+    }
 
-                    Employee updatedEmployee = employeeService.updateEmployee(savedEmployee);
-                    return new ResponseEntity<>(updatedEmployee, HttpStatus.OK);
+    // the versions named by an If-Match header, null without one or for "*";
+    // If-Match compares strongly, so weak tags never match
+    static List<Long> ifMatchVersions(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*")) {
+                return null;
+            }
+            if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                try {
+                    versions.add(Long.parseLong(tag.substring(1, tag.length() - 1)));
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                }
+            }
+        }
+        return versions;
+    }
 
-                })
-                .orElseGet(() -> ResponseEntity.notFound().build());
+    static EmployeeVersionMismatchException ifMatchFailed(String ifMatch, long employeeId) {
+        return new EmployeeVersionMismatchException("If-Match " + ifMatch + " does not match employee " + employeeId);
     }
 
     @DeleteMapping("{id}")
     public ResponseEntity<String> deleteEmployee(@PathVariable("id") long employeeId) {
 
-        employeeService.deleteEmployee(employeeId);
+        if (!employeeService.deleteEmployee(employeeId)) {
+            return ResponseEntity.notFound().build();
+        }
 
         return new ResponseEntity<String>("Employee deleted successfully!.", HttpStatus.OK);
 
     }
 
-}
+    // purges by id list or by last name, one DELETE statement per chunk of ids
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<EmployeeBulkDeleteResult> deleteEmployees(@RequestBody EmployeeBulkDelete bulkDelete) {
+        if ((bulkDelete.ids() == null) == (bulkDelete.lastName() == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Exactly one of ids or lastName is required");
+        }
+        return ResponseEntity.ok(new EmployeeBulkDeleteResult(employeeService.deleteEmployees(bulkDelete)));
+    }
+
+    static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    static String collectionETag(EmployeeCollectionVersion version) {
+        return "\"" + version.count() + "-" + version.maxId() + "-" + version.versionSum() + "\"";
+    }
+
+    static String gzipETag(String eTag) {
+        return eTag.substring(0, eTag.length() - 1) + "-gzip\"";
+    }
 
+}
@@ -0,0 +1,136 @@
+package com.excellence.spring_boot_testing.controller;
+
+import com.excellence.spring_boot_testing.dto.EmployeeCollectionVersion;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.event.EmployeeChangedEvent;
+import com.excellence.spring_boot_testing.replica.ReplicaRoutingDataSource;
+import com.excellence.spring_boot_testing.service.EmployeeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The body of {@code GET /api/employees} kept as JSON bytes, plain and gzipped, so the list
+ * endpoint answers without a query or serialization while nothing changes.
+ * <p>
+ * Every committed {@link EmployeeChangedEvent} bumps {@code generation} before the write's
+ * response goes out, and a snapshot is only served while its generation is current, so a
+ * caller never sees a list older than its own write; until the background rebuild finishes,
+ * the controller reads the list as before. Writes that bypass {@link EmployeeService}
+ * (plain SQL, seeding) have to call {@link #invalidate()}.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "employees.list-snapshot.enabled", matchIfMissing = true)
+public class EmployeeListSnapshot implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeListSnapshot.class);
+
+    // lets a burst of writes (a batch, a bulk delete) settle into one rebuild
+    private static final long REBUILD_DELAY_MILLIS = 20;
+
+    public record Snapshot(long generation, EmployeeCollectionVersion version, byte[] json, byte[] gzip) {
+    }
+
+    private EmployeeService employeeService;
+
+    private ObjectWriter writer;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            runnable -> Thread.ofPlatform().name("employee-list-snapshot").daemon().unstarted(runnable));
+
+    public EmployeeListSnapshot(EmployeeService employeeService, ObjectMapper objectMapper) {
+        this.employeeService = employeeService;
+        this.writer = objectMapper.writerFor(
+                objectMapper.getTypeFactory().constructCollectionType(List.class, EmployeeView.class));
+    }
+
+    // the snapshot if no write has committed since it was read, otherwise null
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null || current.generation() != generation.get()) {
+            scheduleRebuild();
+            return null;
+        }
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        invalidate();
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        scheduleRebuild();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            executor.schedule(this::rebuild, REBUILD_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void rebuild() {
+        rebuildScheduled.set(false);
+        // taken before the rows are read: a write committing meanwhile leaves this snapshot stale
+        long readGeneration = generation.get();
+        // a lagging replica could return rows older than the generation claims
+        ReplicaRoutingDataSource.pinToPrimary();
+        try {
+            EmployeeCollectionVersion version = employeeService.getEmployeesVersion();
+            byte[] json = writer.writeValueAsBytes(employeeService.getAllEmployees());
+            snapshot = new Snapshot(readGeneration, version, json, gzip(json));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not rebuild the employee list snapshot", e);
+        } finally {
+            ReplicaRoutingDataSource.unpin();
+        }
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4);
+        // compressed once per rebuild rather than per response, so the slowest level pays off
+        try (GZIPOutputStream outputStream = new GZIPOutputStream(compressed) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+            outputStream.write(json);
+        }
+        return compressed.toByteArray();
+    }
+}
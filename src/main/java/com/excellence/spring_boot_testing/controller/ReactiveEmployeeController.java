@@ -0,0 +1,263 @@
+package com.excellence.spring_boot_testing.controller;
+
+import com.excellence.spring_boot_testing.codec.LengthPrefixedFrames;
+import com.excellence.spring_boot_testing.dto.EmployeeBatchResult;
+import com.excellence.spring_boot_testing.dto.EmployeeBulkDelete;
+import com.excellence.spring_boot_testing.dto.EmployeeBulkDeleteResult;
+import com.excellence.spring_boot_testing.dto.EmployeeChanges;
+import com.excellence.spring_boot_testing.dto.EmployeeGroupCount;
+import com.excellence.spring_boot_testing.dto.EmployeePage;
+import com.excellence.spring_boot_testing.dto.EmployeePatch;
+import com.excellence.spring_boot_testing.dto.EmployeeStats;
+import com.excellence.spring_boot_testing.dto.EmployeeSummary;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.service.ReactiveEmployeeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static com.excellence.spring_boot_testing.codec.LengthPrefixedFrames.APPLICATION_CBOR_FRAMED;
+import static com.excellence.spring_boot_testing.codec.LengthPrefixedFrames.APPLICATION_CBOR_FRAMED_VALUE;
+
+/**
+ * WebFlux variant of {@link EmployeeController} for the {@code reactive} profile: same paths,
+ * status codes, ETags and payloads, served from R2DBC on the event loop. Collections are
+ * returned as {@link Flux}, so rows are read only as fast as the client consumes them. The one
+ * exception is {@code /changes/stream}, which holds a thread per subscriber and answers 501
+ * here; reactive clients poll {@code /changes} instead.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/employees")
+public class ReactiveEmployeeController {
+
+    private ReactiveEmployeeService employeeService;
+
+    private ObjectWriter jsonLineWriter;
+
+    private ObjectWriter cborFrameWriter;
+
+    public ReactiveEmployeeController(ReactiveEmployeeService employeeService, ObjectMapper objectMapper,
+                                      Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.employeeService = employeeService;
+        this.jsonLineWriter = objectMapper.writerFor(EmployeeView.class);
+        this.cborFrameWriter = objectMapperBuilder.factory(new CBORFactory()).build().writerFor(EmployeeView.class);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Employee> createEmployee(@RequestBody Employee employee) {
+        return employeeService.saveEmployee(employee);
+    }
+
+    @PostMapping("/batch")
+    public Flux<EmployeeBatchResult> createEmployees(@RequestBody List<Employee> employees) {
+        return employeeService.saveEmployees(employees);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<EmployeeView>>> getAllEmployees(ServerWebExchange exchange) {
+        return employeeService.getEmployeesVersion()
+                .map(EmployeeController::collectionETag)
+                .flatMap(eTag -> exchange.checkNotModified(eTag)
+                        ? Mono.empty()
+                        : Mono.just(ResponseEntity.ok().eTag(eTag).body(employeeService.getAllEmployees())));
+    }
+
+    @GetMapping(params = "limit")
+    public Mono<EmployeePage> getEmployeePage(@RequestParam(value = "after", required = false) Long afterId,
+                                              @RequestParam(value = "cursor", required = false) String cursor,
+                                              @RequestParam("limit") int limit) {
+        long after;
+        try {
+            after = cursor != null ? EmployeePage.decodeCursor(cursor) : (afterId != null ? afterId : 0L);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        int pageSize = Math.min(Math.max(limit, 1), EmployeeController.MAX_PAGE_SIZE);
+
+        return employeeService.getEmployeesAfter(after, pageSize + 1)
+                .collectList()
+                .map(employees -> {
+                    if (employees.size() <= pageSize) {
+                        return new EmployeePage(employees, null);
+                    }
+                    List<EmployeeView> content = employees.subList(0, pageSize);
+                    return new EmployeePage(content, EmployeePage.encodeCursor(content.get(pageSize - 1).id()));
+                });
+    }
+
+    @GetMapping("/search")
+    public Flux<EmployeeSummary> searchEmployees(@RequestParam("q") String query,
+                                                 @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return employeeService.searchEmployees(query, Math.min(Math.max(limit, 1), EmployeeController.MAX_SEARCH_RESULTS));
+    }
+
+    @GetMapping("/stats")
+    public Mono<EmployeeStats> getEmployeeStats(@RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return employeeService.getEmployeeStats(Math.min(Math.max(limit, 1), EmployeeController.MAX_STATS_GROUPS));
+    }
+
+    @GetMapping("/stats/last-names")
+    public Flux<EmployeeGroupCount> getLastNameCounts(@RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return employeeService.getLastNameCounts(Math.min(Math.max(limit, 1), EmployeeController.MAX_STATS_GROUPS));
+    }
+
+    @GetMapping("/stats/email-domains")
+    public Flux<EmployeeGroupCount> getEmailDomainCounts(@RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return employeeService.getEmailDomainCounts(Math.min(Math.max(limit, 1), EmployeeController.MAX_STATS_GROUPS));
+    }
+
+    @GetMapping("/changes")
+    public Mono<EmployeeChanges> getChanges(@RequestParam("after") long afterSequence,
+                                            @RequestParam(value = "limit", defaultValue = "500") int limit) {
+        return employeeService.getChangesAfter(afterSequence, Math.min(Math.max(limit, 1), EmployeeController.MAX_PAGE_SIZE));
+    }
+
+    // refused outright rather than left to fall through to "{id}" and answer 400 for a bad id
+    @GetMapping("/changes/stream")
+    public Mono<Void> streamChanges() {
+        return Mono.error(new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED,
+                "The change stream is not served by the reactive API; poll /api/employees/changes?after= instead"));
+    }
+
+    // newline-delimited JSON, or length-prefixed CBOR records when named before NDJSON in the Accept
+    // header; either way one buffer per row, written as rows arrive, so demand from the socket paces the query
+    @GetMapping(value = "/export", produces = {EmployeeController.APPLICATION_NDJSON_VALUE, APPLICATION_CBOR_FRAMED_VALUE})
+    public ResponseEntity<Flux<DataBuffer>> exportEmployees(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            ServerWebExchange exchange) {
+        DataBufferFactory bufferFactory = exchange.getResponse().bufferFactory();
+        if (EmployeeController.prefersFramedCbor(accept)) {
+            return ResponseEntity.ok().contentType(APPLICATION_CBOR_FRAMED).body(exportFramed(bufferFactory));
+        }
+        Flux<DataBuffer> body = employeeService.getAllEmployees().handle((employee, sink) -> {
+            try {
+                byte[] json = jsonLineWriter.writeValueAsBytes(employee);
+                sink.next(bufferFactory.allocateBuffer(json.length + 1).write(json).write((byte) '\n'));
+            } catch (IOException e) {
+                sink.error(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(EmployeeController.APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+
+    // the frame writer reuses its generator, so every subscription gets its own
+    private Flux<DataBuffer> exportFramed(DataBufferFactory bufferFactory) {
+        return Flux.defer(() -> {
+            ByteArrayOutputStream frame = new ByteArrayOutputStream(256);
+            LengthPrefixedFrames.Writer frames;
+            try {
+                frames = new LengthPrefixedFrames.Writer(cborFrameWriter, frame);
+            } catch (IOException e) {
+                return Flux.error(e);
+            }
+            return employeeService.getAllEmployees().handle((employee, sink) -> {
+                try {
+                    frame.reset();
+                    frames.write(employee);
+                    sink.next(bufferFactory.wrap(frame.toByteArray()));
+                } catch (IOException e) {
+                    sink.error(e);
+                }
+            });
+        });
+    }
+
+    @GetMapping(params = "email")
+    public Mono<ResponseEntity<EmployeeView>> getEmployeeByEmail(@RequestParam("email") String email) {
+        return employeeService.getEmployeeByEmail(email)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("{id}")
+    public Mono<ResponseEntity<EmployeeView>> getEmployeeById(@PathVariable("id") long employeeId,
+                                                              ServerWebExchange exchange) {
+        Mono<Boolean> notModified = exchange.getRequest().getHeaders().containsKey(HttpHeaders.IF_NONE_MATCH)
+                ? employeeService.getEmployeeVersion(employeeId)
+                        .map(version -> exchange.checkNotModified(EmployeeController.eTag(version)))
+                        .defaultIfEmpty(false)
+                : Mono.just(false);
+        return notModified.flatMap(unchanged -> unchanged
+                ? Mono.empty()
+                : employeeService.getEmployeeById(employeeId)
+                        .map(employee -> ResponseEntity.ok().eTag(EmployeeController.eTag(employee.version())).body(employee))
+                        .defaultIfEmpty(ResponseEntity.notFound().build()));
+    }
+
+    // If-Match with the ETag from a GET makes the write conditional: 412 when the employee changed since
+    @PutMapping("{id}")
+    public Mono<ResponseEntity<EmployeeView>> updateEmployee(@PathVariable("id") long employeeId,
+                                                             @RequestBody Employee employee,
+                                                             ServerWebExchange exchange) {
+        return ifMatchVersion(employeeId, exchange)
+                .flatMap(version -> employeeService.updateEmployee(employeeId, employee, version.orElse(null)))
+                .map(updatedEmployee -> ResponseEntity.ok().eTag(EmployeeController.eTag(updatedEmployee.version())).body(updatedEmployee))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PatchMapping("{id}")
+    public Mono<ResponseEntity<Void>> patchEmployee(@PathVariable("id") long employeeId,
+                                                    @RequestBody EmployeePatch patch,
+                                                    ServerWebExchange exchange) {
+        return ifMatchVersion(employeeId, exchange)
+                .flatMap(version -> employeeService.patchEmployee(employeeId, patch, version.orElse(null)))
+                .map(version -> ResponseEntity.noContent().eTag(EmployeeController.eTag(version)).<Void>build())
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // as on the servlet stack: empty without If-Match or for "*", and several tags are narrowed
+    // to the current version when it is among them
+    private Mono<Optional<Long>> ifMatchVersion(long employeeId, ServerWebExchange exchange) {
+        String ifMatch = exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_MATCH);
+        List<Long> versions = EmployeeController.ifMatchVersions(ifMatch);
+        if (versions == null) {
+            return Mono.just(Optional.empty());
+        }
+        if (versions.size() == 1) {
+            return Mono.just(Optional.of(versions.get(0)));
+        }
+        Mono<Long> current = versions.isEmpty() ? Mono.empty() : employeeService.getEmployeeVersion(employeeId);
+        return current.filter(versions::contains)
+                .map(Optional::of)
+                .switchIfEmpty(Mono.error(() -> EmployeeController.ifMatchFailed(ifMatch, employeeId)));
+    }
+
+    @DeleteMapping("{id}")
+    public Mono<ResponseEntity<String>> deleteEmployee(@PathVariable("id") long employeeId) {
+        return employeeService.deleteEmployee(employeeId)
+                .map(deleted -> deleted
+                        ? new ResponseEntity<>("Employee deleted successfully!.", HttpStatus.OK)
+                        : ResponseEntity.notFound().<String>build());
+    }
+
+    @PostMapping("/bulk-delete")
+    public Mono<EmployeeBulkDeleteResult> deleteEmployees(@RequestBody EmployeeBulkDelete bulkDelete) {
+        if ((bulkDelete.ids() == null) == (bulkDelete.lastName() == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Exactly one of ids or lastName is required");
+        }
+        return employeeService.deleteEmployees(bulkDelete).map(EmployeeBulkDeleteResult::new);
+    }
+}
@@ -0,0 +1,9 @@
+package com.excellence.spring_boot_testing.dto;
+
+import java.util.List;
+
+/**
+ * Body of {@code POST /api/employees/bulk-delete}: either a list of ids or a last name to purge.
+ */
+public record EmployeeBulkDelete(List<Long> ids, String lastName) {
+}
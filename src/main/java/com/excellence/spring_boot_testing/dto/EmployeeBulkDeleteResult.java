@@ -0,0 +1,4 @@
+package com.excellence.spring_boot_testing.dto;
+
+public record EmployeeBulkDeleteResult(int deleted) {
+}
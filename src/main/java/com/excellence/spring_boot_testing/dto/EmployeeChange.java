@@ -0,0 +1,20 @@
+package com.excellence.spring_boot_testing.dto;
+
+import com.excellence.spring_boot_testing.event.EmployeeChangedEvent;
+import com.excellence.spring_boot_testing.event.EmployeeChangedEvent.ChangeType;
+
+/**
+ * One entry of the change feed. The fields are the stored state for {@code CREATED} and
+ * {@code UPDATED}, except that a partial update leaves unchanged fields {@code null};
+ * {@code DELETED} carries only the id.
+ */
+public record EmployeeChange(long sequence, ChangeType type, long id, String firstName, String lastName, String email) {
+
+    public static EmployeeChange of(long sequence, EmployeeChangedEvent event) {
+        if (event.employee() == null) {
+            return new EmployeeChange(sequence, event.type(), event.id(), null, null, null);
+        }
+        return new EmployeeChange(sequence, event.type(), event.id(), event.employee().getFirstName(),
+                event.employee().getLastName(), event.employee().getEmail());
+    }
+}
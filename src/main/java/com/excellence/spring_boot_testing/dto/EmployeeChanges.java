@@ -0,0 +1,11 @@
+package com.excellence.spring_boot_testing.dto;
+
+import java.util.List;
+
+/**
+ * Changes after a client's cursor. {@code lastSequence} is the cursor for the next call. When
+ * {@code reset} is set the cursor is older than anything still kept: the client has to reload
+ * the list, then continue from {@code lastSequence}.
+ */
+public record EmployeeChanges(List<EmployeeChange> changes, long lastSequence, boolean reset) {
+}
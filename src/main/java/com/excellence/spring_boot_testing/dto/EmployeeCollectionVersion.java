@@ -0,0 +1,8 @@
+package com.excellence.spring_boot_testing.dto;
+
+/**
+ * Fingerprint of the whole employees table. Ids are never reused and every update bumps
+ * a row version, so any create, update or delete changes at least one of the three values.
+ */
+public record EmployeeCollectionVersion(long count, long maxId, long versionSum) {
+}
@@ -0,0 +1,5 @@
+package com.excellence.spring_boot_testing.dto;
+
+// number of employees sharing a value, e.g. a last name or an email domain
+public record EmployeeGroupCount(String value, long count) {
+}
@@ -0,0 +1,25 @@
+package com.excellence.spring_boot_testing.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * One keyset page of employees. {@code nextCursor} is an opaque token for the
+ * following page, or {@code null} when this is the last page.
+ */
+public record EmployeePage(List<EmployeeView> content, String nextCursor) {
+
+    public static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.excellence.spring_boot_testing.dto;
+
+/**
+ * Body of {@code PATCH /api/employees/{id}}: only the non-null fields are written.
+ */
+public record EmployeePatch(String firstName, String lastName, String email) {
+
+    public boolean isEmpty() {
+        return firstName == null && lastName == null && email == null;
+    }
+}
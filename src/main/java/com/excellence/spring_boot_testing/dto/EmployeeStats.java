@@ -0,0 +1,6 @@
+package com.excellence.spring_boot_testing.dto;
+
+import java.util.List;
+
+public record EmployeeStats(long total, List<EmployeeGroupCount> lastNames, List<EmployeeGroupCount> emailDomains) {
+}
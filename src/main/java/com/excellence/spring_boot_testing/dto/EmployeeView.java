@@ -0,0 +1,15 @@
+package com.excellence.spring_boot_testing.dto;
+
+import com.excellence.spring_boot_testing.model.Employee;
+
+/**
+ * Read-only employee as returned by the read endpoints. Selected column by column, so
+ * Hibernate neither manages nor snapshots it; serializes to the same JSON as {@link Employee}.
+ */
+public record EmployeeView(long id, String firstName, String lastName, String email, long version) {
+
+    public static EmployeeView of(Employee employee) {
+        return new EmployeeView(employee.getId(), employee.getFirstName(), employee.getLastName(),
+                employee.getEmail(), employee.getVersion());
+    }
+}
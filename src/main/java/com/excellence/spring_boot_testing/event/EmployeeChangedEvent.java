@@ -0,0 +1,29 @@
+package com.excellence.spring_boot_testing.event;
+
+import com.excellence.spring_boot_testing.model.Employee;
+
+/**
+ * Published by the service layer after an employee is created, updated or deleted.
+ * {@code employee} is the stored state, or {@code null} for deletions. Partial updates
+ * (PATCH) carry only the changed fields; a {@code null} field there means "unchanged".
+ */
+public record EmployeeChangedEvent(ChangeType type, long id, Employee employee) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static EmployeeChangedEvent created(Employee employee) {
+        return new EmployeeChangedEvent(ChangeType.CREATED, employee.getId(), employee);
+    }
+
+    public static EmployeeChangedEvent updated(Employee employee) {
+        return new EmployeeChangedEvent(ChangeType.UPDATED, employee.getId(), employee);
+    }
+
+    public static EmployeeChangedEvent deleted(long id) {
+        return new EmployeeChangedEvent(ChangeType.DELETED, id, null);
+    }
+}
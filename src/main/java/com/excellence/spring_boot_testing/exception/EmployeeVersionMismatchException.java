@@ -0,0 +1,9 @@
+package com.excellence.spring_boot_testing.exception;
+
+// the If-Match version of a conditional write no longer matches the stored row
+public class EmployeeVersionMismatchException extends RuntimeException {
+
+    public EmployeeVersionMismatchException(String message) {
+        super(message);
+    }
+}
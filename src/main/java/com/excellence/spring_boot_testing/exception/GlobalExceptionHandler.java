@@ -0,0 +1,70 @@
+package com.excellence.spring_boot_testing.exception;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.sql.SQLException;
+import java.util.Locale;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    // SQLSTATE of a unique constraint violation
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private static final String EMAIL_CONSTRAINT = "uk_employees_email";
+
+    @ExceptionHandler(EmployeeAlreadyExistsException.class)
+    public ProblemDetail handleEmployeeAlreadyExists(EmployeeAlreadyExistsException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    // the database constraints are the source of truth, e.g. two concurrent creates with the same email;
+    // only the unique email is a conflict, anything else it rejects (a missing field) is a bad request
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ProblemDetail handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        if (isDuplicateEmail(ex)) {
+            return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, "Request conflicts with an existing employee");
+        }
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "firstName, lastName and email are required");
+    }
+
+    // a conditional PUT or PATCH whose If-Match names a version that was already replaced
+    @ExceptionHandler(EmployeeVersionMismatchException.class)
+    public ProblemDetail handleEmployeeVersionMismatch(EmployeeVersionMismatchException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+    }
+
+    // an unconditional write that lost a race with another writer; retrying is safe
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, "Employee was modified concurrently, retry the request");
+    }
+
+    // e.g. waiting too long on a lookup already in flight for the same employee
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ProblemDetail handleQueryTimeout(QueryTimeoutException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, "Timed out reading the employee, retry later");
+    }
+
+    private static boolean isDuplicateEmail(DataIntegrityViolationException ex) {
+        if (ex instanceof DuplicateKeyException) {
+            return true;
+        }
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && UNIQUE_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+            if (cause.getMessage() != null && cause.getMessage().toLowerCase(Locale.ROOT).contains(EMAIL_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,39 @@
+package com.excellence.spring_boot_testing.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Remembers which repository method the current thread is executing, so SQL seen by
+ * {@link SlowQueryListener} can be attributed to it. Added to every Spring Data repository
+ * proxy by {@link com.excellence.spring_boot_testing.config.SlowQueryConfig}.
+ */
+public class RepositoryMethodContext implements MethodInterceptor {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private final String repositoryName;
+
+    public RepositoryMethodContext(Class<?> repositoryInterface) {
+        this.repositoryName = repositoryInterface.getSimpleName();
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String previous = CURRENT.get();
+        CURRENT.set(repositoryName + "." + invocation.getMethod().getName());
+        try {
+            return invocation.proceed();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
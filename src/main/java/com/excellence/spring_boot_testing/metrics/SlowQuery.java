@@ -0,0 +1,17 @@
+package com.excellence.spring_boot_testing.metrics;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One captured slow statement. {@code repositoryMethod} is the {@code EmployeeRepository}
+ * method that issued it, or null when it did not come through a repository; {@code plan}
+ * is null for batches and statements H2 cannot explain.
+ */
+public record SlowQuery(Instant timestamp,
+                        long elapsedMillis,
+                        String repositoryMethod,
+                        String sql,
+                        List<String> parameters,
+                        String plan) {
+}
@@ -0,0 +1,126 @@
+package com.excellence.spring_boot_testing.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs statements slower than {@link SlowQueryProperties#threshold()} and keeps a sample of them
+ * in {@link SlowQueryLog}. Each capture carries the bind parameters, the repository method that
+ * issued the statement and H2's {@code EXPLAIN} plan, taken on the same connection right after
+ * the statement ran. Fast statements only cost the elapsed-time comparison.
+ */
+public class SlowQueryListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryListener.class);
+
+    private SlowQueryProperties properties;
+
+    private SlowQueryLog slowQueryLog;
+
+    public SlowQueryListener(SlowQueryProperties properties, SlowQueryLog slowQueryLog) {
+        this.properties = properties;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < properties.threshold().toMillis()
+                || ThreadLocalRandom.current().nextDouble() >= properties.sampleRate()) {
+            return;
+        }
+        String repositoryMethod = RepositoryMethodContext.current();
+        for (QueryInfo queryInfo : queryInfoList) {
+            List<ParameterSetOperation> parameters = queryInfo.getParametersList().isEmpty()
+                    ? List.of()
+                    : queryInfo.getParametersList().get(0);
+            // batches ran many parameter sets, a single plan would not describe them
+            String plan = execInfo.isBatch() ? null : explain(execInfo, queryInfo.getQuery(), parameters);
+            SlowQuery slowQuery = new SlowQuery(Instant.now(), execInfo.getElapsedTime(), repositoryMethod,
+                    queryInfo.getQuery(), describe(parameters), plan);
+            log.warn("Slow query ({} ms) from {}: {} {}\n{}", slowQuery.elapsedMillis(),
+                    repositoryMethod != null ? repositoryMethod : "<no repository>",
+                    slowQuery.sql(), slowQuery.parameters(), plan);
+            slowQueryLog.add(slowQuery);
+        }
+    }
+
+    private String explain(ExecutionInfo execInfo, String sql, List<ParameterSetOperation> parameters) {
+        if (!isExplainable(sql)) {
+            return null;
+        }
+        try {
+            Connection connection = execInfo.getStatement().getConnection();
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (ParameterSetOperation parameter : parameters) {
+                    Object[] args = parameter.getArgs();
+                    if (!(args[0] instanceof Integer index)) {
+                        continue;
+                    }
+                    if ("setNull".equals(parameter.getMethod().getName())) {
+                        explain.setNull(index, (Integer) args[1]);
+                    } else {
+                        explain.setObject(index, args[1]);
+                    }
+                }
+                StringJoiner plan = new StringJoiner("\n");
+                try (ResultSet resultSet = explain.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.add(resultSet.getString(1));
+                    }
+                }
+                return plan.toString();
+            }
+        } catch (SQLException | RuntimeException e) {
+            log.debug("Could not explain {}", sql, e);
+            return null;
+        }
+    }
+
+    private static boolean isExplainable(String sql) {
+        String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return statement.startsWith("select") || statement.startsWith("with")
+                || statement.startsWith("update") || statement.startsWith("delete")
+                || statement.startsWith("insert") || statement.startsWith("merge");
+    }
+
+    private List<String> describe(List<ParameterSetOperation> parameters) {
+        List<ParameterSetOperation> ordered = new ArrayList<>(parameters);
+        ordered.sort(Comparator.comparingInt(parameter ->
+                parameter.getArgs()[0] instanceof Integer index ? index : Integer.MAX_VALUE));
+        List<String> described = new ArrayList<>(ordered.size());
+        for (ParameterSetOperation parameter : ordered) {
+            Object[] args = parameter.getArgs();
+            Object value = "setNull".equals(parameter.getMethod().getName()) ? null : args[1];
+            described.add(args[0] + "=" + redact(value));
+        }
+        return described;
+    }
+
+    // names and emails are personal data; numbers, dates and flags are kept for diagnosis
+    private String redact(Object value) {
+        if (value instanceof CharSequence text) {
+            return properties.redactStrings() ? "'***' (" + text.length() + " chars)" : "'" + text + "'";
+        }
+        return String.valueOf(value);
+    }
+}
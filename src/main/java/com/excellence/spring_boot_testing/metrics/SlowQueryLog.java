@@ -0,0 +1,38 @@
+package com.excellence.spring_boot_testing.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Bounded ring of the most recent slow statements, newest first, served as the
+ * {@code slowqueries} actuator endpoint. Once full, each new entry drops the oldest one.
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueryLog {
+
+    private final Deque<SlowQuery> recent;
+
+    private final int capacity;
+
+    public SlowQueryLog(int capacity) {
+        this.capacity = Math.max(capacity, 1);
+        this.recent = new ArrayDeque<>(this.capacity);
+    }
+
+    public synchronized void add(SlowQuery slowQuery) {
+        if (recent.size() == capacity) {
+            recent.removeLast();
+        }
+        recent.addFirst(slowQuery);
+    }
+
+    @ReadOperation
+    public synchronized List<SlowQuery> recent() {
+        return new ArrayList<>(recent);
+    }
+}
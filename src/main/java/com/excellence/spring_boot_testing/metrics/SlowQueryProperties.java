@@ -0,0 +1,21 @@
+package com.excellence.spring_boot_testing.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@link SlowQueryListener}, bound from {@code employees.slow-query.*}.
+ *
+ * @param threshold     statements taking at least this long count as slow
+ * @param sampleRate    fraction of slow statements that are captured, from 0 to 1
+ * @param capacity      number of recent slow statements kept for the admin endpoint
+ * @param redactStrings whether string bind parameters are masked in the log and the endpoint
+ */
+@ConfigurationProperties("employees.slow-query")
+public record SlowQueryProperties(@DefaultValue("100ms") Duration threshold,
+                                  @DefaultValue("1.0") double sampleRate,
+                                  @DefaultValue("100") int capacity,
+                                  @DefaultValue("true") boolean redactStrings) {
+}
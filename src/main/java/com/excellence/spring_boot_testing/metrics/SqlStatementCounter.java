@@ -0,0 +1,28 @@
+package com.excellence.spring_boot_testing.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread. Hibernate creates
+ * this class itself (see {@code hibernate.session_factory.statement_inspector}), so the
+ * count lives in a thread local that {@link SqlStatementMetricsFilter} resets and reads
+ * around each request.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int current() {
+        return COUNT.get()[0];
+    }
+}
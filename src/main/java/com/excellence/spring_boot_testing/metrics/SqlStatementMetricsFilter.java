@@ -0,0 +1,46 @@
+package com.excellence.spring_boot_testing.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request issued as the {@code http.server.requests.sql}
+ * distribution, tagged like {@code http.server.requests} with method and uri template.
+ * Work handed to another thread, such as the streamed export, is not attributed.
+ * Registered by {@link com.excellence.spring_boot_testing.config.MetricsConfig}.
+ */
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private MeterRegistry meterRegistry;
+
+    public SqlStatementMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementCounter.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("http.server.requests.sql")
+                    .description("SQL statements issued per request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri != null ? uri.toString() : "UNKNOWN")
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry)
+                    .record(SqlStatementCounter.current());
+        }
+    }
+}
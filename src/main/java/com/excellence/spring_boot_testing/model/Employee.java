@@ -2,6 +2,7 @@ package com.excellence.spring_boot_testing.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Setter
 @Getter
@@ -9,11 +10,16 @@ import lombok.*;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "employees")
+@DynamicUpdate
+@Table(name = "employees",
+        uniqueConstraints = @UniqueConstraint(name = "uk_employees_email", columnNames = "email"),
+        indexes = @Index(name = "idx_employees_last_name_first_name", columnList = "last_name, first_name"))
 public class Employee {
 
+    // pooled sequence rather than IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employees_seq")
+    @SequenceGenerator(name = "employees_seq", sequenceName = "employees_seq", allocationSize = 50)
     private long id;
 
     @Column(name = "first_name", nullable = false)
@@ -24,4 +30,8 @@ public class Employee {
 
     @Column(nullable = false)
     private String email;
+
+    // bumped by Hibernate on every update; also the basis of the employee ETag
+    @Version
+    private long version;
 }
@@ -0,0 +1,539 @@
+package com.excellence.spring_boot_testing.offheap;
+
+import com.excellence.spring_boot_testing.dto.EmployeeCollectionVersion;
+import com.excellence.spring_boot_testing.dto.EmployeePatch;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.model.Employee;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntToLongFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Employees held column by column outside the Java heap. A row is a slot in each column:
+ * {@code long} id and version, the first name and the part of the email before the domain as
+ * UTF-8 slices of a {@link Utf8Arena}, and last name and email domain as {@link Utf8Dictionary}
+ * codes. Ids are handed out in ascending order and slots are never reused, so slot order is id
+ * order and keyset pages are a binary search away.
+ * <p>
+ * The journal is compacted while the store runs, once replaced and deleted records outnumber
+ * the live rows by enough. The memory is not: deleted rows keep their slot and replaced strings
+ * their arena space until a restart replays the compacted journal into fresh columns.
+ * <p>
+ * Reads never lock. Each row has a stamp that the single writer makes odd while it rewrites
+ * the row and advances when it is done; a reader retries when the stamp was odd or moved
+ * while it copied the row's columns. Ids and emails are found through {@link SlotHashIndex}es.
+ * Every change goes to the {@link EmployeeJournal} before it is applied. Changes are not part
+ * of Spring transactions and are not rolled back with them.
+ */
+public class EmployeeColumnStore implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeColumnStore.class);
+
+    private static final int WRITING = 1;
+
+    private static final int DELETED = 2;
+
+    private static final int STAMP_STEP = 4;
+
+    // the varchar(255) of the employees table, so both stores accept the same rows
+    private static final int MAX_FIELD_LENGTH = 255;
+
+    // more than this many journal records beyond twice the live rows triggers a compaction
+    private static final int COMPACTION_SLACK = 10_000;
+
+    private final OffHeapArray ids = new OffHeapArray();
+
+    private final OffHeapArray versions = new OffHeapArray();
+
+    private final OffHeapArray firstNames = new OffHeapArray();
+
+    private final OffHeapArray lastNames = new OffHeapArray();
+
+    private final OffHeapArray emailLocals = new OffHeapArray();
+
+    private final OffHeapArray emailDomains = new OffHeapArray();
+
+    private final OffHeapArray stamps = new OffHeapArray();
+
+    private final Utf8Arena arena = new Utf8Arena();
+
+    private final Utf8Dictionary lastNameDictionary = new Utf8Dictionary(arena);
+
+    private final Utf8Dictionary domainDictionary = new Utf8Dictionary(arena);
+
+    private final SlotHashIndex idIndex = new SlotHashIndex(1024);
+
+    private final SlotHashIndex emailIndex = new SlotHashIndex(1024);
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final EmployeeJournal journal;
+
+    // slots in use, including deleted ones
+    private volatile int size;
+
+    private volatile EmployeeCollectionVersion collectionVersion = new EmployeeCollectionVersion(0, 0, 0);
+
+    private long nextId = 1;
+
+    public EmployeeColumnStore(Path journalPath, boolean fsync) throws IOException {
+        this.journal = EmployeeJournal.open(journalPath, fsync, this::apply);
+        // the replayed rows alone would miss the ids of deleted employees that compaction dropped
+        nextId = Math.max(nextId, journal.nextId());
+        if (compactionDue()) {
+            journal.rewrite(liveEntries());
+        }
+    }
+
+    // ---- reads: lock-free
+
+    public EmployeeView findById(long id) {
+        int slot = idIndex.find(Utf8Arena.mix(id), candidate -> ids.getLong(offset8(candidate)) == id && isLive(candidate));
+        return slot < 0 ? null : view(slot);
+    }
+
+    public EmployeeView findByEmail(String email) {
+        int slot = slotOfEmail(email);
+        return slot < 0 ? null : view(slot);
+    }
+
+    public boolean existsByEmail(String email) {
+        return slotOfEmail(email) >= 0;
+    }
+
+    public EmployeeCollectionVersion collectionVersion() {
+        return collectionVersion;
+    }
+
+    // live rows in id order; rows written after the call starts may or may not be included
+    public Stream<EmployeeView> stream() {
+        return IntStream.range(0, size).mapToObj(this::view).filter(Objects::nonNull);
+    }
+
+    public List<EmployeeView> findNextPage(long afterId, int limit) {
+        int end = size;
+        // first slot with an id above afterId
+        int low = 0;
+        int high = end;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ids.getLong(offset8(middle)) <= afterId) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        List<EmployeeView> page = new ArrayList<>(Math.min(limit, end - low));
+        for (int slot = low; slot < end && page.size() < limit; slot++) {
+            EmployeeView view = view(slot);
+            if (view != null) {
+                page.add(view);
+            }
+        }
+        return page;
+    }
+
+    // ---- writes: one writer at a time, journaled before they are applied
+
+    // inserts when the id is 0, otherwise updates if the version still matches
+    public Employee save(Employee employee) {
+        return saveAll(List.of(employee)).get(0);
+    }
+
+    public List<Employee> saveAll(List<Employee> employees) {
+        writeLock.lock();
+        try {
+            List<EmployeeJournal.Entry> entries = new ArrayList<>(employees.size());
+            Set<String> batchEmails = new HashSet<>();
+            long id = nextId;
+            for (Employee employee : employees) {
+                requireFields(employee);
+                requireLengths(employee.getFirstName(), employee.getLastName(), employee.getEmail());
+                long rowId = employee.getId();
+                long version;
+                if (rowId == 0) {
+                    rowId = id++;
+                    version = 0;
+                } else {
+                    EmployeeView current = findById(rowId);
+                    if (current == null || current.version() != employee.getVersion()) {
+                        throw new ObjectOptimisticLockingFailureException(Employee.class, rowId);
+                    }
+                    version = current.version() + 1;
+                }
+                int owner = slotOfEmail(employee.getEmail());
+                if ((owner >= 0 && ids.getLong(offset8(owner)) != rowId) || !batchEmails.add(employee.getEmail())) {
+                    throw duplicateEmail(employee.getEmail());
+                }
+                entries.add(new EmployeeJournal.Entry(rowId, version, employee.getFirstName(), employee.getLastName(), employee.getEmail()));
+            }
+            journal.append(entries);
+            for (int i = 0; i < entries.size(); i++) {
+                apply(entries.get(i));
+                employees.get(i).setId(entries.get(i).id());
+                employees.get(i).setVersion(entries.get(i).version());
+            }
+            compactIfDue();
+            return employees;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // replaces every field; 0 when the row is gone or, given an expected version, has moved on
+    public int update(Employee employee, Long expectedVersion) {
+        requireFields(employee);
+        return patch(employee.getId(),
+                new EmployeePatch(employee.getFirstName(), employee.getLastName(), employee.getEmail()), expectedVersion);
+    }
+
+    public int patch(long id, EmployeePatch patch) {
+        return patch(id, patch, null);
+    }
+
+    public int patch(long id, EmployeePatch patch, Long expectedVersion) {
+        requireLengths(patch.firstName(), patch.lastName(), patch.email());
+        writeLock.lock();
+        try {
+            EmployeeView current = findById(id);
+            if (current == null || (expectedVersion != null && current.version() != expectedVersion)) {
+                return 0;
+            }
+            if (patch.email() != null) {
+                int owner = slotOfEmail(patch.email());
+                if (owner >= 0 && ids.getLong(offset8(owner)) != id) {
+                    throw duplicateEmail(patch.email());
+                }
+            }
+            EmployeeJournal.Entry entry = new EmployeeJournal.Entry(id, current.version() + 1,
+                    patch.firstName() != null ? patch.firstName() : current.firstName(),
+                    patch.lastName() != null ? patch.lastName() : current.lastName(),
+                    patch.email() != null ? patch.email() : current.email());
+            journal.append(List.of(entry));
+            apply(entry);
+            compactIfDue();
+            return 1;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int deleteAll(Collection<? extends Long> employeeIds) {
+        writeLock.lock();
+        try {
+            List<EmployeeJournal.Entry> entries = new ArrayList<>();
+            for (Long id : new HashSet<>(employeeIds)) {
+                if (findById(id) != null) {
+                    entries.add(EmployeeJournal.Entry.delete(id));
+                }
+            }
+            if (!entries.isEmpty()) {
+                journal.append(entries);
+                entries.forEach(this::apply);
+                compactIfDue();
+            }
+            return entries.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // off-heap bytes reserved by the columns, strings and indexes
+    public long reservedBytes() {
+        return ids.capacity() + versions.capacity() + firstNames.capacity() + lastNames.capacity()
+                + emailLocals.capacity() + emailDomains.capacity() + stamps.capacity() + arena.reserved()
+                + lastNameDictionary.reserved() + domainDictionary.reserved() + idIndex.reserved() + emailIndex.reserved();
+    }
+
+    @Override
+    public void close() throws IOException {
+        journal.close();
+    }
+
+    // ---- applying journal entries, at startup and after each append; writer only
+
+    private void apply(EmployeeJournal.Entry entry) {
+        EmployeeView current = findById(entry.id());
+        if (entry.isDelete()) {
+            if (current != null) {
+                delete(slotOf(entry.id()), current);
+            }
+        } else if (current == null) {
+            insert(entry);
+        } else {
+            update(slotOf(entry.id()), current, entry);
+        }
+    }
+
+    private void insert(EmployeeJournal.Entry entry) {
+        int slot = size;
+        long offset8 = offset8(slot);
+        long offset4 = offset4(slot);
+        for (OffHeapArray column : List.of(ids, versions, firstNames, emailLocals)) {
+            column.ensureCapacity(offset8 + Long.BYTES);
+        }
+        for (OffHeapArray column : List.of(lastNames, emailDomains, stamps)) {
+            column.ensureCapacity(offset4 + Integer.BYTES);
+        }
+        Columns columns = columns(entry);
+        ids.putLong(offset8, entry.id());
+        writeColumns(slot, columns);
+        stamps.putIntRelease(offset4, STAMP_STEP);
+        // indexed before it is counted, so a rehash does not see the slot twice
+        idIndex.add(Utf8Arena.mix(entry.id()), slot, idRehash());
+        emailIndex.add(emailHash(entry.email()), slot, emailRehash());
+        size = slot + 1;
+        nextId = Math.max(nextId, entry.id() + 1);
+        EmployeeCollectionVersion previous = collectionVersion;
+        collectionVersion = new EmployeeCollectionVersion(previous.count() + 1,
+                Math.max(previous.maxId(), entry.id()), previous.versionSum() + entry.version());
+    }
+
+    private void update(int slot, EmployeeView current, EmployeeJournal.Entry entry) {
+        // everything that can fail, allocation included, happens before the stamp goes odd
+        Columns columns = columns(entry);
+        boolean emailChanged = !current.email().equals(entry.email());
+        // the new email is findable before the row shows it, the old one until after
+        if (emailChanged) {
+            emailIndex.add(emailHash(entry.email()), slot, emailRehash());
+        }
+        int stamp = stamps.getInt(offset4(slot));
+        stamps.putInt(offset4(slot), stamp | WRITING);
+        VarHandle.storeStoreFence();
+        try {
+            writeColumns(slot, columns);
+        } finally {
+            stamps.putIntRelease(offset4(slot), stamp + STAMP_STEP);
+        }
+        if (emailChanged) {
+            emailIndex.remove(emailHash(current.email()), slot);
+        }
+        EmployeeCollectionVersion previous = collectionVersion;
+        collectionVersion = new EmployeeCollectionVersion(previous.count(), previous.maxId(),
+                previous.versionSum() - current.version() + entry.version());
+    }
+
+    private void delete(int slot, EmployeeView current) {
+        int stamp = stamps.getInt(offset4(slot));
+        stamps.putIntRelease(offset4(slot), (stamp + STAMP_STEP) | DELETED);
+        idIndex.remove(Utf8Arena.mix(current.id()), slot);
+        emailIndex.remove(emailHash(current.email()), slot);
+        EmployeeCollectionVersion previous = collectionVersion;
+        long maxId = previous.maxId();
+        if (current.id() == maxId) {
+            maxId = 0;
+            for (int candidate = size - 1; candidate >= 0; candidate--) {
+                if (isLive(candidate)) {
+                    maxId = ids.getLong(offset8(candidate));
+                    break;
+                }
+            }
+        }
+        collectionVersion = new EmployeeCollectionVersion(previous.count() - 1, maxId,
+                previous.versionSum() - current.version());
+    }
+
+    // a row's strings stored and encoded, ready to be written into its slot
+    private record Columns(long version, long firstName, int lastName, long emailLocal, int emailDomain) {
+    }
+
+    private Columns columns(EmployeeJournal.Entry entry) {
+        byte[] email = utf8(entry.email());
+        int at = domainStart(email);
+        return new Columns(entry.version(), arena.append(entry.firstName()),
+                lastNameDictionary.encode(utf8(entry.lastName())),
+                arena.append(Arrays.copyOfRange(email, 0, at)),
+                domainDictionary.encode(Arrays.copyOfRange(email, at, email.length)));
+    }
+
+    private void writeColumns(int slot, Columns columns) {
+        versions.putLong(offset8(slot), columns.version());
+        firstNames.putLong(offset8(slot), columns.firstName());
+        lastNames.putInt(offset4(slot), columns.lastName());
+        emailLocals.putLong(offset8(slot), columns.emailLocal());
+        emailDomains.putInt(offset4(slot), columns.emailDomain());
+    }
+
+    // ---- journal compaction; writer only
+
+    private boolean compactionDue() {
+        return journal.records() > 2 * collectionVersion.count() + COMPACTION_SLACK;
+    }
+
+    // the write that got here is already durable, so a failed compaction only leaves the journal long
+    private void compactIfDue() {
+        if (compactionDue()) {
+            try {
+                journal.rewrite(liveEntries());
+            } catch (IOException | UncheckedIOException e) {
+                log.warn("Could not compact the employee journal", e);
+            }
+        }
+    }
+
+    private List<EmployeeJournal.Entry> liveEntries() {
+        return stream()
+                .map(view -> new EmployeeJournal.Entry(view.id(), view.version(), view.firstName(), view.lastName(), view.email()))
+                .toList();
+    }
+
+    // ---- row access
+
+    private EmployeeView view(int slot) {
+        long offset8 = offset8(slot);
+        long offset4 = offset4(slot);
+        while (true) {
+            int stamp = stamps.getIntAcquire(offset4);
+            if ((stamp & DELETED) != 0) {
+                return null;
+            }
+            if ((stamp & WRITING) == 0) {
+                long version = versions.getLong(offset8);
+                long firstName = firstNames.getLong(offset8);
+                int lastName = lastNames.getInt(offset4);
+                long emailLocal = emailLocals.getLong(offset8);
+                int emailDomain = emailDomains.getInt(offset4);
+                VarHandle.loadLoadFence();
+                if (stamps.getInt(offset4) == stamp) {
+                    // slices and dictionary entries never change, so they are decoded outside the check
+                    return new EmployeeView(ids.getLong(offset8), arena.string(firstName),
+                            arena.string(lastNameDictionary.slice(lastName)),
+                            arena.string(emailLocal) + arena.string(domainDictionary.slice(emailDomain)), version);
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private boolean isLive(int slot) {
+        return (stamps.getIntAcquire(offset4(slot)) & DELETED) == 0;
+    }
+
+    private int slotOf(long id) {
+        return idIndex.find(Utf8Arena.mix(id), candidate -> ids.getLong(offset8(candidate)) == id && isLive(candidate));
+    }
+
+    private int slotOfEmail(String email) {
+        byte[] utf8 = utf8(email);
+        int at = domainStart(utf8);
+        int domain = domainDictionary.find(Arrays.copyOfRange(utf8, at, utf8.length));
+        if (domain < 0) {
+            return -1;
+        }
+        byte[] local = Arrays.copyOfRange(utf8, 0, at);
+        return emailIndex.find(Utf8Arena.hash(utf8), candidate -> hasEmail(candidate, local, domain));
+    }
+
+    // compared in place under the row stamp, without building the email string
+    private boolean hasEmail(int slot, byte[] local, int domain) {
+        long offset8 = offset8(slot);
+        long offset4 = offset4(slot);
+        while (true) {
+            int stamp = stamps.getIntAcquire(offset4);
+            if ((stamp & DELETED) != 0) {
+                return false;
+            }
+            if ((stamp & WRITING) == 0) {
+                long emailLocal = emailLocals.getLong(offset8);
+                int emailDomain = emailDomains.getInt(offset4);
+                VarHandle.loadLoadFence();
+                if (stamps.getInt(offset4) == stamp) {
+                    return emailDomain == domain && arena.equals(emailLocal, local);
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private SlotHashIndex.Rehash idRehash() {
+        return rehash(slot -> Utf8Arena.mix(ids.getLong(offset8(slot))));
+    }
+
+    private SlotHashIndex.Rehash emailRehash() {
+        return rehash(slot -> emailHash(view(slot).email()));
+    }
+
+    private SlotHashIndex.Rehash rehash(IntToLongFunction hash) {
+        return new SlotHashIndex.Rehash() {
+            @Override
+            public int liveEntries() {
+                return (int) collectionVersion.count();
+            }
+
+            @Override
+            public void forEach(SlotHashIndex.Entries entries) {
+                for (int slot = 0; slot < size; slot++) {
+                    if (isLive(slot)) {
+                        entries.accept(hash.applyAsLong(slot), slot);
+                    }
+                }
+            }
+        };
+    }
+
+    private static long emailHash(String email) {
+        return Utf8Arena.hash(utf8(email));
+    }
+
+    // the domain keeps its '@'; an email without one is all local part
+    private static int domainStart(byte[] email) {
+        for (int i = email.length - 1; i >= 0; i--) {
+            if (email[i] == '@') {
+                return i;
+            }
+        }
+        return email.length;
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void requireFields(Employee employee) {
+        if (employee.getFirstName() == null || employee.getLastName() == null || employee.getEmail() == null) {
+            throw new DataIntegrityViolationException("firstName, lastName and email are required");
+        }
+    }
+
+    // checked before anything is journaled: a record that cannot be applied would fail every replay
+    private static void requireLengths(String... values) {
+        for (String value : values) {
+            if (value != null && value.length() > MAX_FIELD_LENGTH) {
+                throw new DataIntegrityViolationException("Value of " + value.length()
+                        + " characters is longer than " + MAX_FIELD_LENGTH);
+            }
+        }
+    }
+
+    private static DuplicateKeyException duplicateEmail(String email) {
+        return new DuplicateKeyException("Duplicate email " + email);
+    }
+
+    private static long offset8(int slot) {
+        return (long) slot * Long.BYTES;
+    }
+
+    private static long offset4(int slot) {
+        return (long) slot * Integer.BYTES;
+    }
+}
@@ -0,0 +1,229 @@
+package com.excellence.spring_boot_testing.offheap;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead log of the off-heap store: every change is appended here before it is applied
+ * in memory, and replayed on startup. A record is {@code length, body, CRC32C(body)}; the
+ * body is the full row for an insert or update, or just the id for a delete. A record cut
+ * short by a crash fails its length or checksum and is truncated away on the next start.
+ * A compacted journal starts with the next id to hand out, which its live rows alone would
+ * understate once the newest employees were deleted.
+ */
+final class EmployeeJournal implements Closeable {
+
+    private static final byte PUT = 1;
+
+    private static final byte DELETE = 2;
+
+    private static final byte NEXT_ID = 3;
+
+    private final Path path;
+
+    private final boolean fsync;
+
+    private FileChannel channel;
+
+    private long records;
+
+    // one past the highest id any record has named, deleted rows included
+    private long nextId = 1;
+
+    record Entry(long id, long version, String firstName, String lastName, String email) {
+
+        static Entry delete(long id) {
+            return new Entry(id, 0, null, null, null);
+        }
+
+        boolean isDelete() {
+            return firstName == null;
+        }
+    }
+
+    private EmployeeJournal(Path path, boolean fsync) {
+        this.path = path;
+        this.fsync = fsync;
+    }
+
+    // replays every intact record, in order, then opens the journal for appending
+    static EmployeeJournal open(Path path, boolean fsync, Consumer<Entry> replay) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        EmployeeJournal journal = new EmployeeJournal(path, fsync);
+        journal.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long valid = journal.replay(replay);
+        if (valid < journal.channel.size()) {
+            journal.channel.truncate(valid);
+        }
+        journal.channel.position(valid);
+        return journal;
+    }
+
+    // one write, and one fsync, for the whole group
+    synchronized void append(Collection<Entry> entries) {
+        ByteBuffer buffer = encode(entries);
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to the employee journal " + path, e);
+        }
+        records += entries.size();
+        entries.forEach(entry -> nextId = Math.max(nextId, entry.id() + 1));
+    }
+
+    long records() {
+        return records;
+    }
+
+    // never below an id the journal has seen, so ids of deleted employees are not issued again
+    long nextId() {
+        return nextId;
+    }
+
+    // replaces the log with the next id and one record per live row; the swap is an atomic rename
+    synchronized void rewrite(Collection<Entry> live) throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer[] buffers = {encodeNextId(nextId), encode(live)};
+            while (buffers[0].hasRemaining() || buffers[1].hasRemaining()) {
+                target.write(buffers);
+            }
+            target.force(true);
+        }
+        channel.close();
+        try {
+            Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            records = live.size() + 1;
+        } finally {
+            // the compacted journal after the rename, the old one if it failed
+            channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private long replay(Consumer<Entry> replay) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+        long size = channel.size();
+        long position = 0;
+        CRC32C crc = new CRC32C();
+        while (position + Integer.BYTES <= size) {
+            int length = input.readInt();
+            if (length <= 0 || position + 2L * Integer.BYTES + length > size) {
+                break;
+            }
+            byte[] body = new byte[length];
+            input.readFully(body);
+            crc.reset();
+            crc.update(body);
+            if ((int) crc.getValue() != input.readInt()) {
+                break;
+            }
+            ByteBuffer record = ByteBuffer.wrap(body);
+            if (record.get(0) == NEXT_ID) {
+                nextId = Math.max(nextId, record.getLong(1));
+            } else {
+                Entry entry = decode(record);
+                nextId = Math.max(nextId, entry.id() + 1);
+                replay.accept(entry);
+            }
+            position += 2L * Integer.BYTES + length;
+            records++;
+        }
+        return position;
+    }
+
+    private static ByteBuffer encode(Collection<Entry> entries) {
+        int size = 0;
+        for (Entry entry : entries) {
+            size += 2 * Integer.BYTES + bodyLength(entry);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        CRC32C crc = new CRC32C();
+        for (Entry entry : entries) {
+            int length = bodyLength(entry);
+            buffer.putInt(length);
+            int start = buffer.position();
+            buffer.put(entry.isDelete() ? DELETE : PUT).putLong(entry.id());
+            if (!entry.isDelete()) {
+                buffer.putLong(entry.version());
+                putString(buffer, entry.firstName());
+                putString(buffer, entry.lastName());
+                putString(buffer, entry.email());
+            }
+            crc.reset();
+            crc.update(buffer.array(), start, length);
+            buffer.putInt((int) crc.getValue());
+        }
+        return buffer.flip();
+    }
+
+    private static ByteBuffer encodeNextId(long nextId) {
+        int length = 1 + Long.BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Integer.BYTES + length);
+        buffer.putInt(length).put(NEXT_ID).putLong(nextId);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), Integer.BYTES, length);
+        return buffer.putInt((int) crc.getValue()).flip();
+    }
+
+    private static Entry decode(ByteBuffer body) {
+        byte type = body.get();
+        long id = body.getLong();
+        if (type == DELETE) {
+            return Entry.delete(id);
+        }
+        return new Entry(id, body.getLong(), getString(body), getString(body), getString(body));
+    }
+
+    private static int bodyLength(Entry entry) {
+        if (entry.isDelete()) {
+            return 1 + Long.BYTES;
+        }
+        return 1 + 2 * Long.BYTES + utf8Length(entry.firstName()) + utf8Length(entry.lastName()) + utf8Length(entry.email());
+    }
+
+    private static int utf8Length(String value) {
+        return Short.BYTES + value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    // the length is an unsigned short, as in a Utf8Arena slice; a longer value would be cut short
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length > Utf8Arena.MAX_LENGTH) {
+            throw new IllegalArgumentException("Value of " + utf8.length + " bytes is longer than " + Utf8Arena.MAX_LENGTH);
+        }
+        buffer.putShort((short) utf8.length).put(utf8);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] utf8 = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,91 @@
+package com.excellence.spring_boot_testing.offheap;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Growable memory outside the Java heap, addressed by byte offset: a list of 1 MiB direct
+ * buffers, so growing never copies data. Only the writer grows it; readers pick up the new
+ * chunk list through a volatile read. Ints and longs must sit at offsets aligned to their
+ * size, which is what lets them be read and written with acquire/release semantics.
+ */
+final class OffHeapArray {
+
+    static final int CHUNK_SHIFT = 20;
+
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+
+    // writer only
+    void ensureCapacity(long bytes) {
+        ByteBuffer[] current = chunks;
+        long needed = (bytes + CHUNK_MASK) >>> CHUNK_SHIFT;
+        if (needed <= current.length) {
+            return;
+        }
+        ByteBuffer[] grown = Arrays.copyOf(current, (int) needed);
+        for (int i = current.length; i < grown.length; i++) {
+            grown[i] = ByteBuffer.allocateDirect(CHUNK_SIZE + Long.BYTES).alignedSlice(Long.BYTES).order(ByteOrder.nativeOrder());
+        }
+        chunks = grown;
+    }
+
+    long capacity() {
+        return (long) chunks.length << CHUNK_SHIFT;
+    }
+
+    int getInt(long offset) {
+        return (int) INTS.get(chunk(offset), index(offset));
+    }
+
+    int getIntAcquire(long offset) {
+        return (int) INTS.getAcquire(chunk(offset), index(offset));
+    }
+
+    void putInt(long offset, int value) {
+        INTS.set(chunk(offset), index(offset), value);
+    }
+
+    void putIntRelease(long offset, int value) {
+        INTS.setRelease(chunk(offset), index(offset), value);
+    }
+
+    long getLong(long offset) {
+        return (long) LONGS.get(chunk(offset), index(offset));
+    }
+
+    void putLong(long offset, long value) {
+        LONGS.set(chunk(offset), index(offset), value);
+    }
+
+    // byte ranges must not cross a chunk boundary
+    void getBytes(long offset, byte[] target, int length) {
+        chunk(offset).get(index(offset), target, 0, length);
+    }
+
+    void putBytes(long offset, byte[] source) {
+        chunk(offset).put(index(offset), source);
+    }
+
+    byte getByte(long offset) {
+        return chunk(offset).get(index(offset));
+    }
+
+    private ByteBuffer chunk(long offset) {
+        return chunks[(int) (offset >>> CHUNK_SHIFT)];
+    }
+
+    private static int index(long offset) {
+        return (int) (offset & CHUNK_MASK);
+    }
+}
@@ -0,0 +1,18 @@
+package com.excellence.spring_boot_testing.offheap;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * Settings for the {@code offheap} profile, bound from {@code employees.offheap.*}.
+ *
+ * @param journal file the store logs every change to and is rebuilt from on startup
+ * @param fsync   whether each write waits for the journal to reach the disk; without it a
+ *                crash can lose the last writes, but never corrupts the journal
+ */
+@ConfigurationProperties("employees.offheap")
+public record OffHeapProperties(@DefaultValue("data/employees.journal") Path journal,
+                                @DefaultValue("true") boolean fsync) {
+}
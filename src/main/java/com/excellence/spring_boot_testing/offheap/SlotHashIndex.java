@@ -0,0 +1,112 @@
+package com.excellence.spring_boot_testing.offheap;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Open-addressing hash table from a 64-bit key hash to a row slot, stored off-heap as one
+ * {@code int} per bucket ({@code slot + 1}, 0 for empty, -1 for removed). Keys are not stored:
+ * the caller confirms a candidate slot against the row itself, which also makes hash
+ * collisions harmless.
+ * <p>
+ * Reads take no lock. The single writer only ever fills empty buckets, at the end of a probe
+ * chain, and marks removed ones instead of reusing them, so a reader walking a chain never
+ * skips an entry that was present all along. Removed buckets are dropped when the table is
+ * rebuilt at twice the size; readers still holding the old table finish on it.
+ */
+final class SlotHashIndex {
+
+    private static final int EMPTY = 0;
+
+    private static final int REMOVED = -1;
+
+    private volatile Table table;
+
+    private int used;
+
+    SlotHashIndex(int expectedEntries) {
+        this.table = new Table(capacityFor(expectedEntries));
+    }
+
+    // the first slot under this hash that the predicate accepts, or -1
+    int find(long hash, IntPredicate matches) {
+        Table current = table;
+        for (long bucket = hash & current.mask; ; bucket = (bucket + 1) & current.mask) {
+            int entry = current.buckets.getIntAcquire(bucket * Integer.BYTES);
+            if (entry == EMPTY) {
+                return -1;
+            }
+            if (entry != REMOVED && matches.test(entry - 1)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    // writer only; rehash supplies every live (hash, slot) pair when the table has to grow
+    void add(long hash, int slot, Rehash rehash) {
+        if ((used + 1) * 2L > table.mask + 1) {
+            Table grown = new Table(capacityFor(Math.max(rehash.liveEntries() + 1, 16)));
+            rehash.forEach((entryHash, entrySlot) -> insert(grown, entryHash, entrySlot));
+            used = rehash.liveEntries();
+            table = grown;
+        }
+        insert(table, hash, slot);
+        used++;
+    }
+
+    // writer only
+    void remove(long hash, int slot) {
+        Table current = table;
+        for (long bucket = hash & current.mask; ; bucket = (bucket + 1) & current.mask) {
+            int entry = current.buckets.getInt(bucket * Integer.BYTES);
+            if (entry == EMPTY) {
+                return;
+            }
+            if (entry == slot + 1) {
+                current.buckets.putIntRelease(bucket * Integer.BYTES, REMOVED);
+                return;
+            }
+        }
+    }
+
+    long reserved() {
+        return table.buckets.capacity();
+    }
+
+    private static void insert(Table table, long hash, int slot) {
+        for (long bucket = hash & table.mask; ; bucket = (bucket + 1) & table.mask) {
+            if (table.buckets.getInt(bucket * Integer.BYTES) == EMPTY) {
+                table.buckets.putIntRelease(bucket * Integer.BYTES, slot + 1);
+                return;
+            }
+        }
+    }
+
+    // load factor of at most one half keeps probe chains short
+    private static long capacityFor(long entries) {
+        return Long.highestOneBit(Math.max(entries, 8) * 4 - 1);
+    }
+
+    interface Rehash {
+
+        int liveEntries();
+
+        void forEach(Entries entries);
+    }
+
+    interface Entries {
+
+        void accept(long hash, int slot);
+    }
+
+    private static final class Table {
+
+        private final OffHeapArray buckets = new OffHeapArray();
+
+        private final long mask;
+
+        private Table(long capacity) {
+            this.mask = capacity - 1;
+            buckets.ensureCapacity(capacity * Integer.BYTES);
+        }
+    }
+}
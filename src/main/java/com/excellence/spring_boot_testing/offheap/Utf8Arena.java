@@ -0,0 +1,90 @@
+package com.excellence.spring_boot_testing.offheap;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Append-only store of UTF-8 strings in off-heap memory. A string is referred to by a
+ * {@code long} slice: its offset in the upper 48 bits and its length in the lower 16. Slices
+ * never move or change, so a reader holding one needs no synchronization to decode it; the
+ * space of replaced values is only reclaimed when the journal is replayed into a new arena.
+ */
+final class Utf8Arena {
+
+    static final int MAX_LENGTH = 0xFFFF;
+
+    private final OffHeapArray bytes = new OffHeapArray();
+
+    private long next;
+
+    // writer only
+    long append(byte[] utf8) {
+        if (utf8.length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Value of " + utf8.length + " bytes is longer than " + MAX_LENGTH);
+        }
+        // keep each slice inside one chunk
+        long chunkEnd = (next | (OffHeapArray.CHUNK_SIZE - 1)) + 1;
+        if (next + utf8.length > chunkEnd) {
+            next = chunkEnd;
+        }
+        bytes.ensureCapacity(next + utf8.length);
+        bytes.putBytes(next, utf8);
+        long slice = next << 16 | utf8.length;
+        next += utf8.length;
+        return slice;
+    }
+
+    long append(String value) {
+        return append(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    byte[] bytes(long slice) {
+        byte[] value = new byte[length(slice)];
+        bytes.getBytes(slice >>> 16, value, value.length);
+        return value;
+    }
+
+    String string(long slice) {
+        return new String(bytes(slice), StandardCharsets.UTF_8);
+    }
+
+    // compares in place, without copying the slice to the heap
+    boolean equals(long slice, byte[] utf8) {
+        if (length(slice) != utf8.length) {
+            return false;
+        }
+        long offset = slice >>> 16;
+        for (int i = 0; i < utf8.length; i++) {
+            if (bytes.getByte(offset + i) != utf8[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long size() {
+        return next;
+    }
+
+    long reserved() {
+        return bytes.capacity();
+    }
+
+    static int length(long slice) {
+        return (int) (slice & MAX_LENGTH);
+    }
+
+    static long hash(byte[] utf8) {
+        return mix(Arrays.hashCode(utf8) * 0x9E3779B97F4A7C15L);
+    }
+
+    // MurmurHash3 fmix64: spreads clustered keys (sequential ids, similar emails) over the table
+    static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
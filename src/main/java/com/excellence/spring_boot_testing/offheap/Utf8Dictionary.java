@@ -0,0 +1,70 @@
+package com.excellence.spring_boot_testing.offheap;
+
+/**
+ * Dictionary encoding for low-cardinality columns (last names, email domains): every distinct
+ * value is stored once in the arena and rows keep its {@code int} code. Codes are never
+ * reassigned, so a reader can decode any code it found in a row without locking.
+ */
+final class Utf8Dictionary {
+
+    private final Utf8Arena arena;
+
+    // code -> slice
+    private final OffHeapArray slices = new OffHeapArray();
+
+    private final SlotHashIndex index = new SlotHashIndex(1024);
+
+    private volatile int size;
+
+    Utf8Dictionary(Utf8Arena arena) {
+        this.arena = arena;
+    }
+
+    // writer only: the existing code for the value, or a new one
+    int encode(byte[] utf8) {
+        long hash = Utf8Arena.hash(utf8);
+        int code = index.find(hash, candidate -> arena.equals(slice(candidate), utf8));
+        if (code >= 0) {
+            return code;
+        }
+        code = size;
+        slices.ensureCapacity((code + 1L) * Long.BYTES);
+        slices.putLong((long) code * Long.BYTES, arena.append(utf8));
+        index.add(hash, code, rehash());
+        size = code + 1;
+        return code;
+    }
+
+    // the code of a known value, or -1; never adds one
+    int find(byte[] utf8) {
+        return index.find(Utf8Arena.hash(utf8), candidate -> candidate < size && arena.equals(slice(candidate), utf8));
+    }
+
+    long slice(int code) {
+        return slices.getLong((long) code * Long.BYTES);
+    }
+
+    int size() {
+        return size;
+    }
+
+    long reserved() {
+        return slices.capacity() + index.reserved();
+    }
+
+    private SlotHashIndex.Rehash rehash() {
+        return new SlotHashIndex.Rehash() {
+            @Override
+            public int liveEntries() {
+                return size;
+            }
+
+            @Override
+            public void forEach(SlotHashIndex.Entries entries) {
+                for (int code = 0; code < size; code++) {
+                    entries.accept(Utf8Arena.hash(arena.bytes(slice(code))), code);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.excellence.spring_boot_testing.replica;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Keeps a client on the primary while the replicas may still miss its own writes. Write
+ * requests run on the primary and set a cookie holding the time until which the client's
+ * reads stay there as well; requests carrying an unexpired cookie are pinned to the primary.
+ * Registered by {@link com.excellence.spring_boot_testing.config.ReplicaConfig}.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "employees-primary-until";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private Duration stickiness;
+
+    public ReadYourWritesFilter(Duration stickiness) {
+        this.stickiness = stickiness;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write && !stickiness.isZero()) {
+            // set up front: the handler may commit the response
+            response.addCookie(stickyCookie());
+        }
+        if (!write && !stickyUntilLater(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ReplicaRoutingDataSource.pinToPrimary();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.unpin();
+        }
+    }
+
+    private Cookie stickyCookie() {
+        Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(System.currentTimeMillis() + stickiness.toMillis()));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.ceil(stickiness.toMillis() / 1000.0));
+        return cookie;
+    }
+
+    private static boolean stickyUntilLater(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,20 @@
+package com.excellence.spring_boot_testing.replica;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings for the {@code replica} profile, bound from {@code employees.replica.*}.
+ *
+ * @param urls       JDBC urls of the read replicas; without any, everything goes to the primary
+ * @param lag        how long after a commit the change is applied to the replicas
+ * @param stickiness how long a client keeps reading from the primary after its last write; 0 turns it off
+ */
+@ConfigurationProperties("employees.replica")
+public record ReplicaProperties(@DefaultValue List<String> urls,
+                                @DefaultValue("0ms") Duration lag,
+                                @DefaultValue("5s") Duration stickiness) {
+}
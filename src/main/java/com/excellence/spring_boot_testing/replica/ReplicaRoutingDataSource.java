@@ -0,0 +1,61 @@
+package com.excellence.spring_boot_testing.replica;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the replicas, round robin, and everything else to the
+ * primary. The decision needs the transaction to be set up, so this has to sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which only
+ * fetches the connection when the first statement runs.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> PINNED = ThreadLocal.withInitial(() -> false);
+
+    private final List<String> replicaKeys = new ArrayList<>();
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + (i + 1);
+            replicaKeys.add(key);
+            targets.put(key, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    // sends every transaction on this thread to the primary until unpin(), for read-your-writes
+    public static void pinToPrimary() {
+        PINNED.set(true);
+    }
+
+    public static void unpin() {
+        PINNED.remove();
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED.get();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaKeys.isEmpty() || PINNED.get() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+    }
+}
@@ -0,0 +1,173 @@
+package com.excellence.spring_boot_testing.replica;
+
+import com.excellence.spring_boot_testing.config.CacheConfig;
+import com.excellence.spring_boot_testing.event.EmployeeChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stands in for the database's own replication so the {@code replica} profile runs on plain
+ * in-memory H2: replicas start as a copy of the primary, and every committed
+ * {@link EmployeeChangedEvent} is applied to them on a background thread, {@code lag} after
+ * the commit. A change is applied by re-reading the row from the primary, so partial events
+ * and reordering do no harm.
+ * <p>
+ * Emails are unique on the replicas too, so a row can arrive while another row there still
+ * holds its email, e.g. when two employees swap emails. That row is re-read from the primary
+ * in the same replica transaction. A replica that still cannot apply a change after a few
+ * retries is rebuilt from a full copy of the primary.
+ */
+public class ReplicaSynchronizer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaSynchronizer.class);
+
+    private static final String SELECT = "select id, first_name, last_name, email, version from employees";
+
+    private static final String MERGE = "merge into employees (id, first_name, last_name, email, version) key (id) values (?, ?, ?, ?, ?)";
+
+    // attempts at one change before the replica is rebuilt; the delay doubles after each
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final Duration RETRY_DELAY = Duration.ofMillis(200);
+
+    private JdbcTemplate primary;
+
+    private List<Replica> replicas;
+
+    private Duration lag;
+
+    private ObjectProvider<CacheManager> cacheManager;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            runnable -> Thread.ofPlatform().name("replica-sync").daemon().unstarted(runnable));
+
+    public ReplicaSynchronizer(DataSource primary, List<? extends DataSource> replicas, Duration lag,
+                               ObjectProvider<CacheManager> cacheManager) {
+        this.primary = new JdbcTemplate(primary);
+        this.replicas = replicas.stream()
+                .map(replica -> new Replica(new JdbcTemplate(replica), new TransactionTemplate(new DataSourceTransactionManager(replica))))
+                .toList();
+        this.lag = lag;
+        this.cacheManager = cacheManager;
+    }
+
+    // called once the replicas are migrated, before anything reads from them
+    public void copyAll() {
+        List<Object[]> rows = primary.query(SELECT, (resultSet, rowNum) -> row(resultSet));
+        replicas.forEach(replica -> replica.jdbc().batchUpdate(MERGE, rows));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        for (Replica replica : replicas) {
+            executor.schedule(() -> replicate(replica, event.id(), 1), lag.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void replicate(Replica replica, long id, int attempt) {
+        Set<Long> applied;
+        try {
+            applied = replica.transaction().execute(status -> apply(replica.jdbc(), id));
+        } catch (DataAccessException e) {
+            if (attempt < MAX_ATTEMPTS) {
+                log.warn("Could not replicate employee {}, attempt {} of {}", id, attempt, MAX_ATTEMPTS, e);
+                executor.schedule(() -> replicate(replica, id, attempt + 1),
+                        RETRY_DELAY.toMillis() << (attempt - 1), TimeUnit.MILLISECONDS);
+            } else {
+                log.warn("Could not replicate employee {}, copying the whole table to the replica", id, e);
+                resync(replica);
+            }
+            return;
+        }
+        evict(applied);
+    }
+
+    // brings the row up to date, and with it any row whose email it takes; returns the ids written
+    private Set<Long> apply(JdbcTemplate replica, long id) {
+        Set<Long> applied = new LinkedHashSet<>();
+        Deque<Long> pending = new ArrayDeque<>(List.of(id));
+        while (!pending.isEmpty()) {
+            long next = pending.poll();
+            if (!applied.add(next)) {
+                continue;
+            }
+            List<Object[]> rows = primary.query(SELECT + " where id = ?", (resultSet, rowNum) -> row(resultSet), next);
+            if (rows.isEmpty()) {
+                replica.update("delete from employees where id = ?", next);
+                continue;
+            }
+            Object[] row = rows.get(0);
+            List<Long> holders = replica.queryForList("select id from employees where email = ? and id <> ?", Long.class, row[3], next);
+            if (!holders.isEmpty()) {
+                replica.update("delete from employees where email = ? and id <> ?", row[3], next);
+                pending.addAll(holders);
+            }
+            replica.update(MERGE, row);
+        }
+        return applied;
+    }
+
+    // replaces the replica's rows with the primary's; retried until it succeeds
+    private void resync(Replica replica) {
+        try {
+            replica.transaction().executeWithoutResult(status -> {
+                replica.jdbc().update("delete from employees");
+                replica.jdbc().batchUpdate(MERGE, primary.query(SELECT, (resultSet, rowNum) -> row(resultSet)));
+            });
+        } catch (DataAccessException e) {
+            log.error("Could not copy the employees to the replica, trying again", e);
+            executor.schedule(() -> resync(replica), lag.toMillis() + RETRY_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+            return;
+        }
+        Cache cache = employeesCache();
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    // a read between the write's eviction and now may have cached the replica's old row
+    private void evict(Set<Long> ids) {
+        Cache cache = employeesCache();
+        if (cache != null) {
+            ids.forEach(cache::evict);
+        }
+    }
+
+    private Cache employeesCache() {
+        CacheManager manager = cacheManager.getIfAvailable();
+        return manager != null ? manager.getCache(CacheConfig.EMPLOYEES_CACHE) : null;
+    }
+
+    private static Object[] row(ResultSet resultSet) throws SQLException {
+        return new Object[]{resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3),
+                resultSet.getString(4), resultSet.getLong(5)};
+    }
+
+    private record Replica(JdbcTemplate jdbc, TransactionTemplate transaction) {
+    }
+}
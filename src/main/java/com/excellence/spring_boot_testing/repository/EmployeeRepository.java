@@ -1,16 +1,89 @@
 package com.excellence.spring_boot_testing.repository;
 
+import com.excellence.spring_boot_testing.dto.EmployeeCollectionVersion;
+import com.excellence.spring_boot_testing.dto.EmployeeEmail;
+import com.excellence.spring_boot_testing.dto.EmployeeSummary;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
 import com.excellence.spring_boot_testing.model.Employee;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+// query methods declared here run read-only (Hibernate skips the flush and the dirty-checking
+// snapshots) unless they say otherwise; the inherited CRUD methods keep their own settings
+@Transactional(readOnly = true)
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeRepositoryCustom {
 
     Optional<Employee> findByEmail(String email);
 
+    boolean existsByEmail(String email);
+
+    // set-based duplicate check for batch inserts
+    @Query("select e.email from Employee e where e.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select new com.excellence.spring_boot_testing.dto.EmployeeEmail(e.id, e.email) from Employee e")
+    Stream<EmployeeEmail> streamEmails();
+
+    @Query("select new com.excellence.spring_boot_testing.dto.EmployeeSummary(e.id, e.firstName, e.lastName, e.email) from Employee e")
+    Stream<EmployeeSummary> streamSummaries();
+
+    // multi-row reads select straight into EmployeeView: no entities, no persistence context growth
+    @Query("select new com.excellence.spring_boot_testing.dto.EmployeeView(e.id, e.firstName, e.lastName, e.email, e.version) from Employee e")
+    List<EmployeeView> findAllViews();
+
+    // version probes for conditional GETs: read single values, no entity is hydrated
+    @Query("select e.version from Employee e where e.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
+
+    @Query("select e.id from Employee e where e.lastName = :lastName")
+    List<Long> findIdsByLastName(@Param("lastName") String lastName);
+
+    // the ids among these that exist, locked until the caller's transaction ends so that a
+    // concurrent delete of the same rows waits and then finds them gone
+    @Transactional
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e.id from Employee e where e.id in :ids")
+    List<Long> findIdsForDelete(@Param("ids") Collection<Long> ids);
+
+    // single DELETE statements; unlike deleteById they do not load the entity first.
+    // Each call is its own transaction unless the caller already runs in one.
+    @Transactional
+    @Modifying
+    @Query("delete from Employee e where e.id = :id")
+    int deleteEmployeeById(@Param("id") long id);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Employee e where e.id in :ids")
+    int deleteEmployeesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.excellence.spring_boot_testing.dto.EmployeeCollectionVersion(count(e), coalesce(max(e.id), 0), coalesce(sum(e.version), 0)) from Employee e")
+    EmployeeCollectionVersion findCollectionVersion();
+
+    // keyset (cursor) page: seeks on the primary key, so the cost does not grow with page depth;
+    // a JPQL string rather than a derived query so Hibernate reuses the cached query plan
+    @Query("select new com.excellence.spring_boot_testing.dto.EmployeeView(e.id, e.firstName, e.lastName, e.email, e.version) from Employee e where e.id > :afterId order by e.id")
+    List<EmployeeView> findNextPage(@Param("afterId") long afterId, Limit limit);
+
+    // cursor over the whole table for exports; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.excellence.spring_boot_testing.dto.EmployeeView(e.id, e.firstName, e.lastName, e.email, e.version) from Employee e order by e.id")
+    Stream<EmployeeView> streamAll();
+
     // define custom query using JPQL with index params
     @Query("select e from Employee e where e.firstName = ?1 and e.lastName = ?2")
     Employee findByJpql(String firstName, String lastName);
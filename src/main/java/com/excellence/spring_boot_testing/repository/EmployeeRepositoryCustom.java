@@ -0,0 +1,18 @@
+package com.excellence.spring_boot_testing.repository;
+
+import com.excellence.spring_boot_testing.dto.EmployeePatch;
+import com.excellence.spring_boot_testing.model.Employee;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface EmployeeRepositoryCustom {
+
+    // single UPDATE of every field by id, bumping the version; with an expected version the
+    // row only changes while it still has that version. Returns the number of rows changed (0 or 1).
+    // Read-write despite the read-only default on EmployeeRepository.
+    @Transactional
+    int updateEmployee(Employee employee, Long expectedVersion);
+
+    // same, for the supplied fields only
+    @Transactional
+    int patchEmployee(long id, EmployeePatch patch, Long expectedVersion);
+}
@@ -0,0 +1,68 @@
+package com.excellence.spring_boot_testing.repository;
+
+import com.excellence.spring_boot_testing.dto.EmployeePatch;
+import com.excellence.spring_boot_testing.model.Employee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
+
+    private EntityManager entityManager;
+
+    public EmployeeRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int updateEmployee(Employee employee, Long expectedVersion) {
+        // null fields are written as null, so the NOT NULL constraints reject them as save() did
+        StringBuilder jpql = new StringBuilder("update Employee e set e.version = e.version + 1,"
+                + " e.firstName = :firstName, e.lastName = :lastName, e.email = :email where e.id = :id");
+        if (expectedVersion != null) {
+            jpql.append(" and e.version = :version");
+        }
+        Query query = entityManager.createQuery(jpql.toString())
+                .setParameter("id", employee.getId())
+                .setParameter("firstName", employee.getFirstName())
+                .setParameter("lastName", employee.getLastName())
+                .setParameter("email", employee.getEmail());
+        if (expectedVersion != null) {
+            query.setParameter("version", expectedVersion);
+        }
+        return query.executeUpdate();
+    }
+
+    @Override
+    public int patchEmployee(long id, EmployeePatch patch, Long expectedVersion) {
+        // at most sixteen distinct statements, so Hibernate's query plan cache covers every variant
+        StringBuilder jpql = new StringBuilder("update Employee e set e.version = e.version + 1");
+        if (patch.firstName() != null) {
+            jpql.append(", e.firstName = :firstName");
+        }
+        if (patch.lastName() != null) {
+            jpql.append(", e.lastName = :lastName");
+        }
+        if (patch.email() != null) {
+            jpql.append(", e.email = :email");
+        }
+        jpql.append(" where e.id = :id");
+        if (expectedVersion != null) {
+            jpql.append(" and e.version = :version");
+        }
+
+        Query query = entityManager.createQuery(jpql.toString()).setParameter("id", id);
+        if (patch.firstName() != null) {
+            query.setParameter("firstName", patch.firstName());
+        }
+        if (patch.lastName() != null) {
+            query.setParameter("lastName", patch.lastName());
+        }
+        if (patch.email() != null) {
+            query.setParameter("email", patch.email());
+        }
+        if (expectedVersion != null) {
+            query.setParameter("version", expectedVersion);
+        }
+        return query.executeUpdate();
+    }
+}
@@ -0,0 +1,538 @@
+package com.excellence.spring_boot_testing.repository;
+
+import com.excellence.spring_boot_testing.dto.EmployeeCollectionVersion;
+import com.excellence.spring_boot_testing.dto.EmployeeEmail;
+import com.excellence.spring_boot_testing.dto.EmployeePatch;
+import com.excellence.spring_boot_testing.dto.EmployeeSummary;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.offheap.EmployeeColumnStore;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.support.ExampleMatcherAccessor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link EmployeeRepository} over the {@link EmployeeColumnStore} for the {@code offheap}
+ * profile. It takes precedence over the JPA repository, so the services, the search index and
+ * the email filter read and write employees without Hibernate or JDBC. The JPQL and native
+ * finders and query by example are answered by scanning the store.
+ */
+@Repository
+@Primary
+@Profile("offheap")
+// overrides the read-only transactions declared on EmployeeRepository: the store needs no connection
+@Transactional(propagation = Propagation.SUPPORTS)
+public class OffHeapEmployeeRepository implements EmployeeRepository {
+
+    private EmployeeColumnStore store;
+
+    public OffHeapEmployeeRepository(EmployeeColumnStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Optional<Employee> findByEmail(String email) {
+        return Optional.ofNullable(store.findByEmail(email)).map(OffHeapEmployeeRepository::toEmployee);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return store.existsByEmail(email);
+    }
+
+    @Override
+    public List<String> findExistingEmails(Collection<String> emails) {
+        return emails.stream().distinct().filter(store::existsByEmail).toList();
+    }
+
+    @Override
+    public Stream<EmployeeEmail> streamEmails() {
+        return store.stream().map(view -> new EmployeeEmail(view.id(), view.email()));
+    }
+
+    @Override
+    public Stream<EmployeeSummary> streamSummaries() {
+        return store.stream().map(view -> new EmployeeSummary(view.id(), view.firstName(), view.lastName(), view.email()));
+    }
+
+    @Override
+    public List<EmployeeView> findAllViews() {
+        return store.stream().toList();
+    }
+
+    @Override
+    public Optional<Long> findVersionById(long id) {
+        return Optional.ofNullable(store.findById(id)).map(EmployeeView::version);
+    }
+
+    @Override
+    public List<Long> findIdsByLastName(String lastName) {
+        return store.stream().filter(view -> view.lastName().equals(lastName)).map(EmployeeView::id).toList();
+    }
+
+    @Override
+    public List<Long> findIdsForDelete(Collection<Long> ids) {
+        return ids.stream().distinct().filter(id -> store.findById(id) != null).toList();
+    }
+
+    @Override
+    public int deleteEmployeeById(long id) {
+        return store.deleteAll(List.of(id));
+    }
+
+    @Override
+    public int deleteEmployeesByIds(Collection<Long> ids) {
+        return store.deleteAll(ids);
+    }
+
+    @Override
+    public EmployeeCollectionVersion findCollectionVersion() {
+        return store.collectionVersion();
+    }
+
+    @Override
+    public List<EmployeeView> findNextPage(long afterId, Limit limit) {
+        return store.findNextPage(afterId, limit.isLimited() ? limit.max() : Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Stream<EmployeeView> streamAll() {
+        return store.stream();
+    }
+
+    @Override
+    public Employee findByJpql(String firstName, String lastName) {
+        return findByName(firstName, lastName);
+    }
+
+    @Override
+    public Employee findByJPQLNamedParams(String firstName, String lastName) {
+        return findByName(firstName, lastName);
+    }
+
+    @Override
+    public Employee findByNativeSQL(String firstName, String lastName) {
+        return findByName(firstName, lastName);
+    }
+
+    @Override
+    public Employee findByNativeSQLNamed(String firstName, String lastName) {
+        return findByName(firstName, lastName);
+    }
+
+    @Override
+    public int updateEmployee(Employee employee, Long expectedVersion) {
+        return store.update(employee, expectedVersion);
+    }
+
+    @Override
+    public int patchEmployee(long id, EmployeePatch patch, Long expectedVersion) {
+        return store.patch(id, patch, expectedVersion);
+    }
+
+    // ---- CrudRepository
+
+    @Override
+    public <S extends Employee> S save(S employee) {
+        store.save(employee);
+        return employee;
+    }
+
+    @Override
+    public <S extends Employee> List<S> saveAll(Iterable<S> employees) {
+        List<S> list = toList(employees);
+        store.saveAll(new ArrayList<>(list));
+        return list;
+    }
+
+    @Override
+    public Optional<Employee> findById(Long id) {
+        return Optional.ofNullable(store.findById(id)).map(OffHeapEmployeeRepository::toEmployee);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return store.findById(id) != null;
+    }
+
+    @Override
+    public List<Employee> findAll() {
+        return store.stream().map(OffHeapEmployeeRepository::toEmployee).toList();
+    }
+
+    @Override
+    public List<Employee> findAllById(Iterable<Long> ids) {
+        List<Employee> employees = new ArrayList<>();
+        for (Long id : ids) {
+            findById(id).ifPresent(employees::add);
+        }
+        return employees;
+    }
+
+    @Override
+    public long count() {
+        return store.collectionVersion().count();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        store.deleteAll(List.of(id));
+    }
+
+    @Override
+    public void delete(Employee employee) {
+        store.deleteAll(List.of(employee.getId()));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        store.deleteAll(toList(ids));
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Employee> employees) {
+        store.deleteAll(ids(employees));
+    }
+
+    @Override
+    public void deleteAll() {
+        store.deleteAll(store.stream().map(EmployeeView::id).toList());
+    }
+
+    // ---- PagingAndSortingRepository
+
+    @Override
+    public List<Employee> findAll(Sort sort) {
+        return store.stream().sorted(comparator(sort)).map(OffHeapEmployeeRepository::toEmployee).toList();
+    }
+
+    @Override
+    public Page<Employee> findAll(Pageable pageable) {
+        return pageOf(findAll(pageable.getSort()), pageable);
+    }
+
+    // ---- JpaRepository: writes are applied immediately, so flushing has nothing to do
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public <S extends Employee> S saveAndFlush(S employee) {
+        return save(employee);
+    }
+
+    @Override
+    public <S extends Employee> List<S> saveAllAndFlush(Iterable<S> employees) {
+        return saveAll(employees);
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<Employee> employees) {
+        deleteAll(employees);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    @Override
+    @Deprecated
+    public Employee getOne(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    public Employee getById(Long id) {
+        return getReferenceById(id);
+    }
+
+    // no lazy proxies here: the row is read straight away
+    @Override
+    public Employee getReferenceById(Long id) {
+        return findById(id).orElseThrow(() -> new EntityNotFoundException("No employee with id " + id));
+    }
+
+    // ---- QueryByExampleExecutor
+
+    @Override
+    public <S extends Employee> Optional<S> findOne(Example<S> example) {
+        return findBy(example, FluentQuery.FetchableFluentQuery::one);
+    }
+
+    @Override
+    public <S extends Employee> List<S> findAll(Example<S> example) {
+        return findBy(example, FluentQuery.FetchableFluentQuery::all);
+    }
+
+    @Override
+    public <S extends Employee> List<S> findAll(Example<S> example, Sort sort) {
+        return findBy(example, query -> query.sortBy(sort).all());
+    }
+
+    @Override
+    public <S extends Employee> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return findBy(example, query -> query.page(pageable));
+    }
+
+    @Override
+    public <S extends Employee> long count(Example<S> example) {
+        return findBy(example, FluentQuery.FetchableFluentQuery::count);
+    }
+
+    @Override
+    public <S extends Employee> boolean exists(Example<S> example) {
+        return findBy(example, FluentQuery.FetchableFluentQuery::exists);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends Employee, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        return queryFunction.apply(new ExampleQuery<>(matching(example), Sort.unsorted(), Integer.MAX_VALUE,
+                view -> (S) toEmployee(view)));
+    }
+
+    /**
+     * The fluent query behind every query by example: the matching rows of a scan, sorted and
+     * cut to the limit, mapped to entities or, through {@link #as}, to {@link EmployeeView}s.
+     * Property projections are only a hint, and full rows are as cheap here.
+     */
+    private final class ExampleQuery<T> implements FluentQuery.FetchableFluentQuery<T> {
+
+        private final Predicate<EmployeeView> filter;
+
+        private final Sort sort;
+
+        private final int limit;
+
+        private final Function<EmployeeView, T> mapper;
+
+        private ExampleQuery(Predicate<EmployeeView> filter, Sort sort, int limit, Function<EmployeeView, T> mapper) {
+            this.filter = filter;
+            this.sort = sort;
+            this.limit = limit;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> sortBy(Sort sort) {
+            return new ExampleQuery<>(filter, this.sort.and(sort), limit, mapper);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> limit(int limit) {
+            return new ExampleQuery<>(filter, sort, limit, mapper);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <R> FluentQuery.FetchableFluentQuery<R> as(Class<R> resultType) {
+            if (resultType.isAssignableFrom(Employee.class)) {
+                return new ExampleQuery<>(filter, sort, limit, view -> (R) toEmployee(view));
+            }
+            if (resultType == EmployeeView.class) {
+                return new ExampleQuery<>(filter, sort, limit, view -> (R) view);
+            }
+            throw new UnsupportedOperationException("Cannot project employees onto " + resultType.getName());
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> project(Collection<String> properties) {
+            return this;
+        }
+
+        // like the JPA version: null when nothing matches, an error when several do
+        @Override
+        public T oneValue() {
+            List<T> matches = stream().limit(2).toList();
+            if (matches.size() > 1) {
+                throw new IncorrectResultSizeDataAccessException(1);
+            }
+            return matches.isEmpty() ? null : matches.get(0);
+        }
+
+        @Override
+        public T firstValue() {
+            return stream().findFirst().orElse(null);
+        }
+
+        @Override
+        public List<T> all() {
+            return stream().toList();
+        }
+
+        // the pageable's sort, when it has one, replaces the query's
+        @Override
+        public Page<T> page(Pageable pageable) {
+            Sort pageSort = pageable.getSort().isSorted() ? pageable.getSort() : sort;
+            return pageOf(matches(pageSort).map(mapper).toList(), pageable);
+        }
+
+        @Override
+        public Stream<T> stream() {
+            return matches(sort).limit(limit).map(mapper);
+        }
+
+        @Override
+        public long count() {
+            return store.stream().filter(filter).count();
+        }
+
+        @Override
+        public boolean exists() {
+            return store.stream().anyMatch(filter);
+        }
+
+        private Stream<EmployeeView> matches(Sort sort) {
+            Stream<EmployeeView> matches = store.stream().filter(filter);
+            return sort.isSorted() ? matches.sorted(comparator(sort)) : matches;
+        }
+    }
+
+    // ---- helpers
+
+    // like the JPQL and SQL versions: null when nothing matches, an error when several do
+    private Employee findByName(String firstName, String lastName) {
+        List<EmployeeView> matches = store.stream()
+                .filter(view -> view.firstName().equals(firstName) && view.lastName().equals(lastName))
+                .limit(2)
+                .toList();
+        if (matches.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1);
+        }
+        return matches.isEmpty() ? null : toEmployee(matches.get(0));
+    }
+
+    private static <T> Page<T> pageOf(List<T> sorted, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(sorted);
+        }
+        int from = (int) Math.min(pageable.getOffset(), sorted.size());
+        int to = Math.min(from + pageable.getPageSize(), sorted.size());
+        return new PageImpl<>(sorted.subList(from, to), pageable, sorted.size());
+    }
+
+    // the probe is compared the way Spring Data JPA compares it: id and version are primitives,
+    // so they always take part unless the matcher ignores them, and an empty example matches all
+    private static Predicate<EmployeeView> matching(Example<? extends Employee> example) {
+        Employee probe = example.getProbe();
+        ExampleMatcherAccessor matcher = new ExampleMatcherAccessor(example.getMatcher());
+        List<Predicate<EmployeeView>> properties = new ArrayList<>();
+        addProperty(properties, matcher, "id", probe.getId(), EmployeeView::id);
+        addProperty(properties, matcher, "firstName", probe.getFirstName(), EmployeeView::firstName);
+        addProperty(properties, matcher, "lastName", probe.getLastName(), EmployeeView::lastName);
+        addProperty(properties, matcher, "email", probe.getEmail(), EmployeeView::email);
+        addProperty(properties, matcher, "version", probe.getVersion(), EmployeeView::version);
+        if (properties.isEmpty()) {
+            return view -> true;
+        }
+        return example.getMatcher().isAllMatching()
+                ? view -> properties.stream().allMatch(property -> property.test(view))
+                : view -> properties.stream().anyMatch(property -> property.test(view));
+    }
+
+    private static void addProperty(List<Predicate<EmployeeView>> properties, ExampleMatcherAccessor matcher, String path,
+                                    Object probeValue, Function<EmployeeView, Object> property) {
+        if (matcher.isIgnoredPath(path)) {
+            return;
+        }
+        Optional<Object> value = matcher.getValueTransformerForPath(path).apply(Optional.ofNullable(probeValue));
+        if (value.isEmpty()) {
+            // stored employees have every field, so an included null matches nothing
+            if (matcher.getNullHandler() == ExampleMatcher.NullHandler.INCLUDE) {
+                properties.add(view -> property.apply(view) == null);
+            }
+            return;
+        }
+        if (value.get() instanceof String text) {
+            Predicate<String> matches = stringMatcher(text, matcher.getStringMatcherForPath(path), matcher.isIgnoreCaseForPath(path));
+            properties.add(view -> matches.test((String) property.apply(view)));
+        } else {
+            properties.add(view -> value.get().equals(property.apply(view)));
+        }
+    }
+
+    // the matchers JPA translates to LIKE; it has no REGEX either
+    private static Predicate<String> stringMatcher(String probe, ExampleMatcher.StringMatcher stringMatcher, boolean ignoreCase) {
+        String expected = ignoreCase ? probe.toLowerCase(Locale.ROOT) : probe;
+        Function<String, String> normalize = ignoreCase ? value -> value.toLowerCase(Locale.ROOT) : Function.identity();
+        return switch (stringMatcher) {
+            case DEFAULT, EXACT -> value -> normalize.apply(value).equals(expected);
+            case STARTING -> value -> normalize.apply(value).startsWith(expected);
+            case ENDING -> value -> normalize.apply(value).endsWith(expected);
+            case CONTAINING -> value -> normalize.apply(value).contains(expected);
+            case REGEX -> throw new IllegalArgumentException("Unsupported StringMatcher " + stringMatcher);
+        };
+    }
+
+    private static Comparator<EmployeeView> comparator(Sort sort) {
+        Comparator<EmployeeView> comparator = Comparator.comparingLong(EmployeeView::id);
+        List<Sort.Order> orders = sort.toList();
+        for (int i = orders.size() - 1; i >= 0; i--) {
+            Sort.Order order = orders.get(i);
+            Comparator<EmployeeView> property = switch (order.getProperty()) {
+                case "id" -> Comparator.comparingLong(EmployeeView::id);
+                case "firstName" -> Comparator.comparing(EmployeeView::firstName);
+                case "lastName" -> Comparator.comparing(EmployeeView::lastName);
+                case "email" -> Comparator.comparing(EmployeeView::email);
+                case "version" -> Comparator.comparingLong(EmployeeView::version);
+                default -> throw new IllegalArgumentException("Cannot sort employees by " + order.getProperty());
+            };
+            comparator = (order.isAscending() ? property : property.reversed()).thenComparing(comparator);
+        }
+        return comparator;
+    }
+
+    private static Employee toEmployee(EmployeeView view) {
+        return Employee.builder()
+                .id(view.id())
+                .firstName(view.firstName())
+                .lastName(view.lastName())
+                .email(view.email())
+                .version(view.version())
+                .build();
+    }
+
+    private static Set<Long> ids(Iterable<? extends Employee> employees) {
+        Set<Long> ids = new HashSet<>();
+        employees.forEach(employee -> ids.add(employee.getId()));
+        return ids;
+    }
+
+    private static <T> List<T> toList(Iterable<T> iterable) {
+        return StreamSupport.stream(iterable.spliterator(), false).toList();
+    }
+}
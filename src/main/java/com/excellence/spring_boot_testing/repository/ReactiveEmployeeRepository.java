@@ -0,0 +1,193 @@
+package com.excellence.spring_boot_testing.repository;
+
+import com.excellence.spring_boot_testing.dto.EmployeeCollectionVersion;
+import com.excellence.spring_boot_testing.dto.EmployeePatch;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.model.Employee;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Non-blocking counterpart of {@link EmployeeRepository} over R2DBC, with the statements
+ * written out by hand against the schema in {@code db/migration}. Result sets are consumed
+ * as they are demanded, so a slow subscriber slows down the reads instead of buffering rows.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveEmployeeRepository {
+
+    private static final String COLUMNS = "id, first_name, last_name, email, version";
+
+    private DatabaseClient databaseClient;
+
+    public ReactiveEmployeeRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<EmployeeView> findAll() {
+        return databaseClient.sql("select " + COLUMNS + " from employees order by id")
+                .map(ReactiveEmployeeRepository::toView)
+                .all();
+    }
+
+    public Flux<EmployeeView> findNextPage(long afterId, int limit) {
+        return databaseClient.sql("select " + COLUMNS + " from employees where id > :afterId order by id limit :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveEmployeeRepository::toView)
+                .all();
+    }
+
+    public Mono<EmployeeCollectionVersion> findCollectionVersion() {
+        return databaseClient.sql("select count(*), coalesce(max(id), 0), coalesce(sum(version), 0) from employees")
+                .map(row -> new EmployeeCollectionVersion(
+                        row.get(0, Long.class), row.get(1, Long.class), row.get(2, Long.class)))
+                .one();
+    }
+
+    public Mono<EmployeeView> findById(long id) {
+        return databaseClient.sql("select " + COLUMNS + " from employees where id = :id")
+                .bind("id", id)
+                .map(ReactiveEmployeeRepository::toView)
+                .one();
+    }
+
+    public Mono<Long> findVersionById(long id) {
+        return databaseClient.sql("select version from employees where id = :id")
+                .bind("id", id)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<EmployeeView> findByEmail(String email) {
+        return databaseClient.sql("select " + COLUMNS + " from employees where email = :email")
+                .bind("email", email)
+                .map(ReactiveEmployeeRepository::toView)
+                .one();
+    }
+
+    public Mono<Boolean> existsByEmail(String email) {
+        return databaseClient.sql("select 1 from employees where email = :email")
+                .bind("email", email)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    public Flux<String> findExistingEmails(Collection<String> emails) {
+        return databaseClient.sql("select email from employees where email in (:emails)")
+                .bind("emails", emails)
+                .map(row -> row.get(0, String.class))
+                .all();
+    }
+
+    public Flux<Long> findIdsByLastName(String lastName) {
+        return databaseClient.sql("select id from employees where last_name = :lastName")
+                .bind("lastName", lastName)
+                .map(row -> row.get(0, Long.class))
+                .all();
+    }
+
+    // ids come from the shared sequence; each insert takes a whole Hibernate allocation block's top value
+    public Mono<Employee> insert(Employee employee) {
+        return databaseClient.sql("insert into employees (" + COLUMNS + ")"
+                        + " values (next value for employees_seq, :firstName, :lastName, :email, 0)")
+                .bind("firstName", employee.getFirstName())
+                .bind("lastName", employee.getLastName())
+                .bind("email", employee.getEmail())
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> Employee.builder()
+                        .id(id)
+                        .firstName(employee.getFirstName())
+                        .lastName(employee.getLastName())
+                        .email(employee.getEmail())
+                        .version(0)
+                        .build());
+    }
+
+    // given an expected version, only that version of the row is replaced
+    public Mono<Long> update(long id, Employee employee, Long expectedVersion) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("update employees set first_name = :firstName,"
+                        + " last_name = :lastName, email = :email, version = version + 1 where id = :id"
+                        + (expectedVersion != null ? " and version = :version" : ""))
+                .bind("firstName", employee.getFirstName())
+                .bind("lastName", employee.getLastName())
+                .bind("email", employee.getEmail())
+                .bind("id", id);
+        if (expectedVersion != null) {
+            spec = spec.bind("version", expectedVersion);
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    public Mono<Long> patch(long id, EmployeePatch patch, Long expectedVersion) {
+        StringBuilder sql = new StringBuilder("update employees set version = version + 1");
+        if (patch.firstName() != null) {
+            sql.append(", first_name = :firstName");
+        }
+        if (patch.lastName() != null) {
+            sql.append(", last_name = :lastName");
+        }
+        if (patch.email() != null) {
+            sql.append(", email = :email");
+        }
+        sql.append(" where id = :id");
+        if (expectedVersion != null) {
+            sql.append(" and version = :version");
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString()).bind("id", id);
+        if (patch.firstName() != null) {
+            spec = spec.bind("firstName", patch.firstName());
+        }
+        if (patch.lastName() != null) {
+            spec = spec.bind("lastName", patch.lastName());
+        }
+        if (patch.email() != null) {
+            spec = spec.bind("email", patch.email());
+        }
+        if (expectedVersion != null) {
+            spec = spec.bind("version", expectedVersion);
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(long id) {
+        return databaseClient.sql("delete from employees where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // locked until the transaction ends, as EmployeeRepository.findIdsForDelete
+    public Flux<Long> findIdsForDelete(Collection<Long> ids) {
+        return databaseClient.sql("select id from employees where id in (:ids) for update")
+                .bind("ids", ids)
+                .map(row -> row.get(0, Long.class))
+                .all();
+    }
+
+    public Mono<Long> deleteByIds(Collection<Long> ids) {
+        return databaseClient.sql("delete from employees where id in (:ids)")
+                .bind("ids", ids)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static EmployeeView toView(Readable row) {
+        return new EmployeeView(
+                row.get("id", Long.class),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                row.get("email", String.class),
+                row.get("version", Long.class));
+    }
+}
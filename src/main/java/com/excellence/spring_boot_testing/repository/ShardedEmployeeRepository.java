@@ -0,0 +1,214 @@
+package com.excellence.spring_boot_testing.repository;
+
+import com.excellence.spring_boot_testing.dto.EmployeeCollectionVersion;
+import com.excellence.spring_boot_testing.dto.EmployeePatch;
+import com.excellence.spring_boot_testing.dto.EmployeeSummary;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.shard.EmployeeShards;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@link EmployeeRepository}'s statements spread over {@link EmployeeShards}: operations on one
+ * id or email go to its shard, everything else asks all shards in parallel and merges. Plain
+ * JDBC against the schema in {@code db/migration} and {@code db/shard}; there is no transaction
+ * spanning shards, so multi-shard writes are ordered by the caller to fail safe.
+ */
+@Repository
+@Profile("sharded")
+public class ShardedEmployeeRepository {
+
+    private static final String COLUMNS = "id, first_name, last_name, email, version";
+
+    private static final RowMapper<EmployeeView> VIEW = (resultSet, rowNum) -> new EmployeeView(resultSet.getLong(1),
+            resultSet.getString(2), resultSet.getString(3), resultSet.getString(4), resultSet.getLong(5));
+
+    private EmployeeShards shards;
+
+    public ShardedEmployeeRepository(EmployeeShards shards) {
+        this.shards = shards;
+    }
+
+    public long nextId() {
+        return shards.nextId();
+    }
+
+    // the insert is the check: false when another employee already owns the email
+    public boolean reserveEmail(String email, long id) {
+        try {
+            shards.forEmail(email).update("insert into employee_emails (email, id) values (?, ?)", email, id);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    public void releaseEmail(String email, long id) {
+        shards.forEmail(email).update("delete from employee_emails where email = ? and id = ?", email, id);
+    }
+
+    public void releaseEmails(Map<Long, String> emailsById) {
+        Map<Integer, List<Object[]>> byShard = new HashMap<>();
+        emailsById.forEach((id, email) ->
+                byShard.computeIfAbsent(shards.indexForEmail(email), index -> new ArrayList<>()).add(new Object[]{email, id}));
+        if (!byShard.isEmpty()) {
+            shards.fanOut(byShard, (shard, rows) -> shard.batchUpdate("delete from employee_emails where email = ? and id = ?", rows));
+        }
+    }
+
+    public void insert(Employee employee) {
+        shards.forId(employee.getId()).update("insert into employees (" + COLUMNS + ") values (?, ?, ?, ?, ?)",
+                employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail(), employee.getVersion());
+    }
+
+    // one JDBC batch per shard, the shards in parallel
+    public void insertAll(List<Employee> employees) {
+        Map<Integer, List<Object[]>> byShard = groupByShard(employees, Employee::getId, employee -> new Object[]{
+                employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail(), employee.getVersion()});
+        if (!byShard.isEmpty()) {
+            shards.fanOut(byShard, (shard, rows) ->
+                    shard.batchUpdate("insert into employees (" + COLUMNS + ") values (?, ?, ?, ?, ?)", rows));
+        }
+    }
+
+    public Optional<EmployeeView> findViewById(long id) {
+        return shards.forId(id).query("select " + COLUMNS + " from employees where id = ?", VIEW, id).stream().findFirst();
+    }
+
+    // through the reservation on the email's shard; a reservation left by an unfinished write is skipped
+    public Optional<EmployeeView> findViewByEmail(String email) {
+        return shards.forEmail(email).queryForList("select id from employee_emails where email = ?", Long.class, email).stream()
+                .findFirst()
+                .flatMap(this::findViewById)
+                .filter(view -> view.email().equals(email));
+    }
+
+    public Optional<Long> findVersionById(long id) {
+        return shards.forId(id).queryForList("select version from employees where id = ?", Long.class, id).stream().findFirst();
+    }
+
+    public Optional<String> findEmailById(long id) {
+        return shards.forId(id).queryForList("select email from employees where id = ?", String.class, id).stream().findFirst();
+    }
+
+    public Map<Long, String> findEmailsByIds(Collection<Long> ids) {
+        Map<Integer, List<Long>> byShard = groupByShard(ids, Function.identity(), Function.identity());
+        Map<Long, String> emails = new HashMap<>();
+        if (!byShard.isEmpty()) {
+            shards.fanOut(byShard, (shard, shardIds) -> shard.query("select id, email from employees where id in (" + placeholders(shardIds.size()) + ")",
+                            (resultSet, rowNum) -> Map.entry(resultSet.getLong(1), resultSet.getString(2)), shardIds.toArray()))
+                    .forEach(entries -> entries.forEach(entry -> emails.put(entry.getKey(), entry.getValue())));
+        }
+        return emails;
+    }
+
+    // merged in id order, like a single table read by primary key
+    public List<EmployeeView> findAllViews() {
+        return shards.fanOut(shard -> shard.query("select " + COLUMNS + " from employees", VIEW)).stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparingLong(EmployeeView::id))
+                .toList();
+    }
+
+    public List<EmployeeSummary> findAllSummaries() {
+        return shards.fanOut(shard -> shard.query("select id, first_name, last_name, email from employees",
+                        (resultSet, rowNum) -> new EmployeeSummary(resultSet.getLong(1), resultSet.getString(2),
+                                resultSet.getString(3), resultSet.getString(4)))).stream()
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    // every shard returns its first limit rows after the cursor; the first limit of the union are the page
+    public List<EmployeeView> findNextPage(long afterId, int limit) {
+        return shards.fanOut(shard -> shard.query("select " + COLUMNS + " from employees where id > ? order by id limit ?",
+                        VIEW, afterId, limit)).stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparingLong(EmployeeView::id))
+                .limit(limit)
+                .toList();
+    }
+
+    public EmployeeCollectionVersion findCollectionVersion() {
+        return shards.fanOut(shard -> shard.queryForObject("select count(*), coalesce(max(id), 0), coalesce(sum(version), 0) from employees",
+                        (resultSet, rowNum) -> new EmployeeCollectionVersion(resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3))))
+                .stream()
+                .reduce(new EmployeeCollectionVersion(0, 0, 0), (total, shard) -> new EmployeeCollectionVersion(
+                        total.count() + shard.count(), Math.max(total.maxId(), shard.maxId()), total.versionSum() + shard.versionSum()));
+    }
+
+    public List<Long> findIdsByLastName(String lastName) {
+        return shards.fanOut(shard -> shard.queryForList("select id from employees where last_name = ?", Long.class, lastName)).stream()
+                .flatMap(List::stream)
+                .sorted()
+                .toList();
+    }
+
+    // optimistic: 0 when the row is gone or its version moved on
+    public int update(Employee employee) {
+        return shards.forId(employee.getId()).update(
+                "update employees set first_name = ?, last_name = ?, email = ?, version = version + 1 where id = ? and version = ?",
+                employee.getFirstName(), employee.getLastName(), employee.getEmail(), employee.getId(), employee.getVersion());
+    }
+
+    // the conditional statement shapes of EmployeeRepositoryCustomImpl.patchEmployee; optimistic like update
+    public int patch(long id, EmployeePatch patch, long expectedVersion) {
+        StringBuilder sql = new StringBuilder("update employees set version = version + 1");
+        List<Object> args = new ArrayList<>(5);
+        if (patch.firstName() != null) {
+            sql.append(", first_name = ?");
+            args.add(patch.firstName());
+        }
+        if (patch.lastName() != null) {
+            sql.append(", last_name = ?");
+            args.add(patch.lastName());
+        }
+        if (patch.email() != null) {
+            sql.append(", email = ?");
+            args.add(patch.email());
+        }
+        sql.append(" where id = ? and version = ?");
+        args.add(id);
+        args.add(expectedVersion);
+        return shards.forId(id).update(sql.toString(), args.toArray());
+    }
+
+    public int deleteById(long id) {
+        return shards.forId(id).update("delete from employees where id = ?", id);
+    }
+
+    public int deleteByIds(Collection<Long> ids) {
+        Map<Integer, List<Long>> byShard = groupByShard(ids, Function.identity(), Function.identity());
+        if (byShard.isEmpty()) {
+            return 0;
+        }
+        return shards.fanOut(byShard, (shard, shardIds) ->
+                        shard.update("delete from employees where id in (" + placeholders(shardIds.size()) + ")", shardIds.toArray()))
+                .stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+    }
+
+    private <T, R> Map<Integer, List<R>> groupByShard(Collection<T> items, Function<T, Long> id, Function<T, R> row) {
+        return items.stream().collect(Collectors.groupingBy(item -> shards.indexForId(id.apply(item)), TreeMap::new,
+                Collectors.mapping(row, Collectors.toList())));
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
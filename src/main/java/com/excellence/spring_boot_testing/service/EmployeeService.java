@@ -1,21 +1,60 @@
 package com.excellence.spring_boot_testing.service;
 
+import com.excellence.spring_boot_testing.dto.EmployeeBatchResult;
+import com.excellence.spring_boot_testing.dto.EmployeeBulkDelete;
+import com.excellence.spring_boot_testing.dto.EmployeeChanges;
+import com.excellence.spring_boot_testing.dto.EmployeeCollectionVersion;
+import com.excellence.spring_boot_testing.dto.EmployeeGroupCount;
+import com.excellence.spring_boot_testing.dto.EmployeePatch;
+import com.excellence.spring_boot_testing.dto.EmployeeStats;
+import com.excellence.spring_boot_testing.dto.EmployeeSummary;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
 import com.excellence.spring_boot_testing.model.Employee;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public interface EmployeeService {
 
     Employee saveEmployee(Employee employee);
 
-    List<Employee> getAllEmployees();
+    List<EmployeeBatchResult> saveEmployees(List<Employee> employees);
 
-    Optional<Employee> getEmployeeById(long id);
+    List<EmployeeView> getAllEmployees();
 
-    Employee updateEmployee(Employee updatedEmployee);
+    EmployeeCollectionVersion getEmployeesVersion();
 
-    void deleteEmployee(long id);
+    List<EmployeeView> getEmployeesAfter(long afterId, int limit);
+
+    void exportEmployees(Consumer<EmployeeView> consumer);
+
+    List<EmployeeSummary> searchEmployees(String query, int limit);
+
+    EmployeeStats getEmployeeStats(int limit);
+
+    List<EmployeeGroupCount> getLastNameCounts(int limit);
+
+    List<EmployeeGroupCount> getEmailDomainCounts(int limit);
+
+    EmployeeChanges getChangesAfter(long afterSequence, int limit);
+
+    Optional<EmployeeView> getEmployeeById(long id);
+
+    Optional<EmployeeView> getEmployeeByEmail(String email);
+
+    Optional<Long> getEmployeeVersion(long id);
+
+    // a non-null expectedVersion makes the write conditional on it (If-Match); empty when the
+    // employee does not exist, EmployeeVersionMismatchException when its version moved on
+    Optional<EmployeeView> updateEmployee(long id, Employee updatedEmployee, Long expectedVersion);
+
+    // the new version, same conditions
+    Optional<Long> patchEmployee(long id, EmployeePatch patch, Long expectedVersion);
+
+    boolean deleteEmployee(long id);
+
+    int deleteEmployees(EmployeeBulkDelete bulkDelete);
 }
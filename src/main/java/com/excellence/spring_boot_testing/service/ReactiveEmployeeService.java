@@ -0,0 +1,59 @@
+package com.excellence.spring_boot_testing.service;
+
+import com.excellence.spring_boot_testing.dto.EmployeeBatchResult;
+import com.excellence.spring_boot_testing.dto.EmployeeBulkDelete;
+import com.excellence.spring_boot_testing.dto.EmployeeChanges;
+import com.excellence.spring_boot_testing.dto.EmployeeCollectionVersion;
+import com.excellence.spring_boot_testing.dto.EmployeeGroupCount;
+import com.excellence.spring_boot_testing.dto.EmployeePatch;
+import com.excellence.spring_boot_testing.dto.EmployeeStats;
+import com.excellence.spring_boot_testing.dto.EmployeeSummary;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.model.Employee;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking variant of {@link EmployeeService}, active with the {@code reactive} profile.
+ */
+public interface ReactiveEmployeeService {
+
+    Mono<Employee> saveEmployee(Employee employee);
+
+    Flux<EmployeeBatchResult> saveEmployees(List<Employee> employees);
+
+    Flux<EmployeeView> getAllEmployees();
+
+    Mono<EmployeeCollectionVersion> getEmployeesVersion();
+
+    Flux<EmployeeView> getEmployeesAfter(long afterId, int limit);
+
+    Flux<EmployeeSummary> searchEmployees(String query, int limit);
+
+    Mono<EmployeeStats> getEmployeeStats(int limit);
+
+    Flux<EmployeeGroupCount> getLastNameCounts(int limit);
+
+    Flux<EmployeeGroupCount> getEmailDomainCounts(int limit);
+
+    Mono<EmployeeChanges> getChangesAfter(long afterSequence, int limit);
+
+    Mono<EmployeeView> getEmployeeById(long id);
+
+    Mono<EmployeeView> getEmployeeByEmail(String email);
+
+    Mono<Long> getEmployeeVersion(long id);
+
+    // a non-null expectedVersion makes the write conditional on it (If-Match); empty when the
+    // employee does not exist, EmployeeVersionMismatchException when its version moved on
+    Mono<EmployeeView> updateEmployee(long id, Employee employee, Long expectedVersion);
+
+    // the new version, same conditions
+    Mono<Long> patchEmployee(long id, EmployeePatch patch, Long expectedVersion);
+
+    Mono<Boolean> deleteEmployee(long id);
+
+    Mono<Integer> deleteEmployees(EmployeeBulkDelete bulkDelete);
+}
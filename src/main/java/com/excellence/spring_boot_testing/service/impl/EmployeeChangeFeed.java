@@ -0,0 +1,111 @@
+package com.excellence.spring_boot_testing.service.impl;
+
+import com.excellence.spring_boot_testing.dto.EmployeeChange;
+import com.excellence.spring_boot_testing.dto.EmployeeChanges;
+import com.excellence.spring_boot_testing.event.EmployeeChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The most recent committed employee changes, in a fixed-size ring, each numbered by a
+ * sequence that only grows. Clients follow the feed from their last sequence instead of
+ * re-reading the whole list.
+ * <p>
+ * Writers never wait: a change claims the next number and is stored in its slot without a
+ * lock. Readers check the number stored with each entry, so they stop at a slot whose writer
+ * has not finished yet, and notice when they fell so far behind that the entry they need was
+ * overwritten. Numbering starts at the startup time in microseconds, so a cursor kept across
+ * a restart is older than the ring and also makes the client reload.
+ */
+@Component
+public class EmployeeChangeFeed {
+
+    private final AtomicReferenceArray<EmployeeChange> ring;
+
+    private final int capacity;
+
+    private final AtomicLong sequence = new AtomicLong(TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()));
+
+    // threads parked in awaitChangeAfter
+    private final Set<Thread> waiters = ConcurrentHashMap.newKeySet();
+
+    public EmployeeChangeFeed(@Value("${employees.change-feed.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+        this.ring = new AtomicReferenceArray<>(capacity);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        long next = sequence.incrementAndGet();
+        ring.set(index(next), EmployeeChange.of(next, event));
+        waiters.forEach(LockSupport::unpark);
+    }
+
+    public long latestSequence() {
+        return sequence.get();
+    }
+
+    // up to limit changes after the cursor, in order
+    public EmployeeChanges changesAfter(long after, int limit) {
+        long latest = sequence.get();
+        if (after > latest || latest - after > capacity) {
+            return new EmployeeChanges(List.of(), latest, true);
+        }
+        List<EmployeeChange> changes = new ArrayList<>((int) Math.min(limit, latest - after));
+        for (long next = after + 1; next <= latest && changes.size() < limit; next++) {
+            EmployeeChange change = ring.get(index(next));
+            if (change == null || change.sequence() < next) {
+                // claimed but not stored yet; the rest comes with the next call
+                break;
+            }
+            if (change.sequence() > next) {
+                return new EmployeeChanges(List.of(), latest, true);
+            }
+            changes.add(change);
+        }
+        return new EmployeeChanges(changes, changes.isEmpty() ? after : changes.get(changes.size() - 1).sequence(), false);
+    }
+
+    // true once a change after the cursor can be read, false when the timeout passed first
+    public boolean awaitChangeAfter(long after, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Thread current = Thread.currentThread();
+        waiters.add(current);
+        try {
+            while (!readable(after + 1)) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+            return true;
+        } finally {
+            waiters.remove(current);
+        }
+    }
+
+    // stored, or already overwritten, which the reader has to hear about too
+    private boolean readable(long next) {
+        EmployeeChange change = ring.get(index(next));
+        return change != null && change.sequence() >= next || sequence.get() - next >= capacity;
+    }
+
+    private int index(long sequence) {
+        return (int) Math.floorMod(sequence, (long) capacity);
+    }
+}
@@ -0,0 +1,84 @@
+package com.excellence.spring_boot_testing.service.impl;
+
+import com.excellence.spring_boot_testing.dto.EmployeeEmail;
+import com.excellence.spring_boot_testing.event.EmployeeChangedEvent;
+import com.excellence.spring_boot_testing.repository.EmployeeRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory view of the stored emails, used to skip the duplicate lookup for emails
+ * that are certainly new. It may answer "maybe" for an email that is gone, never the
+ * other way round once loaded; the unique constraint on {@code employees.email} stays
+ * the source of truth for races and for changes made by other instances.
+ */
+@Component
+public class EmployeeEmailFilter {
+
+    private final ConcurrentMap<String, Long> idsByEmail = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Long, String> emailsById = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+
+    private EmployeeRepository employeeRepository;
+
+    private TransactionTemplate transactionTemplate;
+
+    public EmployeeEmailFilter(EmployeeRepository employeeRepository, PlatformTransactionManager transactionManager) {
+        this.employeeRepository = employeeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<EmployeeEmail> emails = employeeRepository.streamEmails()) {
+                emails.forEach(email -> put(email.id(), email.email()));
+            }
+        });
+        loaded = true;
+    }
+
+    // false means the email is certainly not stored; true means it has to be looked up
+    public boolean mightContain(String email) {
+        return !loaded || idsByEmail.containsKey(email);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> {
+                // a partial update without an email leaves the email unchanged
+                if (event.employee().getEmail() != null) {
+                    put(event.id(), event.employee().getEmail());
+                }
+            }
+            case DELETED -> remove(event.id());
+        }
+    }
+
+    private void put(long id, String email) {
+        String previous = emailsById.put(id, email);
+        if (previous != null && !previous.equals(email)) {
+            idsByEmail.remove(previous, id);
+        }
+        idsByEmail.put(email, id);
+    }
+
+    private void remove(long id) {
+        String previous = emailsById.remove(id);
+        if (previous != null) {
+            idsByEmail.remove(previous, id);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.excellence.spring_boot_testing.service.impl;
+
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.event.EmployeeChangedEvent;
+import com.excellence.spring_boot_testing.replica.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * In-flight deduplication of single-employee reads by id and by email (see {@link SingleFlight}),
+ * so a burst of requests for one popular employee costs one query. A committed change detaches
+ * new callers from fetches that may have started before it, so a client never reads the state
+ * from before its own write; changes carry only the new email, so email lookups are all detached.
+ * A caller pinned to the primary fetches on its own: the shared fetch may be reading a replica.
+ */
+@Component
+public class EmployeeLookups {
+
+    private final SingleFlight<Long, Optional<EmployeeView>> byId;
+
+    private final SingleFlight<String, Optional<EmployeeView>> byEmail;
+
+    public EmployeeLookups(MeterRegistry meterRegistry,
+                           @Value("${employees.lookups.wait-timeout:5s}") Duration waitTimeout) {
+        this.byId = new SingleFlight<>("id", waitTimeout, meterRegistry);
+        this.byEmail = new SingleFlight<>("email", waitTimeout, meterRegistry);
+    }
+
+    public Optional<EmployeeView> byId(long id, Supplier<Optional<EmployeeView>> fetch) {
+        return ReplicaRoutingDataSource.isPinnedToPrimary() ? fetch.get() : byId.execute(id, fetch);
+    }
+
+    public Optional<EmployeeView> byEmail(String email, Supplier<Optional<EmployeeView>> fetch) {
+        return ReplicaRoutingDataSource.isPinnedToPrimary() ? fetch.get() : byEmail.execute(email, fetch);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        byId.forget(event.id());
+        byEmail.forgetAll();
+    }
+}
@@ -0,0 +1,216 @@
+package com.excellence.spring_boot_testing.service.impl;
+
+import com.excellence.spring_boot_testing.dto.EmployeeSummary;
+import com.excellence.spring_boot_testing.event.EmployeeChangedEvent;
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.repository.EmployeeRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix index over first name, last name and email for search-as-you-type.
+ * Tokens live in a sorted map, so a prefix is a range scan; reads never lock and
+ * writes, which are rare next to reads, are serialized by one lock.
+ * <p>
+ * Results come in token order, so an exact token match ranks before longer tokens
+ * sharing the prefix. With several terms the longest one drives the scan and the
+ * others have to prefix-match some token of the same employee.
+ */
+@Component
+public class EmployeeSearchIndex {
+
+    // upper bound on ids examined for one query when the other terms rarely match
+    private static final int MAX_SCANNED = 50_000;
+
+    private final NavigableMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+
+    private final Map<Long, EmployeeSummary> entries = new ConcurrentHashMap<>();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private EmployeeRepository employeeRepository;
+
+    private TransactionTemplate transactionTemplate;
+
+    public EmployeeSearchIndex(EmployeeRepository employeeRepository, PlatformTransactionManager transactionManager) {
+        this.employeeRepository = employeeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<EmployeeSummary> summaries = employeeRepository.streamSummaries()) {
+                load(summaries);
+            }
+        });
+    }
+
+    // for employees stored elsewhere than EmployeeRepository, e.g. on shards
+    public void load(Stream<EmployeeSummary> summaries) {
+        summaries.forEach(this::put);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> merge(event.id(), event.employee());
+            case DELETED -> remove(event.id());
+        }
+    }
+
+    public List<EmployeeSummary> search(String query, int limit) {
+        String[] terms = terms(query);
+        if (terms.length == 0 || limit < 1) {
+            return List.of();
+        }
+        Arrays.sort(terms, Comparator.comparingInt(String::length).reversed());
+        String driver = terms[0];
+
+        Set<Long> matches = new LinkedHashSet<>();
+        int scanned = 0;
+        for (Set<Long> ids : postings.subMap(driver, true, driver + Character.MAX_VALUE, false).values()) {
+            for (Long id : ids) {
+                if (++scanned > MAX_SCANNED) {
+                    return summaries(matches);
+                }
+                if (!matches.contains(id) && matchesAll(id, terms)) {
+                    matches.add(id);
+                    if (matches.size() == limit) {
+                        return summaries(matches);
+                    }
+                }
+            }
+        }
+        return summaries(matches);
+    }
+
+    private boolean matchesAll(long id, String[] terms) {
+        EmployeeSummary entry = entries.get(id);
+        if (entry == null) {
+            return false;
+        }
+        Set<String> tokens = tokens(entry);
+        for (int i = 1; i < terms.length; i++) {
+            String term = terms[i];
+            if (tokens.stream().noneMatch(token -> token.startsWith(term))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<EmployeeSummary> summaries(Set<Long> ids) {
+        List<EmployeeSummary> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            EmployeeSummary entry = entries.get(id);
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    // partial updates carry null for unchanged fields
+    private void merge(long id, Employee employee) {
+        writeLock.lock();
+        try {
+            EmployeeSummary previous = entries.get(id);
+            put(new EmployeeSummary(id,
+                    employee.getFirstName() != null || previous == null ? employee.getFirstName() : previous.firstName(),
+                    employee.getLastName() != null || previous == null ? employee.getLastName() : previous.lastName(),
+                    employee.getEmail() != null || previous == null ? employee.getEmail() : previous.email()));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void put(EmployeeSummary entry) {
+        writeLock.lock();
+        try {
+            EmployeeSummary previous = entries.put(entry.id(), entry);
+            if (previous != null) {
+                unindex(previous);
+            }
+            for (String token : tokens(entry)) {
+                postings.computeIfAbsent(token, key -> new ConcurrentSkipListSet<>()).add(entry.id());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void remove(long id) {
+        writeLock.lock();
+        try {
+            EmployeeSummary previous = entries.remove(id);
+            if (previous != null) {
+                unindex(previous);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void unindex(EmployeeSummary entry) {
+        for (String token : tokens(entry)) {
+            Set<Long> ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(entry.id());
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    private static Set<String> tokens(EmployeeSummary entry) {
+        Set<String> tokens = new LinkedHashSet<>();
+        tokens.addAll(words(entry.firstName()));
+        tokens.addAll(words(entry.lastName()));
+        if (entry.email() != null) {
+            // the whole address plus its parts, so both "singh" and "vijay.singh@" find it
+            tokens.add(entry.email().toLowerCase(Locale.ROOT));
+            tokens.addAll(words(entry.email()));
+        }
+        return tokens;
+    }
+
+    private static List<String> words(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    private static String[] terms(String query) {
+        if (query == null) {
+            return new String[0];
+        }
+        return Arrays.stream(query.toLowerCase(Locale.ROOT).trim().split("\\s+"))
+                .filter(term -> !term.isEmpty())
+                .toArray(String[]::new);
+    }
+}
@@ -1,51 +1,324 @@
 package com.excellence.spring_boot_testing.service.impl;
 
-import com.excellence.spring_boot_testing.exception.ResourceNotFoundException;
+import com.excellence.spring_boot_testing.config.CacheConfig;
+import com.excellence.spring_boot_testing.dto.EmployeeBatchResult;
+import com.excellence.spring_boot_testing.dto.EmployeeBulkDelete;
+import com.excellence.spring_boot_testing.dto.EmployeeChanges;
+import com.excellence.spring_boot_testing.dto.EmployeeCollectionVersion;
+import com.excellence.spring_boot_testing.dto.EmployeeGroupCount;
+import com.excellence.spring_boot_testing.dto.EmployeePatch;
+import com.excellence.spring_boot_testing.dto.EmployeeStats;
+import com.excellence.spring_boot_testing.dto.EmployeeSummary;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.event.EmployeeChangedEvent;
+import com.excellence.spring_boot_testing.exception.EmployeeAlreadyExistsException;
+import com.excellence.spring_boot_testing.exception.EmployeeVersionMismatchException;
 import com.excellence.spring_boot_testing.model.Employee;
 import com.excellence.spring_boot_testing.repository.EmployeeRepository;
 import com.excellence.spring_boot_testing.service.EmployeeService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+// one employee.service timer per method, tagged with class, method and exception
+@Timed(value = "employee.service", percentiles = {0.5, 0.99, 0.999}, histogram = true)
 @Service
+@Profile("!sharded")
 public class EmployeeServiceImpl implements EmployeeService {
 
+    // employees checked, inserted or deleted per round trip group; also bounds the IN lists
+    static final int BATCH_CHUNK_SIZE = 500;
+
     private EmployeeRepository employeeRepository;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+    private EntityManager entityManager;
+
+    private EmployeeEmailFilter emailFilter;
+
+    private EmployeeSearchIndex searchIndex;
+
+    private EmployeeStatistics statistics;
+
+    private EmployeeChangeFeed changeFeed;
+
+    private EmployeeLookups lookups;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private TransactionTemplate writeTransaction;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository,
+                               EntityManager entityManager,
+                               EmployeeEmailFilter emailFilter,
+                               EmployeeSearchIndex searchIndex,
+                               EmployeeStatistics statistics,
+                               EmployeeChangeFeed changeFeed,
+                               EmployeeLookups lookups,
+                               PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher) {
         this.employeeRepository = employeeRepository;
+        this.entityManager = entityManager;
+        this.emailFilter = emailFilter;
+        this.searchIndex = searchIndex;
+        this.statistics = statistics;
+        this.changeFeed = changeFeed;
+        this.lookups = lookups;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public Employee saveEmployee(Employee employee) {
 
-        Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
-        if (savedEmployee.isPresent()) {
-            throw new ResourceNotFoundException("Employee already exist with given email:" + employee.getEmail());
+        // most emails are new: only look them up when the filter cannot rule them out
+        if (emailFilter.mightContain(employee.getEmail()) && employeeRepository.existsByEmail(employee.getEmail())) {
+            throw new EmployeeAlreadyExistsException("Employee already exist with given email:" + employee.getEmail());
         }
-        return employeeRepository.save(employee);
+        Employee savedEmployee = employeeRepository.save(employee);
+        eventPublisher.publishEvent(EmployeeChangedEvent.created(savedEmployee));
+        return savedEmployee;
     }
 
     @Override
-    public List<Employee> getAllEmployees() {
-        return employeeRepository.findAll();
+    @Transactional
+    public List<EmployeeBatchResult> saveEmployees(List<Employee> employees) {
+        EmployeeBatchResult[] results = new EmployeeBatchResult[employees.size()];
+        Set<String> seenEmails = new HashSet<>();
+
+        for (int start = 0; start < employees.size(); start += BATCH_CHUNK_SIZE) {
+            int end = Math.min(employees.size(), start + BATCH_CHUNK_SIZE);
+            List<Employee> chunk = employees.subList(start, end);
+            List<String> candidateEmails = chunk.stream()
+                    .map(Employee::getEmail)
+                    .filter(Objects::nonNull)
+                    .filter(emailFilter::mightContain)
+                    .toList();
+            Set<String> existingEmails = candidateEmails.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(employeeRepository.findExistingEmails(candidateEmails));
+
+            List<Employee> toInsert = new ArrayList<>(chunk.size());
+            List<Integer> insertIndexes = new ArrayList<>(chunk.size());
+            for (int index = start; index < end; index++) {
+                Employee employee = employees.get(index);
+                if (employee.getFirstName() == null || employee.getLastName() == null || employee.getEmail() == null) {
+                    results[index] = EmployeeBatchResult.invalid(index, "firstName, lastName and email are required");
+                } else if (existingEmails.contains(employee.getEmail()) || !seenEmails.add(employee.getEmail())) {
+                    results[index] = EmployeeBatchResult.duplicate(index, employee.getEmail());
+                } else {
+                    // ids and versions are always generated, never taken from the request
+                    employee.setId(0);
+                    employee.setVersion(0);
+                    toInsert.add(employee);
+                    insertIndexes.add(index);
+                }
+            }
+
+            List<Employee> saved = employeeRepository.saveAll(toInsert);
+            for (int i = 0; i < saved.size(); i++) {
+                results[insertIndexes.get(i)] = EmployeeBatchResult.created(insertIndexes.get(i), saved.get(i).getId());
+                eventPublisher.publishEvent(EmployeeChangedEvent.created(saved.get(i)));
+            }
+            // send the JDBC batch now and drop the chunk from the persistence context
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return Arrays.asList(results);
     }
 
+    // reads are read-only transactions (flush mode MANUAL, no snapshots) returning projections,
+    // so nothing handed to the controllers is managed by Hibernate
     @Override
-    public Optional<Employee> getEmployeeById(long id) {
-        return employeeRepository.findById(id);
+    @Transactional(readOnly = true)
+    public List<EmployeeView> getAllEmployees() {
+        return employeeRepository.findAllViews();
     }
 
     @Override
-    public Employee updateEmployee(Employee updatedEmployee) {
-        return employeeRepository.save(updatedEmployee);
+    @Transactional(readOnly = true)
+    public EmployeeCollectionVersion getEmployeesVersion() {
+        return employeeRepository.findCollectionVersion();
     }
 
     @Override
-    public void deleteEmployee(long id) {
-        employeeRepository.deleteById(id);
+    @Transactional(readOnly = true)
+    public List<EmployeeView> getEmployeesAfter(long afterId, int limit) {
+        return employeeRepository.findNextPage(afterId, Limit.of(limit));
+    }
+
+    // projections never enter the persistence context, so memory stays flat however many rows there are
+    @Override
+    @Transactional(readOnly = true)
+    public void exportEmployees(Consumer<EmployeeView> consumer) {
+        try (Stream<EmployeeView> employees = employeeRepository.streamAll()) {
+            employees.forEach(consumer);
+        }
+    }
+
+    // served from memory; the index follows writes through EmployeeChangedEvent
+    @Override
+    public List<EmployeeSummary> searchEmployees(String query, int limit) {
+        return searchIndex.search(query, limit);
+    }
+
+    // counters kept current by EmployeeChangedEvent, so none of these touch the database
+    @Override
+    public EmployeeStats getEmployeeStats(int limit) {
+        return new EmployeeStats(statistics.total(), statistics.topLastNames(limit), statistics.topEmailDomains(limit));
+    }
+
+    @Override
+    public List<EmployeeGroupCount> getLastNameCounts(int limit) {
+        return statistics.topLastNames(limit);
+    }
+
+    @Override
+    public List<EmployeeGroupCount> getEmailDomainCounts(int limit) {
+        return statistics.topEmailDomains(limit);
+    }
+
+    // from the in-memory change feed; a client whose cursor fell out of it is told to reload
+    @Override
+    public EmployeeChanges getChangesAfter(long afterSequence, int limit) {
+        return changeFeed.changesAfter(afterSequence, limit);
     }
-}
 
+    // misses are not cached: the id may belong to an employee created later.
+    // A single row is cheaper through find() than through a JPQL projection; the read-only
+    // session keeps no snapshot of it, and only the immutable view reaches the cache.
+    // Concurrent misses for one id share a single query; the transaction is opened inside
+    // the shared fetch, so callers waiting on it hold no connection.
+    // A caller pinned to the primary bypasses the cache: the entry may hold a replica's older row.
+    @Override
+    @Cacheable(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id", unless = "#result == null",
+            condition = "!T(com.excellence.spring_boot_testing.replica.ReplicaRoutingDataSource).isPinnedToPrimary()")
+    public Optional<EmployeeView> getEmployeeById(long id) {
+        return lookups.byId(id, () -> readOnlyTransaction.execute(
+                status -> employeeRepository.findById(id).map(EmployeeView::of)));
+    }
+
+    @Override
+    public Optional<EmployeeView> getEmployeeByEmail(String email) {
+        return lookups.byEmail(email, () -> readOnlyTransaction.execute(
+                status -> employeeRepository.findByEmail(email).map(EmployeeView::of)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> getEmployeeVersion(long id) {
+        return employeeRepository.findVersionById(id);
+    }
+
+    // one UPDATE ... WHERE id = ? [AND version = ?] instead of loading the entity and merging it.
+    // Without an expected version the new one is read back in the same transaction, where the
+    // UPDATE's row lock keeps it from moving; with one, the row count alone says whether it matched.
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id")
+    public Optional<EmployeeView> updateEmployee(long id, Employee updatedEmployee, Long expectedVersion) {
+        updatedEmployee.setId(id);
+        if (employeeRepository.updateEmployee(updatedEmployee, expectedVersion) == 0) {
+            return notUpdated(id, expectedVersion);
+        }
+        updatedEmployee.setVersion(newVersion(id, expectedVersion));
+        eventPublisher.publishEvent(EmployeeChangedEvent.updated(updatedEmployee));
+        return Optional.of(EmployeeView.of(updatedEmployee));
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id")
+    public Optional<Long> patchEmployee(long id, EmployeePatch patch, Long expectedVersion) {
+        if (patch.isEmpty()) {
+            Optional<Long> version = employeeRepository.findVersionById(id);
+            if (version.isPresent() && expectedVersion != null && !version.get().equals(expectedVersion)) {
+                throw versionMismatch(id, expectedVersion);
+            }
+            return version;
+        }
+        if (employeeRepository.patchEmployee(id, patch, expectedVersion) == 0) {
+            return notUpdated(id, expectedVersion);
+        }
+        eventPublisher.publishEvent(EmployeeChangedEvent.updated(Employee.builder()
+                .id(id)
+                .firstName(patch.firstName())
+                .lastName(patch.lastName())
+                .email(patch.email())
+                .build()));
+        return Optional.of(newVersion(id, expectedVersion));
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id")
+    public boolean deleteEmployee(long id) {
+        if (employeeRepository.deleteEmployeeById(id) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(EmployeeChangedEvent.deleted(id));
+        return true;
+    }
+
+    // not transactional on purpose: every chunk commits on its own so a large purge
+    // never holds one connection and its row locks for the whole run
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, allEntries = true)
+    public int deleteEmployees(EmployeeBulkDelete bulkDelete) {
+        List<Long> ids = bulkDelete.ids() != null
+                ? bulkDelete.ids()
+                : employeeRepository.findIdsByLastName(bulkDelete.lastName());
+
+        int deleted = 0;
+        for (int start = 0; start < ids.size(); start += BATCH_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(start, Math.min(ids.size(), start + BATCH_CHUNK_SIZE));
+            // only rows this chunk really removes get an event; the change feed would pass on the rest
+            deleted += writeTransaction.execute(status -> {
+                List<Long> existing = employeeRepository.findIdsForDelete(chunk);
+                if (existing.isEmpty()) {
+                    return 0;
+                }
+                int count = employeeRepository.deleteEmployeesByIds(existing);
+                existing.forEach(id -> eventPublisher.publishEvent(EmployeeChangedEvent.deleted(id)));
+                return count;
+            });
+        }
+        return deleted;
+    }
+
+    private long newVersion(long id, Long expectedVersion) {
+        return expectedVersion != null ? expectedVersion + 1 : employeeRepository.findVersionById(id).orElseThrow();
+    }
+
+    // no row changed: the employee is gone, or it is still there under another version
+    private <T> Optional<T> notUpdated(long id, Long expectedVersion) {
+        if (expectedVersion != null && employeeRepository.findVersionById(id).isPresent()) {
+            throw versionMismatch(id, expectedVersion);
+        }
+        return Optional.empty();
+    }
+
+    private static EmployeeVersionMismatchException versionMismatch(long id, long expectedVersion) {
+        return new EmployeeVersionMismatchException("Employee " + id + " has changed since version " + expectedVersion);
+    }
+}
@@ -0,0 +1,298 @@
+package com.excellence.spring_boot_testing.service.impl;
+
+import com.excellence.spring_boot_testing.dto.EmployeeGroupCount;
+import com.excellence.spring_boot_testing.dto.EmployeeSummary;
+import com.excellence.spring_boot_testing.event.EmployeeChangedEvent;
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.replica.ReplicaRoutingDataSource;
+import com.excellence.spring_boot_testing.repository.EmployeeRepository;
+import com.excellence.spring_boot_testing.repository.ShardedEmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Counters behind {@code /api/employees/stats}: the number of employees, per last name and per
+ * email domain. Every {@link EmployeeChangedEvent} moves the counters it affects, and each
+ * tally keeps its groups ranked by count, so a query costs the size of its answer, never a scan.
+ * Reads never lock; writes are serialized by one lock.
+ * <p>
+ * Events only carry the new state, so the last name and domain each employee is counted under
+ * are kept to know what to decrement. Writes that bypass the service, or events handled out of
+ * order, are corrected by the periodic reconciliation: it recounts from the database and
+ * replays the changes that committed while it was reading.
+ */
+@Component
+public class EmployeeStatistics implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeStatistics.class);
+
+    // highest count first, then alphabetical
+    private static final Comparator<EmployeeGroupCount> RANKING = Comparator
+            .comparingLong(EmployeeGroupCount::count).reversed()
+            .thenComparing(EmployeeGroupCount::value);
+
+    private EmployeeRepository employeeRepository;
+
+    private ShardedEmployeeRepository shardedRepository;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Duration reconcileInterval;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile Counters counters = new Counters(new HashMap<>());
+
+    // changes handled while a reconciliation reads the database, null otherwise; guarded by writeLock
+    private List<EmployeeChangedEvent> pending;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            runnable -> Thread.ofPlatform().name("employee-statistics").daemon().unstarted(runnable));
+
+    public EmployeeStatistics(EmployeeRepository employeeRepository,
+                              ObjectProvider<ShardedEmployeeRepository> shardedRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${employees.stats.reconcile-interval:5m}") Duration reconcileInterval) {
+        this.employeeRepository = employeeRepository;
+        // the JPA datasource holds no employees under the sharded profile
+        this.shardedRepository = shardedRepository.getIfAvailable();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.reconcileInterval = reconcileInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reconcile();
+        if (reconcileInterval.isPositive()) {
+            executor.scheduleWithFixedDelay(this::reconcileQuietly,
+                    reconcileInterval.toMillis(), reconcileInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        writeLock.lock();
+        try {
+            counters.apply(event);
+            if (pending != null) {
+                pending.add(event);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public long total() {
+        return counters.total;
+    }
+
+    public List<EmployeeGroupCount> topLastNames(int limit) {
+        return counters.lastNames.top(limit);
+    }
+
+    public List<EmployeeGroupCount> topEmailDomains(int limit) {
+        return counters.emailDomains.top(limit);
+    }
+
+    // recounts from the database; changes handled meanwhile are replayed on the new counts
+    public void reconcile() {
+        writeLock.lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            writeLock.unlock();
+        }
+        Map<Long, Group> groups = new HashMap<>();
+        try {
+            // a lagging replica would look like drift
+            ReplicaRoutingDataSource.pinToPrimary();
+            try {
+                readAll(summary -> groups.put(summary.id(), new Group(summary.lastName(), domain(summary.email()))));
+            } finally {
+                ReplicaRoutingDataSource.unpin();
+            }
+        } catch (RuntimeException e) {
+            writeLock.lock();
+            try {
+                pending = null;
+            } finally {
+                writeLock.unlock();
+            }
+            throw e;
+        }
+
+        Counters recounted = new Counters(groups);
+        writeLock.lock();
+        try {
+            // every change is idempotent per id, so one already in the rows read is harmless
+            pending.forEach(recounted::apply);
+            pending = null;
+            if (recounted.total != counters.total || !recounted.lastNames.counts.equals(counters.lastNames.counts)
+                    || !recounted.emailDomains.counts.equals(counters.emailDomains.counts)) {
+                log.info("Employee statistics corrected from the database: {} employees, previously {}",
+                        recounted.total, counters.total);
+            }
+            counters = recounted;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.warn("Could not reconcile the employee statistics", e);
+        }
+    }
+
+    private void readAll(Consumer<EmployeeSummary> consumer) {
+        if (shardedRepository != null) {
+            shardedRepository.findAllSummaries().forEach(consumer);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<EmployeeSummary> summaries = employeeRepository.streamSummaries()) {
+                summaries.forEach(consumer);
+            }
+        });
+    }
+
+    private static String domain(String email) {
+        int at = email == null ? -1 : email.lastIndexOf('@');
+        return at < 0 ? null : email.substring(at + 1).toLowerCase(Locale.ROOT);
+    }
+
+    // what an employee is counted under; either may be null when unknown
+    private record Group(String lastName, String emailDomain) {
+    }
+
+    private static final class Counters {
+
+        // employee id -> its group; writer only
+        private final Map<Long, Group> groups;
+
+        private final Tally lastNames = new Tally();
+
+        private final Tally emailDomains = new Tally();
+
+        private volatile long total;
+
+        private Counters(Map<Long, Group> groups) {
+            this.groups = groups;
+            Map<String, Long> lastNameCounts = new HashMap<>();
+            Map<String, Long> domainCounts = new HashMap<>();
+            for (Group group : groups.values()) {
+                if (group.lastName() != null) {
+                    lastNameCounts.merge(group.lastName(), 1L, Long::sum);
+                }
+                if (group.emailDomain() != null) {
+                    domainCounts.merge(group.emailDomain(), 1L, Long::sum);
+                }
+            }
+            lastNames.load(lastNameCounts);
+            emailDomains.load(domainCounts);
+            total = groups.size();
+        }
+
+        // partial updates carry null for unchanged fields
+        private void apply(EmployeeChangedEvent event) {
+            if (event.type() == EmployeeChangedEvent.ChangeType.DELETED) {
+                move(event.id(), null);
+                return;
+            }
+            Employee employee = event.employee();
+            Group previous = groups.get(event.id());
+            move(event.id(), new Group(
+                    employee.getLastName() != null || previous == null ? employee.getLastName() : previous.lastName(),
+                    employee.getEmail() != null || previous == null ? domain(employee.getEmail()) : previous.emailDomain()));
+        }
+
+        private void move(long id, Group group) {
+            Group previous = group == null ? groups.remove(id) : groups.put(id, group);
+            if (previous == null && group == null) {
+                return;
+            }
+            String oldLastName = previous == null ? null : previous.lastName();
+            String newLastName = group == null ? null : group.lastName();
+            if (!Objects.equals(oldLastName, newLastName)) {
+                lastNames.add(oldLastName, -1);
+                lastNames.add(newLastName, 1);
+            }
+            String oldDomain = previous == null ? null : previous.emailDomain();
+            String newDomain = group == null ? null : group.emailDomain();
+            if (!Objects.equals(oldDomain, newDomain)) {
+                emailDomains.add(oldDomain, -1);
+                emailDomains.add(newDomain, 1);
+            }
+            total = groups.size();
+        }
+    }
+
+    private static final class Tally {
+
+        private final Map<String, Long> counts = new ConcurrentHashMap<>();
+
+        private final NavigableSet<EmployeeGroupCount> ranking = new ConcurrentSkipListSet<>(RANKING);
+
+        private void load(Map<String, Long> initial) {
+            counts.putAll(initial);
+            initial.forEach((value, count) -> ranking.add(new EmployeeGroupCount(value, count)));
+        }
+
+        // a reader walking the ranking meanwhile may briefly miss this group
+        private void add(String value, long delta) {
+            if (value == null) {
+                return;
+            }
+            Long previous = counts.get(value);
+            long count = (previous == null ? 0 : previous) + delta;
+            if (previous != null) {
+                ranking.remove(new EmployeeGroupCount(value, previous));
+            }
+            if (count > 0) {
+                counts.put(value, count);
+                ranking.add(new EmployeeGroupCount(value, count));
+            } else {
+                counts.remove(value);
+            }
+        }
+
+        private List<EmployeeGroupCount> top(int limit) {
+            return ranking.stream().limit(limit).toList();
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.excellence.spring_boot_testing.service.impl;
+
+import com.excellence.spring_boot_testing.dto.EmployeeBatchResult;
+import com.excellence.spring_boot_testing.dto.EmployeeBulkDelete;
+import com.excellence.spring_boot_testing.dto.EmployeeChanges;
+import com.excellence.spring_boot_testing.dto.EmployeeCollectionVersion;
+import com.excellence.spring_boot_testing.dto.EmployeeGroupCount;
+import com.excellence.spring_boot_testing.dto.EmployeePatch;
+import com.excellence.spring_boot_testing.dto.EmployeeStats;
+import com.excellence.spring_boot_testing.dto.EmployeeSummary;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.event.EmployeeChangedEvent;
+import com.excellence.spring_boot_testing.exception.EmployeeAlreadyExistsException;
+import com.excellence.spring_boot_testing.exception.EmployeeVersionMismatchException;
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.repository.ReactiveEmployeeRepository;
+import com.excellence.spring_boot_testing.service.ReactiveEmployeeService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+@Profile("reactive")
+public class ReactiveEmployeeServiceImpl implements ReactiveEmployeeService {
+
+    private ReactiveEmployeeRepository employeeRepository;
+
+    private EmployeeEmailFilter emailFilter;
+
+    private EmployeeSearchIndex searchIndex;
+
+    private TransactionalOperator transactionalOperator;
+
+    private EmployeeStatistics statistics;
+
+    private EmployeeChangeFeed changeFeed;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    public ReactiveEmployeeServiceImpl(ReactiveEmployeeRepository employeeRepository,
+                                       EmployeeEmailFilter emailFilter,
+                                       EmployeeSearchIndex searchIndex,
+                                       EmployeeStatistics statistics,
+                                       EmployeeChangeFeed changeFeed,
+                                       TransactionalOperator transactionalOperator,
+                                       ApplicationEventPublisher eventPublisher) {
+        this.employeeRepository = employeeRepository;
+        this.emailFilter = emailFilter;
+        this.searchIndex = searchIndex;
+        this.statistics = statistics;
+        this.changeFeed = changeFeed;
+        this.transactionalOperator = transactionalOperator;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // same rules as EmployeeServiceImpl.saveEmployee: the filter first, the unique constraint as the last word
+    @Override
+    public Mono<Employee> saveEmployee(Employee employee) {
+        Mono<Boolean> exists = emailFilter.mightContain(employee.getEmail())
+                ? employeeRepository.existsByEmail(employee.getEmail())
+                : Mono.just(false);
+        return exists
+                .flatMap(found -> found
+                        ? Mono.<Employee>error(new EmployeeAlreadyExistsException(
+                                "Employee already exist with given email:" + employee.getEmail()))
+                        : employeeRepository.insert(employee))
+                .doOnNext(saved -> eventPublisher.publishEvent(EmployeeChangedEvent.created(saved)));
+    }
+
+    // one transaction for the whole request; events go out only once it has committed
+    @Override
+    public Flux<EmployeeBatchResult> saveEmployees(List<Employee> employees) {
+        return Flux.defer(() -> {
+            List<String> candidateEmails = employees.stream()
+                    .map(Employee::getEmail)
+                    .filter(Objects::nonNull)
+                    .filter(emailFilter::mightContain)
+                    .toList();
+            Mono<Set<String>> existingEmails = Flux.fromIterable(candidateEmails)
+                    .buffer(EmployeeServiceImpl.BATCH_CHUNK_SIZE)
+                    .concatMap(employeeRepository::findExistingEmails)
+                    .collect(HashSet::new, Set::add);
+
+            List<Employee> created = new ArrayList<>();
+            return existingEmails
+                    .flatMapMany(existing -> {
+                        Set<String> seenEmails = new HashSet<>();
+                        return Flux.range(0, employees.size()).concatMap(index -> {
+                            Employee employee = employees.get(index);
+                            if (employee.getFirstName() == null || employee.getLastName() == null || employee.getEmail() == null) {
+                                return Mono.just(EmployeeBatchResult.invalid(index, "firstName, lastName and email are required"));
+                            }
+                            if (existing.contains(employee.getEmail()) || !seenEmails.add(employee.getEmail())) {
+                                return Mono.just(EmployeeBatchResult.duplicate(index, employee.getEmail()));
+                            }
+                            return employeeRepository.insert(employee)
+                                    .doOnNext(created::add)
+                                    .map(saved -> EmployeeBatchResult.created(index, saved.getId()));
+                        });
+                    })
+                    .as(transactionalOperator::transactional)
+                    .collectList()
+                    .doOnNext(results -> created.forEach(saved -> eventPublisher.publishEvent(EmployeeChangedEvent.created(saved))))
+                    .flatMapMany(Flux::fromIterable);
+        });
+    }
+
+    @Override
+    public Flux<EmployeeView> getAllEmployees() {
+        return employeeRepository.findAll();
+    }
+
+    @Override
+    public Mono<EmployeeCollectionVersion> getEmployeesVersion() {
+        return employeeRepository.findCollectionVersion();
+    }
+
+    @Override
+    public Flux<EmployeeView> getEmployeesAfter(long afterId, int limit) {
+        return employeeRepository.findNextPage(afterId, limit);
+    }
+
+    @Override
+    public Flux<EmployeeSummary> searchEmployees(String query, int limit) {
+        return Flux.fromIterable(searchIndex.search(query, limit));
+    }
+
+    // the aggregates and the change feed are in memory, kept current by the same events as on the servlet stack
+    @Override
+    public Mono<EmployeeStats> getEmployeeStats(int limit) {
+        return Mono.fromSupplier(() -> new EmployeeStats(statistics.total(),
+                statistics.topLastNames(limit), statistics.topEmailDomains(limit)));
+    }
+
+    @Override
+    public Flux<EmployeeGroupCount> getLastNameCounts(int limit) {
+        return Flux.defer(() -> Flux.fromIterable(statistics.topLastNames(limit)));
+    }
+
+    @Override
+    public Flux<EmployeeGroupCount> getEmailDomainCounts(int limit) {
+        return Flux.defer(() -> Flux.fromIterable(statistics.topEmailDomains(limit)));
+    }
+
+    @Override
+    public Mono<EmployeeChanges> getChangesAfter(long afterSequence, int limit) {
+        return Mono.fromSupplier(() -> changeFeed.changesAfter(afterSequence, limit));
+    }
+
+    @Override
+    public Mono<EmployeeView> getEmployeeById(long id) {
+        return employeeRepository.findById(id);
+    }
+
+    @Override
+    public Mono<EmployeeView> getEmployeeByEmail(String email) {
+        return employeeRepository.findByEmail(email);
+    }
+
+    @Override
+    public Mono<Long> getEmployeeVersion(long id) {
+        return employeeRepository.findVersionById(id);
+    }
+
+    // the update and the read of the new version share a transaction, so the view is the row this wrote
+    @Override
+    public Mono<EmployeeView> updateEmployee(long id, Employee employee, Long expectedVersion) {
+        return employeeRepository.update(id, employee, expectedVersion)
+                .flatMap(updated -> updated > 0
+                        ? newVersion(id, expectedVersion)
+                        : notUpdated(id, expectedVersion))
+                .map(version -> new EmployeeView(id, employee.getFirstName(), employee.getLastName(), employee.getEmail(), version))
+                .as(transactionalOperator::transactional)
+                .doOnNext(saved -> eventPublisher.publishEvent(EmployeeChangedEvent.updated(Employee.builder()
+                        .id(saved.id())
+                        .firstName(saved.firstName())
+                        .lastName(saved.lastName())
+                        .email(saved.email())
+                        .version(saved.version())
+                        .build())));
+    }
+
+    @Override
+    public Mono<Long> patchEmployee(long id, EmployeePatch patch, Long expectedVersion) {
+        if (patch.isEmpty()) {
+            return employeeRepository.findVersionById(id)
+                    .flatMap(version -> expectedVersion != null && !version.equals(expectedVersion)
+                            ? Mono.error(versionMismatch(id, expectedVersion))
+                            : Mono.just(version));
+        }
+        return employeeRepository.patch(id, patch, expectedVersion)
+                .flatMap(updated -> updated > 0
+                        ? newVersion(id, expectedVersion)
+                        : notUpdated(id, expectedVersion))
+                .as(transactionalOperator::transactional)
+                .doOnNext(version -> eventPublisher.publishEvent(EmployeeChangedEvent.updated(Employee.builder()
+                        .id(id)
+                        .firstName(patch.firstName())
+                        .lastName(patch.lastName())
+                        .email(patch.email())
+                        .build())));
+    }
+
+    @Override
+    public Mono<Boolean> deleteEmployee(long id) {
+        return employeeRepository.deleteById(id)
+                .map(deleted -> deleted > 0)
+                .doOnNext(deleted -> {
+                    if (deleted) {
+                        eventPublisher.publishEvent(EmployeeChangedEvent.deleted(id));
+                    }
+                });
+    }
+
+    // chunked like EmployeeServiceImpl.deleteEmployees, each chunk committing on its own
+    @Override
+    public Mono<Integer> deleteEmployees(EmployeeBulkDelete bulkDelete) {
+        Flux<Long> ids = bulkDelete.ids() != null
+                ? Flux.fromIterable(bulkDelete.ids())
+                : employeeRepository.findIdsByLastName(bulkDelete.lastName());
+        return ids.buffer(EmployeeServiceImpl.BATCH_CHUNK_SIZE)
+                .concatMap(chunk -> employeeRepository.findIdsForDelete(chunk)
+                        .collectList()
+                        .filter(existing -> !existing.isEmpty())
+                        .flatMap(existing -> employeeRepository.deleteByIds(existing).thenReturn(existing))
+                        .as(transactionalOperator::transactional)
+                        // only rows this chunk really removed, once they are gone for good
+                        .doOnNext(existing -> existing.forEach(id -> eventPublisher.publishEvent(EmployeeChangedEvent.deleted(id)))))
+                .reduce(0, (total, existing) -> total + existing.size());
+    }
+
+    private Mono<Long> newVersion(long id, Long expectedVersion) {
+        return expectedVersion != null ? Mono.just(expectedVersion + 1) : employeeRepository.findVersionById(id);
+    }
+
+    // no row changed: the employee is gone, or it is still there under another version
+    private <T> Mono<T> notUpdated(long id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return Mono.empty();
+        }
+        return employeeRepository.findVersionById(id)
+                .flatMap(version -> Mono.error(versionMismatch(id, expectedVersion)));
+    }
+
+    private static EmployeeVersionMismatchException versionMismatch(long id, long expectedVersion) {
+        return new EmployeeVersionMismatchException("Employee " + id + " has changed since version " + expectedVersion);
+    }
+}
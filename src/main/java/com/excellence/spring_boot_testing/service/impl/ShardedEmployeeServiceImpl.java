@@ -0,0 +1,326 @@
+package com.excellence.spring_boot_testing.service.impl;
+
+import com.excellence.spring_boot_testing.config.CacheConfig;
+import com.excellence.spring_boot_testing.dto.EmployeeBatchResult;
+import com.excellence.spring_boot_testing.dto.EmployeeBulkDelete;
+import com.excellence.spring_boot_testing.dto.EmployeeChanges;
+import com.excellence.spring_boot_testing.dto.EmployeeCollectionVersion;
+import com.excellence.spring_boot_testing.dto.EmployeeGroupCount;
+import com.excellence.spring_boot_testing.dto.EmployeePatch;
+import com.excellence.spring_boot_testing.dto.EmployeeStats;
+import com.excellence.spring_boot_testing.dto.EmployeeSummary;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.event.EmployeeChangedEvent;
+import com.excellence.spring_boot_testing.exception.EmployeeAlreadyExistsException;
+import com.excellence.spring_boot_testing.exception.EmployeeVersionMismatchException;
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.repository.ShardedEmployeeRepository;
+import com.excellence.spring_boot_testing.service.EmployeeService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * {@link EmployeeService} over {@link ShardedEmployeeRepository} for the {@code sharded} profile.
+ * An employee and the reservation of its email usually sit on different shards, so every write
+ * claims the new email first and gives up the old one last: a failure in between can leave an
+ * email reserved for nobody, never two employees with the same email.
+ */
+@Timed(value = "employee.service", percentiles = {0.5, 0.99, 0.999}, histogram = true)
+@Service
+@Profile("sharded")
+public class ShardedEmployeeServiceImpl implements EmployeeService {
+
+    private ShardedEmployeeRepository employeeRepository;
+
+    private EmployeeSearchIndex searchIndex;
+
+    private EmployeeStatistics statistics;
+
+    private EmployeeChangeFeed changeFeed;
+
+    private EmployeeLookups lookups;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    public ShardedEmployeeServiceImpl(ShardedEmployeeRepository employeeRepository,
+                                      EmployeeSearchIndex searchIndex,
+                                      EmployeeStatistics statistics,
+                                      EmployeeChangeFeed changeFeed,
+                                      EmployeeLookups lookups,
+                                      ApplicationEventPublisher eventPublisher) {
+        this.employeeRepository = employeeRepository;
+        this.searchIndex = searchIndex;
+        this.statistics = statistics;
+        this.changeFeed = changeFeed;
+        this.lookups = lookups;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // the index loads itself from the JPA datasource, which holds no employees under this profile
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSearchIndex() {
+        searchIndex.load(employeeRepository.findAllSummaries().stream());
+    }
+
+    @Override
+    public Employee saveEmployee(Employee employee) {
+        requireEmail(employee.getEmail());
+        long id = employeeRepository.nextId();
+        if (!employeeRepository.reserveEmail(employee.getEmail(), id)) {
+            throw new EmployeeAlreadyExistsException("Employee already exist with given email:" + employee.getEmail());
+        }
+        employee.setId(id);
+        employee.setVersion(0);
+        try {
+            employeeRepository.insert(employee);
+        } catch (RuntimeException e) {
+            employeeRepository.releaseEmail(employee.getEmail(), id);
+            throw e;
+        }
+        eventPublisher.publishEvent(EmployeeChangedEvent.created(employee));
+        return employee;
+    }
+
+    @Override
+    public List<EmployeeBatchResult> saveEmployees(List<Employee> employees) {
+        EmployeeBatchResult[] results = new EmployeeBatchResult[employees.size()];
+        List<Employee> toInsert = new ArrayList<>(employees.size());
+        for (int index = 0; index < employees.size(); index++) {
+            Employee employee = employees.get(index);
+            if (employee.getFirstName() == null || employee.getLastName() == null || employee.getEmail() == null) {
+                results[index] = EmployeeBatchResult.invalid(index, "firstName, lastName and email are required");
+                continue;
+            }
+            long id = employeeRepository.nextId();
+            // also catches a repeat within the batch: the first occurrence already holds the email
+            if (!employeeRepository.reserveEmail(employee.getEmail(), id)) {
+                results[index] = EmployeeBatchResult.duplicate(index, employee.getEmail());
+                continue;
+            }
+            employee.setId(id);
+            employee.setVersion(0);
+            toInsert.add(employee);
+            results[index] = EmployeeBatchResult.created(index, id);
+        }
+        try {
+            employeeRepository.insertAll(toInsert);
+        } catch (RuntimeException e) {
+            // another shard's batch may have landed; only the rows that are missing give their email back
+            Map<Long, String> unwritten = new HashMap<>();
+            for (Employee employee : toInsert) {
+                if (employeeRepository.findViewById(employee.getId()).isPresent()) {
+                    eventPublisher.publishEvent(EmployeeChangedEvent.created(employee));
+                } else {
+                    unwritten.put(employee.getId(), employee.getEmail());
+                }
+            }
+            employeeRepository.releaseEmails(unwritten);
+            throw e;
+        }
+        toInsert.forEach(employee -> eventPublisher.publishEvent(EmployeeChangedEvent.created(employee)));
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public List<EmployeeView> getAllEmployees() {
+        return employeeRepository.findAllViews();
+    }
+
+    @Override
+    public EmployeeCollectionVersion getEmployeesVersion() {
+        return employeeRepository.findCollectionVersion();
+    }
+
+    @Override
+    public List<EmployeeView> getEmployeesAfter(long afterId, int limit) {
+        return employeeRepository.findNextPage(afterId, limit);
+    }
+
+    // keyset pages across all shards, so memory stays bounded by one page
+    @Override
+    public void exportEmployees(Consumer<EmployeeView> consumer) {
+        long afterId = 0;
+        List<EmployeeView> page;
+        do {
+            page = employeeRepository.findNextPage(afterId, EmployeeServiceImpl.BATCH_CHUNK_SIZE);
+            page.forEach(consumer);
+            afterId = page.isEmpty() ? afterId : page.get(page.size() - 1).id();
+        } while (page.size() == EmployeeServiceImpl.BATCH_CHUNK_SIZE);
+    }
+
+    @Override
+    public List<EmployeeSummary> searchEmployees(String query, int limit) {
+        return searchIndex.search(query, limit);
+    }
+
+    @Override
+    public EmployeeStats getEmployeeStats(int limit) {
+        return new EmployeeStats(statistics.total(), statistics.topLastNames(limit), statistics.topEmailDomains(limit));
+    }
+
+    @Override
+    public List<EmployeeGroupCount> getLastNameCounts(int limit) {
+        return statistics.topLastNames(limit);
+    }
+
+    @Override
+    public List<EmployeeGroupCount> getEmailDomainCounts(int limit) {
+        return statistics.topEmailDomains(limit);
+    }
+
+    @Override
+    public EmployeeChanges getChangesAfter(long afterSequence, int limit) {
+        return changeFeed.changesAfter(afterSequence, limit);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id", unless = "#result == null")
+    public Optional<EmployeeView> getEmployeeById(long id) {
+        return lookups.byId(id, () -> employeeRepository.findViewById(id));
+    }
+
+    @Override
+    public Optional<EmployeeView> getEmployeeByEmail(String email) {
+        return lookups.byEmail(email, () -> employeeRepository.findViewByEmail(email));
+    }
+
+    @Override
+    public Optional<Long> getEmployeeVersion(long id) {
+        return employeeRepository.findVersionById(id);
+    }
+
+    // no transaction spans the shards, so the row is read first and the UPDATE is conditional on
+    // the version read: without If-Match a concurrent writer makes this fail instead of being overwritten
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id")
+    public Optional<EmployeeView> updateEmployee(long id, Employee updatedEmployee, Long expectedVersion) {
+        requireEmail(updatedEmployee.getEmail());
+        Optional<EmployeeView> current = employeeRepository.findViewById(id);
+        if (current.isEmpty()) {
+            return Optional.empty();
+        }
+        long version = requireVersion(id, current.get().version(), expectedVersion);
+        String previousEmail = current.get().email();
+        boolean emailChanged = !previousEmail.equals(updatedEmployee.getEmail());
+        if (emailChanged && !employeeRepository.reserveEmail(updatedEmployee.getEmail(), id)) {
+            throw new EmployeeAlreadyExistsException("Employee already exist with given email:" + updatedEmployee.getEmail());
+        }
+        updatedEmployee.setId(id);
+        updatedEmployee.setVersion(version);
+        if (employeeRepository.update(updatedEmployee) == 0) {
+            if (emailChanged) {
+                employeeRepository.releaseEmail(updatedEmployee.getEmail(), id);
+            }
+            throw lostUpdate(id, expectedVersion);
+        }
+        if (emailChanged) {
+            employeeRepository.releaseEmail(previousEmail, id);
+        }
+        updatedEmployee.setVersion(version + 1);
+        eventPublisher.publishEvent(EmployeeChangedEvent.updated(updatedEmployee));
+        return Optional.of(EmployeeView.of(updatedEmployee));
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id")
+    public Optional<Long> patchEmployee(long id, EmployeePatch patch, Long expectedVersion) {
+        Optional<EmployeeView> current = employeeRepository.findViewById(id);
+        if (current.isEmpty()) {
+            return Optional.empty();
+        }
+        long version = requireVersion(id, current.get().version(), expectedVersion);
+        if (patch.isEmpty()) {
+            return Optional.of(version);
+        }
+        String previousEmail = null;
+        if (patch.email() != null && !current.get().email().equals(patch.email())) {
+            previousEmail = current.get().email();
+            if (!employeeRepository.reserveEmail(patch.email(), id)) {
+                throw new EmployeeAlreadyExistsException("Employee already exist with given email:" + patch.email());
+            }
+        }
+        if (employeeRepository.patch(id, patch, version) == 0) {
+            if (previousEmail != null) {
+                employeeRepository.releaseEmail(patch.email(), id);
+            }
+            throw lostUpdate(id, expectedVersion);
+        }
+        if (previousEmail != null) {
+            employeeRepository.releaseEmail(previousEmail, id);
+        }
+        eventPublisher.publishEvent(EmployeeChangedEvent.updated(Employee.builder()
+                .id(id)
+                .firstName(patch.firstName())
+                .lastName(patch.lastName())
+                .email(patch.email())
+                .build()));
+        return Optional.of(version + 1);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id")
+    public boolean deleteEmployee(long id) {
+        Optional<String> email = employeeRepository.findEmailById(id);
+        if (email.isEmpty() || employeeRepository.deleteById(id) == 0) {
+            return false;
+        }
+        employeeRepository.releaseEmail(email.get(), id);
+        eventPublisher.publishEvent(EmployeeChangedEvent.deleted(id));
+        return true;
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, allEntries = true)
+    public int deleteEmployees(EmployeeBulkDelete bulkDelete) {
+        List<Long> ids = bulkDelete.ids() != null
+                ? bulkDelete.ids()
+                : employeeRepository.findIdsByLastName(bulkDelete.lastName());
+
+        int deleted = 0;
+        for (int start = 0; start < ids.size(); start += EmployeeServiceImpl.BATCH_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(start, Math.min(ids.size(), start + EmployeeServiceImpl.BATCH_CHUNK_SIZE));
+            Map<Long, String> emails = employeeRepository.findEmailsByIds(chunk);
+            deleted += employeeRepository.deleteByIds(emails.keySet());
+            employeeRepository.releaseEmails(emails);
+            emails.keySet().forEach(id -> eventPublisher.publishEvent(EmployeeChangedEvent.deleted(id)));
+        }
+        return deleted;
+    }
+
+    private static long requireVersion(long id, long currentVersion, Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion != currentVersion) {
+            throw new EmployeeVersionMismatchException("Employee " + id + " has changed since version " + expectedVersion);
+        }
+        return currentVersion;
+    }
+
+    // the row changed or went away between the read and the conditional UPDATE
+    private static RuntimeException lostUpdate(long id, Long expectedVersion) {
+        return expectedVersion != null
+                ? new EmployeeVersionMismatchException("Employee " + id + " has changed since version " + expectedVersion)
+                : new ObjectOptimisticLockingFailureException(Employee.class, id);
+    }
+
+    // the email picks the reservation's shard; the single-database service gets this from the NOT NULL constraint
+    private static void requireEmail(String email) {
+        if (email == null) {
+            throw new DataIntegrityViolationException("email is required");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.excellence.spring_boot_testing.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one fetch: the first caller runs it on its
+ * own thread, callers arriving while it runs wait for its result instead of running their own.
+ * Nothing is kept once the fetch ends, so it is not a cache; a failure reaches every waiting
+ * caller and the next call fetches again.
+ * <p>
+ * A waiter gives up after {@code timeout} with a {@link QueryTimeoutException} and drops the
+ * entry, so later callers start a fresh fetch instead of queueing behind a stuck one.
+ * {@link #forget} detaches callers from a fetch that may have read data a write just replaced.
+ * Calls are counted in {@code employee.lookups}, tagged with the lookup and whether the call
+ * ran the fetch ({@code fetched}), shared one ({@code coalesced}) or gave up ({@code timed_out}).
+ */
+public final class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final Duration timeout;
+
+    private final Counter fetched;
+
+    private final Counter coalesced;
+
+    private final Counter timedOut;
+
+    public SingleFlight(String lookup, Duration timeout, MeterRegistry meterRegistry) {
+        this.timeout = timeout;
+        this.fetched = counter(meterRegistry, lookup, "fetched");
+        this.coalesced = counter(meterRegistry, lookup, "coalesced");
+        this.timedOut = counter(meterRegistry, lookup, "timed_out");
+    }
+
+    public V execute(K key, Supplier<V> fetch) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            coalesced.increment();
+            return await(key, running);
+        }
+        fetched.increment();
+        try {
+            V value = fetch.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    // callers already waiting still get the result; new callers start another fetch
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    private V await(K key, CompletableFuture<V> running) {
+        try {
+            return running.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            inFlight.remove(key, running);
+            throw new QueryTimeoutException("Gave up waiting " + timeout + " for a lookup already in flight", e);
+        } catch (ExecutionException e) {
+            // the fetching caller's own exception, as it saw it
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a lookup already in flight");
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String lookup, String result) {
+        return Counter.builder("employee.lookups")
+                .description("Employee lookups, by whether they ran the query or shared one already running")
+                .tag("lookup", lookup)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,129 @@
+package com.excellence.spring_boot_testing.shard;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * The shard databases and the rules for picking one: employees live on the shard given by a
+ * hash of their id, email reservations on the shard given by a hash of the email. Both hashes
+ * are stable across JVMs, so a key maps to the same shard on every instance, as long as the
+ * list of shards stays the same.
+ * <p>
+ * Ids come from {@code employees_seq} on the first shard, fifty at a time like Hibernate's
+ * pooled generator, so they are unique across shards with one round trip per fifty inserts.
+ */
+public class EmployeeShards {
+
+    // increment of employees_seq in V1__create_employees.sql
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private final List<JdbcTemplate> shards;
+
+    private final Executor executor;
+
+    private final ReentrantLock idLock = new ReentrantLock();
+
+    private long nextId;
+
+    private long idBlockEnd;
+
+    public EmployeeShards(List<JdbcTemplate> shards, Executor executor) {
+        this.shards = List.copyOf(shards);
+        this.executor = executor;
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    public JdbcTemplate shard(int index) {
+        return shards.get(index);
+    }
+
+    public int indexForId(long id) {
+        return Math.floorMod(mix(id), shards.size());
+    }
+
+    public int indexForEmail(String email) {
+        return Math.floorMod(mix(email.hashCode()), shards.size());
+    }
+
+    public JdbcTemplate forId(long id) {
+        return shards.get(indexForId(id));
+    }
+
+    public JdbcTemplate forEmail(String email) {
+        return shards.get(indexForEmail(email));
+    }
+
+    public long nextId() {
+        idLock.lock();
+        try {
+            if (nextId == idBlockEnd) {
+                nextId = shards.get(0).queryForObject("select next value for employees_seq", Long.class);
+                idBlockEnd = nextId + ID_BLOCK_SIZE;
+            }
+            return nextId++;
+        } finally {
+            idLock.unlock();
+        }
+    }
+
+    // runs the query on every shard in parallel; results in shard order
+    public <T> List<T> fanOut(Function<JdbcTemplate, T> query) {
+        if (shards.size() == 1) {
+            return List.of(query.apply(shards.get(0)));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+        for (JdbcTemplate shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(shard), executor));
+        }
+        return join(futures);
+    }
+
+    // runs the task on the shards named by the keys of work, each with its share; one shard runs inline
+    public <W, T> List<T> fanOut(Map<Integer, W> work, BiFunction<JdbcTemplate, W, T> task) {
+        if (work.size() == 1) {
+            Map.Entry<Integer, W> only = work.entrySet().iterator().next();
+            return List.of(task.apply(shards.get(only.getKey()), only.getValue()));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(work.size());
+        work.forEach((index, share) ->
+                futures.add(CompletableFuture.supplyAsync(() -> task.apply(shards.get(index), share), executor)));
+        return join(futures);
+    }
+
+    private static <T> List<T> join(List<CompletableFuture<T>> futures) {
+        // every shard settles before a failure is reported, so the caller can see what landed
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            // rethrow the shard's DataAccessException as if the query had run on this thread
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    // MurmurHash3's 64-bit finalizer: consecutive ids spread evenly over the shards
+    private static long mix(long key) {
+        key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+        key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+}
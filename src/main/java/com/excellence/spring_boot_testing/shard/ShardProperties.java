@@ -0,0 +1,15 @@
+package com.excellence.spring_boot_testing.shard;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Settings for the {@code sharded} profile, bound from {@code employees.shards.*}.
+ *
+ * @param urls JDBC urls of the shards; their order is part of the hash mapping and must not change
+ */
+@ConfigurationProperties("employees.shards")
+public record ShardProperties(@DefaultValue List<String> urls) {
+}
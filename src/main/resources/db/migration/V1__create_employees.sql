@@ -0,0 +1,12 @@
+-- baseline: the schema Hibernate used to generate for Employee
+create sequence employees_seq start with 1 increment by 50;
+
+create table employees (
+    id         bigint       not null,
+    first_name varchar(255) not null,
+    last_name  varchar(255) not null,
+    email      varchar(255) not null,
+    version    bigint       not null,
+    primary key (id),
+    constraint uk_employees_email unique (email)
+);
@@ -0,0 +1,3 @@
+-- findByJpql, findByJPQLNamedParams, findByNativeSQL and findByNativeSQLNamed all filter
+-- on first_name = ? and last_name = ?; findByEmail is served by uk_employees_email
+create index idx_employees_last_name_first_name on employees (last_name, first_name);
@@ -0,0 +1,7 @@
+-- shard-only: who owns each email. Rows live on the shard picked by a hash of the email, so
+-- this primary key is the cross-shard uniqueness check that uk_employees_email is per shard
+create table employee_emails (
+    email varchar(255) not null,
+    id    bigint       not null,
+    primary key (email)
+);
@@ -0,0 +1,40 @@
+package com.excellence.spring_boot_testing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void givenEmployeeRequest_whenScrapePrometheus_thenRequestServiceAndSqlMetricsArePublished() throws Exception {
+        // given - precondition or setup
+        mockMvc.perform(get("/api/employees/{id}", 42L)).andExpect(status().isNotFound());
+
+        // when - action or the behaviour that we are going test
+        mockMvc.perform(get("/actuator/prometheus"))
+
+                // then - verify the output
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("quantile=\"0.999\"")))
+                .andExpect(content().string(containsString("employee_service_seconds_count{class=\"com.excellence.spring_boot_testing.service.impl.EmployeeServiceImpl\"")))
+                .andExpect(content().string(containsString("http_server_requests_sql_statements_count{method=\"GET\",uri=\"/api/employees/{id}\"")))
+                .andExpect(content().string(containsString("hibernate_query_executions_total")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds")));
+    }
+}
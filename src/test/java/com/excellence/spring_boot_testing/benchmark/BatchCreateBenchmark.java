@@ -0,0 +1,77 @@
+package com.excellence.spring_boot_testing.benchmark;
+
+import com.excellence.spring_boot_testing.dto.EmployeeBatchResult;
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Insert throughput in employees per second: {@code POST /api/employees/batch} through
+ * {@link EmployeeService#saveEmployees} against looping the single-create path
+ * ({@link EmployeeService#saveEmployee}), which pays a duplicate SELECT and an INSERT per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchCreateBenchmark {
+
+    private static final int EMPLOYEES_PER_CALL = 1000;
+
+    @Param({"10000"})
+    private int rows;
+
+    private final AtomicLong emailSequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startApplication();
+        BenchmarkSupport.seed(context, rows);
+        employeeService = context.getBean(EmployeeService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EMPLOYEES_PER_CALL)
+    public List<EmployeeBatchResult> batchCreate() {
+        return employeeService.saveEmployees(newEmployees());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EMPLOYEES_PER_CALL)
+    public long singleCreateLoop() {
+        long lastId = 0;
+        for (Employee employee : newEmployees()) {
+            lastId = employeeService.saveEmployee(employee).getId();
+        }
+        return lastId;
+    }
+
+    private List<Employee> newEmployees() {
+        List<Employee> employees = new ArrayList<>(EMPLOYEES_PER_CALL);
+        for (int i = 0; i < EMPLOYEES_PER_CALL; i++) {
+            long n = emailSequence.incrementAndGet();
+            employees.add(Employee.builder()
+                    .firstName(BenchmarkSupport.firstName(n))
+                    .lastName(BenchmarkSupport.lastName(n))
+                    .email("new" + n + "@example.com")
+                    .build());
+        }
+        return employees;
+    }
+}
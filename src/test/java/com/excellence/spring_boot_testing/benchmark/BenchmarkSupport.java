@@ -0,0 +1,90 @@
+package com.excellence.spring_boot_testing.benchmark;
+
+import com.excellence.spring_boot_testing.SpringBootTestingApplication;
+import com.excellence.spring_boot_testing.controller.EmployeeListSnapshot;
+import com.excellence.spring_boot_testing.service.impl.EmployeeEmailFilter;
+import com.excellence.spring_boot_testing.service.impl.EmployeeSearchIndex;
+import com.excellence.spring_boot_testing.service.impl.EmployeeStatistics;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Shared setup for the JMH benchmarks: boots the application without a web server
+ * and bulk-loads synthetic employees straight through JDBC.
+ */
+final class BenchmarkSupport {
+
+    private static final String[] FIRST_NAMES = {"Vijay", "Aashu", "Tony", "Steve", "Natasha", "Bruce", "Wanda", "Peter"};
+    private static final String[] LAST_NAMES = {"Singh", "Thakur", "Stark", "Rogers", "Romanoff", "Banner", "Maximoff", "Parker"};
+    private static final int SEED_CHUNK = 10_000;
+    // allocationSize of the employees_seq generator on Employee
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private BenchmarkSupport() {
+    }
+
+    static ConfigurableApplicationContext startApplication(String... properties) {
+        return start(WebApplicationType.NONE, properties);
+    }
+
+    // same, with Tomcat (SERVLET) or Netty (REACTIVE) listening on a random port; see port(context)
+    static ConfigurableApplicationContext startWebApplication(WebApplicationType webApplicationType, String... properties) {
+        return start(webApplicationType, Stream.concat(Stream.of("server.port=0"), Stream.of(properties))
+                .toArray(String[]::new));
+    }
+
+    static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    // passed as command-line arguments so they override application.properties
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... properties) {
+        String[] args = Stream.concat(
+                        Stream.of("spring.main.banner-mode=off", "spring.jpa.show-sql=false", "logging.level.root=warn"),
+                        Stream.of(properties))
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .web(webApplicationType)
+                .run(args);
+    }
+
+    // inserts employees with ids 1..rows; names repeat, emails are unique
+    static void seed(ConfigurableApplicationContext context, int rows) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        // the pooled optimizer hands out (value - allocationSize, value], so generated ids start above the seed
+        jdbcTemplate.execute("alter sequence employees_seq restart with " + (rows + ID_ALLOCATION_SIZE));
+        for (int start = 1; start <= rows; start += SEED_CHUNK) {
+            int end = Math.min(rows, start + SEED_CHUNK - 1);
+            List<Object[]> batch = new ArrayList<>(end - start + 1);
+            for (int id = start; id <= end; id++) {
+                batch.add(new Object[]{id, firstName(id), lastName(id), email(id)});
+            }
+            jdbcTemplate.batchUpdate("insert into employees (id, first_name, last_name, email, version) values (?, ?, ?, ?, 0)", batch);
+        }
+        // the in-memory indexes loaded at startup do not see rows written around the service
+        context.getBean(EmployeeEmailFilter.class).load();
+        context.getBean(EmployeeSearchIndex.class).load();
+        context.getBean(EmployeeStatistics.class).reconcile();
+        context.getBeanProvider(EmployeeListSnapshot.class).ifAvailable(EmployeeListSnapshot::invalidate);
+    }
+
+    static String firstName(long id) {
+        return FIRST_NAMES[(int) (id % FIRST_NAMES.length)];
+    }
+
+    static String lastName(long id) {
+        return LAST_NAMES[(int) ((id / FIRST_NAMES.length) % LAST_NAMES.length)] + (id / (FIRST_NAMES.length * LAST_NAMES.length));
+    }
+
+    static String email(long id) {
+        return "employee" + id + "@example.com";
+    }
+}
@@ -0,0 +1,129 @@
+package com.excellence.spring_boot_testing.benchmark;
+
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.offheap.EmployeeColumnStore;
+import com.excellence.spring_boot_testing.repository.EmployeeRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory needed to hold every employee in memory: as Hibernate-managed entities (a
+ * {@code findAll()} inside a read-write transaction, so the persistence context keeps each
+ * entity with its dirty-checking snapshot) and as the {@code offheap} profile's
+ * {@link EmployeeColumnStore} rebuilt from its journal. Read the {@code heapBytes} and
+ * {@code offHeapBytes} counters, which JMH sums over the measurement iterations (hence just one);
+ * the time is how long loading took.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class EmployeeFootprintBenchmark {
+
+    private static final int SEED_BATCH = 10_000;
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"jpa", "offheap"})
+    private String store;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeRepository employeeRepository;
+    private TransactionTemplate transactionTemplate;
+    private Path journal;
+    private EmployeeColumnStore columnStore;
+    private long baseline;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public long heapBytes;
+        public long offHeapBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (store.equals("jpa")) {
+            context = BenchmarkSupport.startApplication("spring.cache.type=none");
+            BenchmarkSupport.seed(context, rows);
+            employeeRepository = context.getBean(EmployeeRepository.class);
+            transactionTemplate = context.getBean(TransactionTemplate.class);
+            return;
+        }
+        // the store writes its own journal once; every iteration replays it into a fresh store
+        journal = Files.createTempFile("employees", ".journal");
+        try (EmployeeColumnStore seeded = new EmployeeColumnStore(journal, false)) {
+            for (int start = 1; start <= rows; start += SEED_BATCH) {
+                List<Employee> batch = new ArrayList<>(SEED_BATCH);
+                for (long id = start; id < start + SEED_BATCH && id <= rows; id++) {
+                    batch.add(Employee.builder()
+                            .firstName(BenchmarkSupport.firstName(id))
+                            .lastName(BenchmarkSupport.lastName(id))
+                            .email(BenchmarkSupport.email(id))
+                            .build());
+                }
+                seeded.saveAll(batch);
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void measureBaseline() {
+        baseline = usedHeapAfterGc();
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeStore() throws IOException {
+        if (columnStore != null) {
+            columnStore.close();
+            columnStore = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (journal != null) {
+            Files.deleteIfExists(journal);
+        }
+    }
+
+    @Benchmark
+    public long holdAllEmployees(Footprint footprint) throws IOException {
+        if (store.equals("jpa")) {
+            return transactionTemplate.execute(status -> {
+                List<Employee> employees = employeeRepository.findAll();
+                footprint.heapBytes = usedHeapAfterGc() - baseline;
+                Reference.reachabilityFence(employees);
+                return (long) employees.size();
+            });
+        }
+        columnStore = new EmployeeColumnStore(journal, false);
+        footprint.heapBytes = usedHeapAfterGc() - baseline;
+        footprint.offHeapBytes = columnStore.reservedBytes();
+        return columnStore.collectionVersion().count();
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
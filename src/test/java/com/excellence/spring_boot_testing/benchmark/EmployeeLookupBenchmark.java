@@ -0,0 +1,81 @@
+package com.excellence.spring_boot_testing.benchmark;
+
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.repository.EmployeeRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-row read latency against H2 as the table grows: {@code findById} and the four
+ * first-name/last-name query variants on {@link EmployeeRepository} (derived-free JPQL with
+ * indexed and named parameters, and the native SQL pair). Each call looks up a random
+ * seeded employee, so the benchmark measures index lookups rather than one hot row.
+ * <p>
+ * Calls run without a surrounding transaction, as they do from the service layer, so each
+ * gets its own transaction and persistence context and no run is served from an earlier one.
+ * The fork gets a larger heap: with the default quarter of RAM the 1M-row in-memory table
+ * and the startup indexes leave the collector running constantly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class EmployeeLookupBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeRepository employeeRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startApplication();
+        BenchmarkSupport.seed(context, rows);
+        employeeRepository = context.getBean(EmployeeRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Employee> findById() {
+        return employeeRepository.findById(randomId());
+    }
+
+    @Benchmark
+    public Employee findByJpql() {
+        long id = randomId();
+        return employeeRepository.findByJpql(BenchmarkSupport.firstName(id), BenchmarkSupport.lastName(id));
+    }
+
+    @Benchmark
+    public Employee findByJPQLNamedParams() {
+        long id = randomId();
+        return employeeRepository.findByJPQLNamedParams(BenchmarkSupport.firstName(id), BenchmarkSupport.lastName(id));
+    }
+
+    @Benchmark
+    public Employee findByNativeSQL() {
+        long id = randomId();
+        return employeeRepository.findByNativeSQL(BenchmarkSupport.firstName(id), BenchmarkSupport.lastName(id));
+    }
+
+    @Benchmark
+    public Employee findByNativeSQLNamed() {
+        long id = randomId();
+        return employeeRepository.findByNativeSQLNamed(BenchmarkSupport.firstName(id), BenchmarkSupport.lastName(id));
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, rows + 1);
+    }
+}
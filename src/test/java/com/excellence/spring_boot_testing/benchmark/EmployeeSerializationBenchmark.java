@@ -0,0 +1,51 @@
+package com.excellence.spring_boot_testing.benchmark;
+
+import com.excellence.spring_boot_testing.model.Employee;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the list responses: serializing {@code List<Employee>} to JSON bytes with
+ * an {@link ObjectMapper} configured the way Spring Boot configures the one MVC uses.
+ * No application context or database is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class EmployeeSerializationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private ObjectWriter writer;
+    private List<Employee> employees;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writerFor(List.class);
+        employees = new ArrayList<>(rows);
+        for (long id = 1; id <= rows; id++) {
+            employees.add(Employee.builder()
+                    .id(id)
+                    .firstName(BenchmarkSupport.firstName(id))
+                    .lastName(BenchmarkSupport.lastName(id))
+                    .email(BenchmarkSupport.email(id))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(employees);
+    }
+}
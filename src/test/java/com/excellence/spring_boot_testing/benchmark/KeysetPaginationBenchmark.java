@@ -0,0 +1,72 @@
+package com.excellence.spring_boot_testing.benchmark;
+
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.service.EmployeeService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of fetching one page at increasing depth into the table: keyset paging
+ * (what {@code GET /api/employees?after=&limit=} uses) against OFFSET paging.
+ * Keyset should stay flat across {@code depth}. Note that H2's in-memory store keeps
+ * row counts in its primary-key B-tree, so OFFSET on {@code id} order is cheap here too;
+ * the OFFSET baseline degrades on disk-based databases and on non-key sort orders.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeysetPaginationBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"100000"})
+    private int rows;
+
+    // position of the requested page as a fraction of the table
+    @Param({"0.0", "0.5", "0.99"})
+    private double depth;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private EntityManager entityManager;
+    private long afterId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startApplication();
+        BenchmarkSupport.seed(context, rows);
+        employeeService = context.getBean(EmployeeService.class);
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        afterId = (long) (rows * depth);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public List<EmployeeView> keyset() {
+        return employeeService.getEmployeesAfter(afterId, PAGE_SIZE);
+    }
+
+    // same projection as the keyset query, so only the paging strategy differs
+    @Benchmark
+    public List<EmployeeView> offset() {
+        return entityManager
+                .createQuery("select new com.excellence.spring_boot_testing.dto.EmployeeView(e.id, e.firstName, e.lastName, e.email, e.version)"
+                        + " from Employee e order by e.id", EmployeeView.class)
+                .setFirstResult((int) afterId)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList();
+    }
+}
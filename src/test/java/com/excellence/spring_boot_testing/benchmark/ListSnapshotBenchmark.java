@@ -0,0 +1,70 @@
+package com.excellence.spring_boot_testing.benchmark;
+
+import com.excellence.spring_boot_testing.controller.EmployeeListSnapshot;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code GET /api/employees} over real HTTP with the list read and serialized per request
+ * ({@code snapshot=false}) against served from {@link EmployeeListSnapshot}, asking for
+ * plain or gzipped JSON. Client and server share the JVM, so time and
+ * {@code gc.alloc.rate.norm} include both sides of the request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListSnapshotBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    @Param({"false", "true"})
+    private boolean snapshot;
+
+    @Param({"identity", "gzip"})
+    private String encoding;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        context = BenchmarkSupport.startWebApplication(WebApplicationType.SERVLET,
+                "employees.list-snapshot.enabled=" + snapshot);
+        BenchmarkSupport.seed(context, rows);
+        if (snapshot) {
+            EmployeeListSnapshot listSnapshot = context.getBean(EmployeeListSnapshot.class);
+            while (listSnapshot.current() == null) {
+                Thread.sleep(10);
+            }
+        }
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + BenchmarkSupport.port(context) + "/api/employees"))
+                .header("Accept-Encoding", encoding)
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        httpClient.close();
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] getAllEmployees() throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+}
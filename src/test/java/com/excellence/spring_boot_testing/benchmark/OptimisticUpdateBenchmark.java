@@ -0,0 +1,94 @@
+package com.excellence.spring_boot_testing.benchmark;
+
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.exception.EmployeeVersionMismatchException;
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of {@link EmployeeService#updateEmployee} with many writers, all on the same row
+ * or each on its own. {@code conditional} is a client's read-modify-write: read the version
+ * (the ETag), then an update conditional on it (If-Match), and on a 412 read again and retry;
+ * the {@code conflicts} counter is the number of those retries. {@code unconditional} is the
+ * same update without If-Match, last writer wins, for the cost of the check itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class OptimisticUpdateBenchmark {
+
+    private static final int ROWS = 1000;
+
+    // hands each writer thread its own row for the "different" case
+    private static final AtomicLong WRITERS = new AtomicLong();
+
+    @Param({"same", "different"})
+    private String rows;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Writer {
+
+        public long conflicts;
+
+        private final long row = WRITERS.incrementAndGet();
+        private long updates;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startApplication();
+        BenchmarkSupport.seed(context, ROWS);
+        employeeService = context.getBean(EmployeeService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<EmployeeView> conditional(Writer writer) {
+        long id = row(writer);
+        while (true) {
+            long version = employeeService.getEmployeeVersion(id).orElseThrow();
+            try {
+                return employeeService.updateEmployee(id, update(id, writer), version);
+            } catch (EmployeeVersionMismatchException e) {
+                writer.conflicts++;
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<EmployeeView> unconditional(Writer writer) {
+        long id = row(writer);
+        return employeeService.updateEmployee(id, update(id, writer), null);
+    }
+
+    private long row(Writer writer) {
+        return rows.equals("same") ? 1 : (writer.row - 1) % ROWS + 1;
+    }
+
+    // the email stays the row's own, so writers never collide on the unique constraint
+    private static Employee update(long id, Writer writer) {
+        return Employee.builder()
+                .firstName(BenchmarkSupport.firstName(id) + writer.updates++)
+                .lastName(BenchmarkSupport.lastName(id))
+                .email(BenchmarkSupport.email(id))
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.excellence.spring_boot_testing.benchmark;
+
+import com.excellence.spring_boot_testing.codec.LengthPrefixedFrames;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A 10k-employee list response in each format {@code EmployeeController} negotiates: JSON,
+ * CBOR and Smile as one array, and CBOR as length-prefixed frames. Measures encoding
+ * and decoding; the payload size of each format is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    private static final int EMPLOYEES = 10_000;
+
+    @Param({"json", "cbor", "smile", "cbor-framed"})
+    private String format;
+
+    private boolean framed;
+    private ObjectWriter listWriter;
+    private ObjectWriter elementWriter;
+    private ObjectReader listReader;
+    private ObjectReader elementReader;
+    private List<EmployeeView> employees;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        framed = format.equals("cbor-framed");
+        JsonFactory factory = switch (format) {
+            case "json" -> new JsonFactory();
+            case "cbor", "cbor-framed" -> new CBORFactory();
+            default -> new SmileFactory();
+        };
+        // configured the way Spring Boot configures the mappers behind the converters
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().factory(factory).build();
+        listWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, EmployeeView.class));
+        elementWriter = mapper.writerFor(EmployeeView.class);
+        listReader = mapper.readerFor(mapper.getTypeFactory().constructCollectionType(List.class, EmployeeView.class));
+        elementReader = mapper.readerFor(EmployeeView.class);
+
+        employees = new ArrayList<>(EMPLOYEES);
+        for (long id = 1; id <= EMPLOYEES; id++) {
+            employees.add(new EmployeeView(id, BenchmarkSupport.firstName(id), BenchmarkSupport.lastName(id),
+                    BenchmarkSupport.email(id), 0));
+        }
+        payload = serialize();
+        System.out.printf("%n%s: %,d bytes for %,d employees%n", format, payload.length, EMPLOYEES);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        if (!framed) {
+            return listWriter.writeValueAsBytes(employees);
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(payload != null ? payload.length : 1 << 20);
+        LengthPrefixedFrames.Writer frames = new LengthPrefixedFrames.Writer(elementWriter, outputStream);
+        for (EmployeeView employee : employees) {
+            frames.write(employee);
+        }
+        return outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public List<EmployeeView> deserialize() throws IOException {
+        if (!framed) {
+            return listReader.readValue(payload);
+        }
+        DataInputStream inputStream = new DataInputStream(new ByteArrayInputStream(payload));
+        List<EmployeeView> result = new ArrayList<>(EMPLOYEES);
+        for (byte[] frame = LengthPrefixedFrames.read(inputStream); frame != null; frame = LengthPrefixedFrames.read(inputStream)) {
+            result.add(elementReader.readValue(frame));
+        }
+        return result;
+    }
+}
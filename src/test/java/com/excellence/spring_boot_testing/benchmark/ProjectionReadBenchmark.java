@@ -0,0 +1,52 @@
+package com.excellence.spring_boot_testing.benchmark;
+
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.repository.EmployeeRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The list behind {@code GET /api/employees} read as entities and as {@link EmployeeView}
+ * projections. Compare the time and, with the {@code gc} profiler the benchmark profile
+ * enables, {@code gc.alloc.rate.norm} (bytes allocated per call).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectionReadBenchmark {
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeRepository employeeRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startApplication();
+        BenchmarkSupport.seed(context, rows);
+        employeeRepository = context.getBean(EmployeeRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Employee> findAllEntities() {
+        return employeeRepository.findAll();
+    }
+
+    @Benchmark
+    public List<EmployeeView> findAllViews() {
+        return employeeRepository.findAllViews();
+    }
+}
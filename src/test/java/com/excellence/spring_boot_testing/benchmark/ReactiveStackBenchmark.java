@@ -0,0 +1,74 @@
+package com.excellence.spring_boot_testing.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The servlet stack (Tomcat, JPA over Hikari) against the {@code reactive} profile (Netty,
+ * R2DBC) under 1000 concurrent clients: {@code GET /api/employees/{id}} with the cache off,
+ * and a 100-row keyset page. Both stacks get ten database connections. Throughput and
+ * latency percentiles as in {@link VirtualThreadLoadBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(1000)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReactiveStackBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    @Param({"servlet", "reactive"})
+    private String stack;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUri;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean reactive = "reactive".equals(stack);
+        context = BenchmarkSupport.startWebApplication(
+                reactive ? WebApplicationType.REACTIVE : WebApplicationType.SERVLET,
+                "spring.profiles.active=" + (reactive ? "reactive" : "default"),
+                "spring.cache.type=none");
+        BenchmarkSupport.seed(context, rows);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUri = "http://localhost:" + BenchmarkSupport.port(context) + "/api/employees";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        httpClient.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int getEmployee() throws IOException, InterruptedException {
+        long id = ThreadLocalRandom.current().nextLong(1, rows + 1);
+        return send(baseUri + "/" + id);
+    }
+
+    @Benchmark
+    public int getPage() throws IOException, InterruptedException {
+        long after = ThreadLocalRandom.current().nextLong(0, rows);
+        return send(baseUri + "?after=" + after + "&limit=100");
+    }
+
+    private int send(String uri) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,70 @@
+package com.excellence.spring_boot_testing.benchmark;
+
+import com.excellence.spring_boot_testing.exception.EmployeeAlreadyExistsException;
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency of {@link EmployeeService#saveEmployee} including its duplicate check, for a new
+ * email (filter miss, then INSERT) and for an email that is already stored (filter hit, then
+ * the confirming SELECT and the rejection).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SaveEmployeeBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private final AtomicLong emailSequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startApplication();
+        BenchmarkSupport.seed(context, rows);
+        employeeService = context.getBean(EmployeeService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Employee saveNew() {
+        long n = emailSequence.incrementAndGet();
+        return employeeService.saveEmployee(Employee.builder()
+                .firstName(BenchmarkSupport.firstName(n))
+                .lastName(BenchmarkSupport.lastName(n))
+                .email("new" + n + "@example.com")
+                .build());
+    }
+
+    @Benchmark
+    public boolean saveDuplicate() {
+        long id = ThreadLocalRandom.current().nextLong(1, rows + 1);
+        try {
+            employeeService.saveEmployee(Employee.builder()
+                    .firstName(BenchmarkSupport.firstName(id))
+                    .lastName(BenchmarkSupport.lastName(id))
+                    .email(BenchmarkSupport.email(id))
+                    .build());
+            return false;
+        } catch (EmployeeAlreadyExistsException e) {
+            return true;
+        }
+    }
+}
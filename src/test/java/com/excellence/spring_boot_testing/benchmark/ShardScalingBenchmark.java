@@ -0,0 +1,103 @@
+package com.excellence.spring_boot_testing.benchmark;
+
+import com.excellence.spring_boot_testing.dto.EmployeeBatchResult;
+import com.excellence.spring_boot_testing.dto.EmployeeCollectionVersion;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The {@code sharded} profile as the number of H2 shards grows, eight client threads at a time:
+ * single-shard reads and writes, which should gain from spreading the load, and the fan-out
+ * reads, which pay one query per shard and a merge. Every shard is an in-memory database in
+ * the benchmark JVM, so the shards share its cores; compare runs on the same machine only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ShardScalingBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int SEED_BATCH = 1_000;
+
+    @Param({"1", "2", "4", "8"})
+    private int shards;
+
+    private final AtomicLong emailSequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String urls = IntStream.range(0, shards)
+                .mapToObj(shard -> "jdbc:h2:mem:benchmark-shard-" + shard + ";DB_CLOSE_DELAY=-1")
+                .collect(Collectors.joining(","));
+        context = BenchmarkSupport.startApplication("spring.profiles.active=sharded", "employees.shards.urls=" + urls,
+                "spring.cache.type=none");
+        employeeService = context.getBean(EmployeeService.class);
+
+        // through the service: ids come from the shard sequence and rows land on their shards
+        List<Long> seeded = new ArrayList<>(ROWS);
+        for (int start = 1; start <= ROWS; start += SEED_BATCH) {
+            List<Employee> batch = new ArrayList<>(SEED_BATCH);
+            for (long id = start; id < start + SEED_BATCH; id++) {
+                batch.add(Employee.builder()
+                        .firstName(BenchmarkSupport.firstName(id))
+                        .lastName(BenchmarkSupport.lastName(id))
+                        .email(BenchmarkSupport.email(id))
+                        .build());
+            }
+            employeeService.saveEmployees(batch).stream().map(EmployeeBatchResult::id).forEach(seeded::add);
+        }
+        ids = seeded.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<EmployeeView> getEmployeeById() {
+        return employeeService.getEmployeeById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public Employee saveEmployee() {
+        long n = emailSequence.incrementAndGet();
+        return employeeService.saveEmployee(Employee.builder()
+                .firstName(BenchmarkSupport.firstName(n))
+                .lastName(BenchmarkSupport.lastName(n))
+                .email("new" + n + "@example.com")
+                .build());
+    }
+
+    // fan-out: the first 50 rows after a random cursor, merged from every shard
+    @Benchmark
+    public List<EmployeeView> getEmployeesAfter() {
+        return employeeService.getEmployeesAfter(ids[ThreadLocalRandom.current().nextInt(ids.length)], 50);
+    }
+
+    // fan-out: one aggregate per shard
+    @Benchmark
+    public EmployeeCollectionVersion getEmployeesVersion() {
+        return employeeService.getEmployeesVersion();
+    }
+}
@@ -0,0 +1,67 @@
+package com.excellence.spring_boot_testing.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of {@code GET /api/employees/{id}} over real HTTP with 1000 concurrent clients,
+ * serving requests on Tomcat's platform-thread pool ({@code virtualThreads=false}, 200 threads)
+ * against virtual threads ({@code spring.threads.virtual.enabled=true}). The cache is off so
+ * every request borrows a pooled connection and queries H2. Throughput is reported in
+ * requests per second and latency percentiles, including p0.99, by the sample-time mode.
+ * <p>
+ * The fork runs with {@code -Djdk.tracePinnedThreads=short}, so a carrier thread pinned while
+ * blocked in the JDBC or Hibernate path (pool waits, H2 locks) prints a stack in the output.
+ * Client and server share the JVM; run it on a machine with several cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(1000)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Djdk.tracePinnedThreads=short"})
+public class VirtualThreadLoadBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUri;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startWebApplication(WebApplicationType.SERVLET,
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "spring.cache.type=none");
+        BenchmarkSupport.seed(context, rows);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUri = "http://localhost:" + BenchmarkSupport.port(context) + "/api/employees/";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        httpClient.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int getEmployee() throws IOException, InterruptedException {
+        long id = ThreadLocalRandom.current().nextLong(1, rows + 1);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUri + id)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
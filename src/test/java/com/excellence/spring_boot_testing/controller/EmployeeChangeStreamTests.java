@@ -0,0 +1,92 @@
+package com.excellence.spring_boot_testing.controller;
+
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.service.EmployeeService;
+import com.excellence.spring_boot_testing.service.impl.EmployeeChangeFeed;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// a real server: the stream stays open, which MockMvc cannot follow
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class EmployeeChangeStreamTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeChangeFeed changeFeed;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @DisplayName("Junit test for streaming a committed change and resuming from Last-Event-ID")
+    @Test
+    public void givenSubscriber_whenSaveEmployee_thenStreamChangeAndResumeAfterReconnect() throws Exception {
+        // given - precondition or setup
+        long cursor = changeFeed.latestSequence();
+        HttpResponse<Stream<String>> stream = subscribe("/api/employees/changes/stream?after=" + cursor, null);
+
+        // when - action or the behaviour that we are going test
+        Employee employee = employeeService.saveEmployee(Employee.builder()
+                .firstName("Vijay").lastName("Singh").email("vijay.stream@gmail.com").build());
+        List<String> event = nextEvent(stream);
+        // reconnecting with the id before it replays the same change
+        HttpResponse<Stream<String>> resumed = subscribe("/api/employees/changes/stream", Long.toString(cursor));
+        List<String> replayed = nextEvent(resumed);
+
+        // then - verify the output
+        assertThat(event).contains("event:change", "id:" + (cursor + 1));
+        assertThat(event).anySatisfy(line -> assertThat(line)
+                .startsWith("data:")
+                .contains("\"type\":\"CREATED\"", "\"id\":" + employee.getId(), "vijay.stream@gmail.com"));
+        assertThat(replayed).isEqualTo(event);
+    }
+
+    private HttpResponse<Stream<String>> subscribe(String path, String lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<Stream<String>> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return response;
+    }
+
+    // the lines of the first event, up to the blank line that ends it; heartbeats are skipped
+    private static List<String> nextEvent(HttpResponse<Stream<String>> response) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            Iterator<String> lines = response.body().iterator();
+            List<String> event = new ArrayList<>();
+            while (lines.hasNext()) {
+                String line = lines.next();
+                if (line.isEmpty() && !event.isEmpty()) {
+                    break;
+                }
+                if (!line.isEmpty() && !line.startsWith(":")) {
+                    event.add(line);
+                }
+            }
+            response.body().close();
+            return event;
+        }).get(10, TimeUnit.SECONDS);
+    }
+}
@@ -1,28 +1,64 @@
 package com.excellence.spring_boot_testing.controller;
 
+import com.excellence.spring_boot_testing.codec.LengthPrefixedFrames;
+import com.excellence.spring_boot_testing.dto.EmployeeBatchResult;
+import com.excellence.spring_boot_testing.dto.EmployeeBulkDelete;
+import com.excellence.spring_boot_testing.dto.EmployeeChange;
+import com.excellence.spring_boot_testing.dto.EmployeeChanges;
+import com.excellence.spring_boot_testing.dto.EmployeeCollectionVersion;
+import com.excellence.spring_boot_testing.dto.EmployeeGroupCount;
+import com.excellence.spring_boot_testing.dto.EmployeePage;
+import com.excellence.spring_boot_testing.dto.EmployeePatch;
+import com.excellence.spring_boot_testing.dto.EmployeeStats;
+import com.excellence.spring_boot_testing.dto.EmployeeSummary;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.event.EmployeeChangedEvent;
+import com.excellence.spring_boot_testing.exception.EmployeeAlreadyExistsException;
+import com.excellence.spring_boot_testing.exception.EmployeeVersionMismatchException;
 import com.excellence.spring_boot_testing.model.Employee;
 import com.excellence.spring_boot_testing.service.EmployeeService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest
 public class EmployeeControllerTests {
@@ -33,6 +69,13 @@ public class EmployeeControllerTests {
     @MockBean
     private EmployeeService employeeService;
 
+    // current() answers null unless a test stubs it, so reads take the live path
+    @MockBean
+    private EmployeeListSnapshot listSnapshot;
+
+    @MockBean
+    private EmployeeChangeStream changeStream;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -65,13 +108,156 @@ public class EmployeeControllerTests {
 
     }
 
+    // JUnit test for create employee REST API - email already taken
+    @Test
+    public void givenExistingEmail_whenCreateEmployee_thenReturn409() throws Exception {
+
+        // given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Vijay")
+                .lastName("Singh")
+                .email("vijay@gmail.com")
+                .build();
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willThrow(new EmployeeAlreadyExistsException("Employee already exist with given email:vijay@gmail.com"));
+
+        // when - action or behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        // then - verify the result or output using assert statements
+        response.andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.detail", is("Employee already exist with given email:vijay@gmail.com")));
+    }
+
+    // JUnit test for create employee REST API - unique constraint hit by a concurrent create
+    @Test
+    public void givenConstraintViolation_whenCreateEmployee_thenReturn409() throws Exception {
+
+        // given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Vijay")
+                .lastName("Singh")
+                .email("vijay@gmail.com")
+                .build();
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willThrow(new DataIntegrityViolationException("uk_employees_email"));
+
+        // when - action or behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        // then - verify the result or output using assert statements
+        response.andDo(print())
+                .andExpect(status().isConflict());
+    }
+
+    // JUnit test for create employee REST API - NOT NULL constraint hit by a missing field
+    @Test
+    public void givenMissingField_whenCreateEmployee_thenReturn400() throws Exception {
+
+        // given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Vijay")
+                .email("vijay@gmail.com")
+                .build();
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willThrow(new DataIntegrityViolationException("NULL not allowed for column \"LAST_NAME\""));
+
+        // when - action or behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        // then - verify the result or output using assert statements
+        response.andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    // JUnit test for batch create employees REST API
+    @Test
+    public void givenListOfEmployees_whenCreateEmployees_thenReturnResultPerEmployee() throws Exception {
+
+        // given - precondition or setup
+        List<EmployeeView> listOfEmployees = new ArrayList<>();
+        listOfEmployees.add(new EmployeeView(1L, "Vijay", "Singh", "vijay@gmail.com", 0L));
+        listOfEmployees.add(new EmployeeView(2L, "Tony", "Stark", "tony@gmail.com", 0L));
+        given(employeeService.saveEmployees(anyList())).willReturn(List.of(
+                EmployeeBatchResult.created(0, 1L),
+                EmployeeBatchResult.duplicate(1, "tony@gmail.com")));
+
+        // when - action or behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(listOfEmployees)));
+
+        // then - verify the result or output using assert statements
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[1].status", is("DUPLICATE")));
+    }
+
+    // JUnit test for batch create employees REST API - frame longer than the limit
+    @Test
+    public void givenOversizedFrame_whenCreateEmployees_thenReturn400() throws Exception {
+
+        // given - precondition or setup
+        byte[] body = {0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x00};
+
+        // when - action or behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees/batch")
+                .contentType(LengthPrefixedFrames.APPLICATION_CBOR_FRAMED)
+                .content(body));
+
+        // then - verify the result or output using assert statements
+        response.andExpect(status().isBadRequest());
+        verify(employeeService, never()).saveEmployees(anyList());
+    }
+
+    // JUnit test for batch create employees REST API - framed CBOR in and out
+    @Test
+    public void givenFramedCborEmployees_whenCreateEmployees_thenReturnFramedCborResults() throws Exception {
+
+        // given - precondition or setup
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        LengthPrefixedFrames.Writer frames = new LengthPrefixedFrames.Writer(new CBORMapper().writer(), body);
+        frames.write(new EmployeeView(1L, "Vijay", "Singh", "vijay@gmail.com", 0L));
+        frames.write(new EmployeeView(2L, "Tony", "Stark", "tony@gmail.com", 0L));
+        given(employeeService.saveEmployees(anyList())).willReturn(List.of(
+                EmployeeBatchResult.created(0, 1L),
+                EmployeeBatchResult.duplicate(1, "tony@gmail.com")));
+
+        // when - action or behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees/batch")
+                .contentType(LengthPrefixedFrames.APPLICATION_CBOR_FRAMED)
+                .accept(LengthPrefixedFrames.APPLICATION_CBOR_FRAMED)
+                .content(body.toByteArray()));
+
+        // then - verify the result or output using assert statements
+        byte[] content = response.andExpect(status().isOk())
+                .andExpect(content().contentType(LengthPrefixedFrames.APPLICATION_CBOR_FRAMED))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(readFrames(new CBORMapper(), content, EmployeeBatchResult.class))
+                .extracting(EmployeeBatchResult::status)
+                .containsExactly(EmployeeBatchResult.Status.CREATED, EmployeeBatchResult.Status.DUPLICATE);
+        verify(employeeService).saveEmployees(argThat(employees -> employees.size() == 2
+                && employees.get(1).getEmail().equals("tony@gmail.com")));
+    }
+
     // JUnit test for Get All employees REST API
     @Test
     public void givenListOfEmployees_whenGetAllEmployees_thenReturnEmployeesList() throws Exception {
         // given - precondition or setup
-        List<Employee> listOfEmployees = new ArrayList<>();
-        listOfEmployees.add(Employee.builder().firstName("Vijay").lastName("Singh").email("vijay@gmail.com").build());
-        listOfEmployees.add(Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build());
+        List<EmployeeView> listOfEmployees = new ArrayList<>();
+        listOfEmployees.add(new EmployeeView(1L, "Vijay", "Singh", "vijay@gmail.com", 0L));
+        listOfEmployees.add(new EmployeeView(2L, "Tony", "Stark", "tony@gmail.com", 0L));
+        given(employeeService.getEmployeesVersion()).willReturn(new EmployeeCollectionVersion(2, 2, 0));
         given(employeeService.getAllEmployees()).willReturn(listOfEmployees);
 
         // when -  action or the behaviour that we are going test
@@ -80,11 +266,99 @@ public class EmployeeControllerTests {
         // then - verify the output
         response.andExpect(status().isOk())
                 .andDo(print())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2-2-0\""))
                 .andExpect(jsonPath("$.size()",
                         is(listOfEmployees.size())));
 
     }
 
+    // JUnit test for Get All employees REST API - gzipped snapshot instead of a query
+    @Test
+    public void givenCurrentSnapshot_whenGetAllEmployees_thenServeGzippedSnapshotWithoutQuerying() throws Exception {
+        // given - precondition or setup
+        List<EmployeeView> listOfEmployees = List.of(
+                new EmployeeView(1L, "Vijay", "Singh", "vijay@gmail.com", 0L),
+                new EmployeeView(2L, "Tony", "Stark", "tony@gmail.com", 0L));
+        byte[] json = objectMapper.writeValueAsBytes(listOfEmployees);
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (GZIPOutputStream outputStream = new GZIPOutputStream(gzip)) {
+            outputStream.write(json);
+        }
+        given(listSnapshot.current()).willReturn(new EmployeeListSnapshot.Snapshot(
+                1L, new EmployeeCollectionVersion(2, 2, 0), json, gzip.toByteArray()));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"));
+
+        // then - verify the output
+        byte[] content = response.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2-2-0-gzip\""))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            assertThat(objectMapper.readValue(inputStream, EmployeeView[].class)).containsExactlyElementsOf(listOfEmployees);
+        }
+        verify(employeeService, never()).getAllEmployees();
+        verify(employeeService, never()).getEmployeesVersion();
+    }
+
+    // JUnit test for Get All employees REST API - snapshot unchanged since the client's gzipped copy
+    @Test
+    public void givenGzipETag_whenGetAllEmployeesWithoutGzip_thenReturn304WithTheGzipETag() throws Exception {
+        // given - precondition or setup
+        given(listSnapshot.current()).willReturn(new EmployeeListSnapshot.Snapshot(
+                1L, new EmployeeCollectionVersion(2, 2, 0), "[]".getBytes(), new byte[0]));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"2-2-0-gzip\""));
+
+        // then - verify the output
+        response.andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2-2-0-gzip\""))
+                .andExpect(content().string(""));
+        verify(employeeService, never()).getAllEmployees();
+    }
+
+    // JUnit test for Get All employees REST API - Smile instead of JSON
+    @Test
+    public void givenSmileAccept_whenGetAllEmployees_thenReturnSmileArray() throws Exception {
+        // given - precondition or setup
+        List<EmployeeView> listOfEmployees = List.of(
+                new EmployeeView(1L, "Vijay", "Singh", "vijay@gmail.com", 0L),
+                new EmployeeView(2L, "Tony", "Stark", "tony@gmail.com", 0L));
+        given(employeeService.getEmployeesVersion()).willReturn(new EmployeeCollectionVersion(2, 2, 0));
+        given(employeeService.getAllEmployees()).willReturn(listOfEmployees);
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees").accept("application/x-jackson-smile"));
+
+        // then - verify the output
+        byte[] content = response.andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(new SmileMapper().readValue(content, EmployeeView[].class)).containsExactlyElementsOf(listOfEmployees);
+    }
+
+    // JUnit test for Get All employees REST API - unchanged since the client's copy
+    @Test
+    public void givenMatchingETag_whenGetAllEmployees_thenReturn304WithoutLoadingEmployees() throws Exception {
+        // given - precondition or setup
+        given(employeeService.getEmployeesVersion()).willReturn(new EmployeeCollectionVersion(2, 2, 0));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"2-2-0\""));
+
+        // then - verify the output
+        response.andExpect(status().isNotModified())
+                .andDo(print())
+                .andExpect(content().string(""));
+        verify(employeeService, never()).getAllEmployees();
+    }
+
     // positive scenario - valid employee id
     // JUnit test for GET employee by id REST API
     @Test
@@ -96,7 +370,7 @@ public class EmployeeControllerTests {
                 .lastName("Singh")
                 .email("vijay@gmail.com")
                 .build();
-        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(EmployeeView.of(employee)));
 
         // when -  action or the behaviour that we are going test
         ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId));
@@ -104,12 +378,56 @@ public class EmployeeControllerTests {
         // then - verify the output
         response.andExpect(status().isOk())
                 .andDo(print())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
                 .andExpect(jsonPath("$.firstName", is(employee.getFirstName())))
                 .andExpect(jsonPath("$.lastName", is(employee.getLastName())))
                 .andExpect(jsonPath("$.email", is(employee.getEmail())));
 
     }
 
+    // JUnit test for GET employee by id REST API - unchanged since the client's copy
+    @Test
+    public void givenMatchingETag_whenGetEmployeeById_thenReturn304WithoutLoadingEmployee() throws Exception {
+        // given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.getEmployeeVersion(employeeId)).willReturn(Optional.of(3L));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\""));
+
+        // then - verify the output
+        response.andExpect(status().isNotModified())
+                .andDo(print());
+        verify(employeeService, never()).getEmployeeById(employeeId);
+    }
+
+    // JUnit test for GET employee by id REST API - client's copy is outdated
+    @Test
+    public void givenStaleETag_whenGetEmployeeById_thenReturnEmployeeWithNewETag() throws Exception {
+        // given - precondition or setup
+        long employeeId = 1L;
+        Employee employee = Employee.builder()
+                .id(employeeId)
+                .firstName("Vijay")
+                .lastName("Singh")
+                .email("vijay@gmail.com")
+                .version(4L)
+                .build();
+        given(employeeService.getEmployeeVersion(employeeId)).willReturn(Optional.of(4L));
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(EmployeeView.of(employee)));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\""));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.version", is(4)));
+    }
+
     // negative scenario - valid employee id
     // JUnit test for GET employee by id REST API
     @Test
@@ -137,20 +455,13 @@ public class EmployeeControllerTests {
     public void givenUpdatedEmployee_whenUpdateEmployee_thenReturnUpdateEmployeeObject() throws Exception {
         // given - precondition or setup
         long employeeId = 1L;
-        Employee savedEmployee = Employee.builder()
-                .firstName("Vijay")
-                .lastName("Singh")
-                .email("vijay@gmail.com")
-                .build();
-
         Employee updatedEmployee = Employee.builder()
                 .firstName("Aashu")
                 .lastName("Thakur")
                 .email("aashu@gmail.com")
                 .build();
-        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(savedEmployee));
-        given(employeeService.updateEmployee(any(Employee.class)))
-                .willAnswer((invocation) -> invocation.getArgument(0));
+        given(employeeService.updateEmployee(eq(employeeId), any(Employee.class), isNull()))
+                .willReturn(Optional.of(new EmployeeView(employeeId, "Aashu", "Thakur", "aashu@gmail.com", 1L)));
 
         // when -  action or the behaviour that we are going test
         ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
@@ -161,30 +472,63 @@ public class EmployeeControllerTests {
         // then - verify the output
         response.andExpect(status().isOk())
                 .andDo(print())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
                 .andExpect(jsonPath("$.firstName", is(updatedEmployee.getFirstName())))
                 .andExpect(jsonPath("$.lastName", is(updatedEmployee.getLastName())))
                 .andExpect(jsonPath("$.email", is(updatedEmployee.getEmail())));
+        verify(employeeService, never()).getEmployeeById(employeeId);
     }
 
-    // JUnit test for update employee REST API - negative scenario
+    // JUnit test for a conditional update employee REST API
     @Test
-    public void givenUpdatedEmployee_whenUpdateEmployee_thenReturn404() throws Exception {
+    public void givenIfMatch_whenUpdateEmployee_thenUpdateOnlyThatVersion() throws Exception {
         // given - precondition or setup
         long employeeId = 1L;
-        Employee savedEmployee = Employee.builder()
-                .firstName("Vijay")
-                .lastName("Singh")
-                .email("vijay@gmail.com")
+        Employee updatedEmployee = Employee.builder()
+                .firstName("Aashu")
+                .lastName("Thakur")
+                .email("aashu@gmail.com")
                 .build();
+        given(employeeService.updateEmployee(eq(employeeId), any(Employee.class), eq(3L)))
+                .willReturn(Optional.of(new EmployeeView(employeeId, "Aashu", "Thakur", "aashu@gmail.com", 4L)));
+        given(employeeService.updateEmployee(eq(employeeId), any(Employee.class), eq(2L)))
+                .willThrow(new EmployeeVersionMismatchException("Employee 1 has changed since version 2"));
 
+        // when -  action or the behaviour that we are going test
+        ResultActions current = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedEmployee)));
+        ResultActions stale = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedEmployee)));
+        ResultActions weak = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedEmployee)));
+
+        // then - verify the output
+        current.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+        stale.andExpect(status().isPreconditionFailed())
+                .andDo(print());
+        // If-Match compares strongly, so a weak tag fails before anything is written
+        weak.andExpect(status().isPreconditionFailed());
+        verify(employeeService, never()).updateEmployee(eq(employeeId), any(Employee.class), isNull());
+    }
+
+    // JUnit test for update employee REST API - negative scenario
+    @Test
+    public void givenUpdatedEmployee_whenUpdateEmployee_thenReturn404() throws Exception {
+        // given - precondition or setup
+        long employeeId = 1L;
         Employee updatedEmployee = Employee.builder()
                 .firstName("Aashu")
                 .lastName("Kshatriya")
                 .email("aashu@gmail.com")
                 .build();
-        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.empty());
-        given(employeeService.updateEmployee(any(Employee.class)))
-                .willAnswer((invocation) -> invocation.getArgument(0));
+        given(employeeService.updateEmployee(eq(employeeId), any(Employee.class), isNull())).willReturn(Optional.empty());
 
         // when -  action or the behaviour that we are going test
         ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
@@ -196,18 +540,307 @@ public class EmployeeControllerTests {
                 .andDo(print());
     }
 
+    // JUnit test for patch employee REST API - positive scenario
+    @Test
+    public void givenEmployeePatch_whenPatchEmployee_thenReturn204() throws Exception {
+        // given - precondition or setup
+        long employeeId = 1L;
+        EmployeePatch patch = new EmployeePatch(null, null, "aashu@gmail.com");
+        given(employeeService.patchEmployee(employeeId, patch, 2L)).willReturn(Optional.of(3L));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"aashu@gmail.com\"}"));
+
+        // then - verify the output
+        response.andExpect(status().isNoContent())
+                .andDo(print())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+        verify(employeeService, never()).getEmployeeById(employeeId);
+    }
+
+    // JUnit test for patch employee REST API - negative scenario
+    @Test
+    public void givenEmployeePatch_whenPatchEmployee_thenReturn404() throws Exception {
+        // given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.patchEmployee(employeeId, new EmployeePatch("Aashu", null, null), null)).willReturn(Optional.empty());
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Aashu\"}"));
+
+        // then - verify the output
+        response.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
     // JUnit test for delete employee REST API
     @Test
     public void givenEmployeeId_whenDeleteEmployee_thenReturn200() throws Exception {
         // given - precondition or setup
         long employeeId = 1L;
-        willDoNothing().given(employeeService).deleteEmployee(employeeId);
+        given(employeeService.deleteEmployee(employeeId)).willReturn(true);
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employeeId));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print());
+    }
+
+    // JUnit test for delete employee REST API - nothing to delete
+    @Test
+    public void givenInvalidEmployeeId_whenDeleteEmployee_thenReturn404() throws Exception {
+        // given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.deleteEmployee(employeeId)).willReturn(false);
 
         // when -  action or the behaviour that we are going test
         ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employeeId));
 
+        // then - verify the output
+        response.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
+    // JUnit test for bulk delete employees REST API
+    @Test
+    public void givenLastName_whenDeleteEmployees_thenReturnDeletedCount() throws Exception {
+        // given - precondition or setup
+        EmployeeBulkDelete bulkDelete = new EmployeeBulkDelete(null, "Singh");
+        given(employeeService.deleteEmployees(bulkDelete)).willReturn(2);
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees/bulk-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(bulkDelete)));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.deleted", is(2)));
+    }
+
+    // JUnit test for bulk delete employees REST API - neither ids nor lastName
+    @Test
+    public void givenEmptyBulkDelete_whenDeleteEmployees_thenReturn400() throws Exception {
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees/bulk-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+        verify(employeeService, never()).deleteEmployees(any());
+    }
+
+    // JUnit test for keyset page of employees REST API - more pages follow
+    @Test
+    public void givenMoreEmployeesThanLimit_whenGetEmployeePage_thenReturnPageWithNextCursor() throws Exception {
+        // given - precondition or setup
+        List<EmployeeView> listOfEmployees = new ArrayList<>();
+        listOfEmployees.add(new EmployeeView(11L, "Vijay", "Singh", "vijay@gmail.com", 0L));
+        listOfEmployees.add(new EmployeeView(12L, "Tony", "Stark", "tony@gmail.com", 0L));
+        listOfEmployees.add(new EmployeeView(13L, "Aashu", "Singh", "aashu@gmail.com", 0L));
+        given(employeeService.getEmployeesAfter(10L, 3)).willReturn(listOfEmployees);
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("after", "10")
+                .param("limit", "2"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.content.size()", is(2)))
+                .andExpect(jsonPath("$.content[1].id", is(12)))
+                .andExpect(jsonPath("$.nextCursor", is(EmployeePage.encodeCursor(12L))));
+    }
+
+    // JUnit test for keyset page of employees REST API - last page
+    @Test
+    public void givenCursorOfLastPage_whenGetEmployeePage_thenReturnPageWithoutNextCursor() throws Exception {
+        // given - precondition or setup
+        List<EmployeeView> listOfEmployees = new ArrayList<>();
+        listOfEmployees.add(new EmployeeView(13L, "Aashu", "Singh", "aashu@gmail.com", 0L));
+        given(employeeService.getEmployeesAfter(12L, 3)).willReturn(listOfEmployees);
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("cursor", EmployeePage.encodeCursor(12L))
+                .param("limit", "2"));
+
         // then - verify the output
         response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.content.size()", is(1)))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+
+    // JUnit test for keyset page of employees REST API - malformed cursor
+    @Test
+    public void givenInvalidCursor_whenGetEmployeePage_thenReturn400() throws Exception {
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("cursor", "not-a-cursor")
+                .param("limit", "2"));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest())
                 .andDo(print());
+        verify(employeeService, never()).getEmployeesAfter(anyLong(), anyInt());
+    }
+
+    // JUnit test for search employees REST API
+    @Test
+    public void givenQuery_whenSearchEmployees_thenReturnMatches() throws Exception {
+        // given - precondition or setup
+        given(employeeService.searchEmployees("vij", 5))
+                .willReturn(List.of(new EmployeeSummary(1L, "Vijay", "Singh", "vijay@gmail.com")));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/search")
+                .param("q", "vij")
+                .param("limit", "5"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].firstName", is("Vijay")));
+    }
+
+    // JUnit test for employee stats REST API
+    @Test
+    public void givenStats_whenGetEmployeeStats_thenReturnTotalAndTopGroups() throws Exception {
+        // given - precondition or setup
+        given(employeeService.getEmployeeStats(3)).willReturn(new EmployeeStats(3,
+                List.of(new EmployeeGroupCount("Singh", 2), new EmployeeGroupCount("Stark", 1)),
+                List.of(new EmployeeGroupCount("gmail.com", 3))));
+        given(employeeService.getEmailDomainCounts(EmployeeController.MAX_STATS_GROUPS))
+                .willReturn(List.of(new EmployeeGroupCount("gmail.com", 3)));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/stats").param("limit", "3"));
+        ResultActions domains = mockMvc.perform(get("/api/employees/stats/email-domains").param("limit", "5000"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.total", is(3)))
+                .andExpect(jsonPath("$.lastNames[0].value", is("Singh")))
+                .andExpect(jsonPath("$.lastNames[0].count", is(2)))
+                .andExpect(jsonPath("$.emailDomains.size()", is(1)));
+        domains.andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].value", is("gmail.com")));
+    }
+
+    // JUnit test for get employee by email REST API
+    @Test
+    public void givenEmail_whenGetEmployeeByEmail_thenReturnEmployeeOrNotFound() throws Exception {
+        // given - precondition or setup
+        given(employeeService.getEmployeeByEmail("vijay@gmail.com"))
+                .willReturn(Optional.of(new EmployeeView(1L, "Vijay", "Singh", "vijay@gmail.com", 0L)));
+        given(employeeService.getEmployeeByEmail("nobody@gmail.com")).willReturn(Optional.empty());
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees").param("email", "vijay@gmail.com"));
+        ResultActions missing = mockMvc.perform(get("/api/employees").param("email", "nobody@gmail.com"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.firstName", is("Vijay")));
+        missing.andExpect(status().isNotFound());
+    }
+
+    // JUnit test for the change feed polling REST API
+    @Test
+    public void givenChanges_whenGetChanges_thenReturnChangesAfterCursor() throws Exception {
+        // given - precondition or setup
+        given(employeeService.getChangesAfter(41L, 500)).willReturn(new EmployeeChanges(
+                List.of(new EmployeeChange(42L, EmployeeChangedEvent.ChangeType.DELETED, 7L, null, null, null)), 42L, false));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/changes").param("after", "41"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.changes[0].type", is("DELETED")))
+                .andExpect(jsonPath("$.changes[0].id", is(7)))
+                .andExpect(jsonPath("$.lastSequence", is(42)))
+                .andExpect(jsonPath("$.reset", is(false)));
+    }
+
+    // JUnit test for streaming export REST API
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenListOfEmployees_whenExportEmployees_thenStreamNdjson() throws Exception {
+        // given - precondition or setup
+        Employee employee = Employee.builder().id(1L).firstName("Vijay").lastName("Singh").email("vijay@gmail.com").build();
+        Employee employee1 = Employee.builder().id(2L).firstName("Tony").lastName("Stark").email("tony@gmail.com").build();
+        willAnswer(invocation -> {
+            Consumer<EmployeeView> consumer = invocation.getArgument(0);
+            consumer.accept(EmployeeView.of(employee));
+            consumer.accept(EmployeeView.of(employee1));
+            return null;
+        }).given(employeeService).exportEmployees(any(Consumer.class));
+
+        // when -  action or the behaviour that we are going test
+        MvcResult result = mockMvc.perform(get("/api/employees/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(result));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(objectMapper.writeValueAsString(employee) + "\n"
+                        + objectMapper.writeValueAsString(employee1) + "\n"));
+    }
+
+    // JUnit test for streaming export REST API - length-prefixed CBOR records
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenFramedCborAccept_whenExportEmployees_thenStreamFramedRecords() throws Exception {
+        // given - precondition or setup
+        EmployeeView employee = new EmployeeView(1L, "Vijay", "Singh", "vijay@gmail.com", 0L);
+        EmployeeView employee1 = new EmployeeView(2L, "Tony", "Stark", "tony@gmail.com", 0L);
+        willAnswer(invocation -> {
+            Consumer<EmployeeView> consumer = invocation.getArgument(0);
+            consumer.accept(employee);
+            consumer.accept(employee1);
+            return null;
+        }).given(employeeService).exportEmployees(any(Consumer.class));
+
+        // when -  action or the behaviour that we are going test
+        MvcResult result = mockMvc.perform(get("/api/employees/export").accept(LengthPrefixedFrames.APPLICATION_CBOR_FRAMED))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(result));
+
+        // then - verify the output
+        byte[] content = response.andExpect(status().isOk())
+                .andExpect(content().contentType(LengthPrefixedFrames.APPLICATION_CBOR_FRAMED))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(readFrames(new CBORMapper(), content, EmployeeView.class)).containsExactly(employee, employee1);
+    }
+
+    private static <T> List<T> readFrames(ObjectMapper mapper, byte[] content, Class<T> type) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(content));
+        List<T> values = new ArrayList<>();
+        for (byte[] frame = LengthPrefixedFrames.read(input); frame != null; frame = LengthPrefixedFrames.read(input)) {
+            values.add(mapper.readValue(frame, type));
+        }
+        return values;
     }
 }
@@ -0,0 +1,71 @@
+package com.excellence.spring_boot_testing.controller;
+
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.service.EmployeeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// a database of its own, so rows left by other tests do not show up in the list
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:list-snapshot;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+public class EmployeeListSnapshotTests {
+
+    @Autowired
+    private EmployeeListSnapshot listSnapshot;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DisplayName("Junit test for the list including a write before and after the snapshot is rebuilt")
+    @Test
+    public void givenSnapshot_whenSaveEmployee_thenListIncludesItBeforeAndAfterRebuild() throws Exception {
+        // given - precondition or setup
+        awaitCurrent();
+
+        // when - action or the behaviour that we are going test
+        Employee employee = employeeService.saveEmployee(Employee.builder()
+                .firstName("Vijay").lastName("Singh").email("vijay@gmail.com").build());
+
+        // then - verify the output: the write shows up at once, whether or not the rebuild has run
+        assertThat(getAllEmployees()).contains(EmployeeView.of(employee));
+        EmployeeListSnapshot.Snapshot rebuilt = awaitCurrent();
+        assertThat(objectMapper.readValue(rebuilt.json(), EmployeeView[].class)).contains(EmployeeView.of(employee));
+        assertThat(getAllEmployees()).contains(EmployeeView.of(employee));
+    }
+
+    private List<EmployeeView> getAllEmployees() throws Exception {
+        byte[] content = mockMvc.perform(get("/api/employees"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        return List.of(objectMapper.readValue(content, EmployeeView[].class));
+    }
+
+    private EmployeeListSnapshot.Snapshot awaitCurrent() throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            EmployeeListSnapshot.Snapshot snapshot = listSnapshot.current();
+            if (snapshot != null) {
+                return snapshot;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("snapshot was not rebuilt within 5 seconds");
+    }
+}
@@ -0,0 +1,359 @@
+package com.excellence.spring_boot_testing.controller;
+
+import com.excellence.spring_boot_testing.codec.LengthPrefixedFrames;
+import com.excellence.spring_boot_testing.dto.EmployeeChanges;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.model.Employee;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// end to end over Netty and R2DBC, against the same H2 database the JDBC side migrated
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+public class ReactiveEmployeeControllerTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("delete from employees");
+    }
+
+    // JUnit test for save employee REST API
+    @Test
+    public void givenEmployeeObject_whenCreateEmployee_thenReturnSavedEmployee() {
+        // given - precondition or setup
+        Employee employee = employee("Vijay", "Singh", "vijay@gmail.com");
+
+        // when -  action or the behaviour that we are going test
+        WebTestClient.ResponseSpec response = webTestClient.post().uri("/api/employees")
+                .bodyValue(employee)
+                .exchange();
+
+        // then - verify the result or output using assert statements
+        response.expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isNumber()
+                .jsonPath("$.firstName").isEqualTo("Vijay")
+                .jsonPath("$.version").isEqualTo(0);
+    }
+
+    // JUnit test for save employee REST API with an email that is already taken
+    @Test
+    public void givenExistingEmail_whenCreateEmployee_thenReturn409() {
+        // given - precondition or setup
+        webTestClient.post().uri("/api/employees")
+                .bodyValue(employee("Vijay", "Singh", "vijay@gmail.com"))
+                .exchange()
+                .expectStatus().isCreated();
+
+        // when -  action or the behaviour that we are going test
+        WebTestClient.ResponseSpec response = webTestClient.post().uri("/api/employees")
+                .bodyValue(employee("Aashu", "Singh", "vijay@gmail.com"))
+                .exchange();
+
+        // then - verify the output
+        response.expectStatus().isEqualTo(409);
+    }
+
+    // JUnit test for get employee by id REST API with a conditional request
+    @Test
+    public void givenMatchingETag_whenGetEmployeeById_thenReturn304() {
+        // given - precondition or setup
+        Employee saved = webTestClient.post().uri("/api/employees")
+                .bodyValue(employee("Vijay", "Singh", "vijay@gmail.com"))
+                .exchange()
+                .expectBody(Employee.class)
+                .returnResult()
+                .getResponseBody();
+        String eTag = webTestClient.get().uri("/api/employees/{id}", saved.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .returnResult(Employee.class)
+                .getResponseHeaders()
+                .getETag();
+
+        // when -  action or the behaviour that we are going test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/{id}", saved.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange();
+
+        // then - verify the output
+        response.expectStatus().isNotModified();
+    }
+
+    // JUnit test for update, patch and delete REST APIs against a missing employee
+    @Test
+    public void givenMissingEmployee_whenUpdatePatchOrDelete_thenReturn404() {
+        // when -  action or the behaviour that we are going test
+        webTestClient.put().uri("/api/employees/{id}", 42L)
+                .bodyValue(employee("Vijay", "Singh", "vijay@gmail.com"))
+                .exchange()
+
+                // then - verify the output
+                .expectStatus().isNotFound();
+        webTestClient.patch().uri("/api/employees/{id}", 42L)
+                .bodyValue("{\"lastName\":\"Thakur\"}")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.delete().uri("/api/employees/{id}", 42L)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    // JUnit test for batch create REST API
+    @Test
+    public void givenEmployeesWithDuplicate_whenCreateEmployees_thenReturnResultPerItem() {
+        // when -  action or the behaviour that we are going test
+        WebTestClient.ResponseSpec response = webTestClient.post().uri("/api/employees/batch")
+                .bodyValue(List.of(
+                        employee("Vijay", "Singh", "vijay@gmail.com"),
+                        employee("Aashu", "Singh", "vijay@gmail.com"),
+                        employee(null, "Singh", "aashu@gmail.com")))
+                .exchange();
+
+        // then - verify the output
+        response.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.size()").isEqualTo(3)
+                .jsonPath("$[0].status").isEqualTo("CREATED")
+                .jsonPath("$[1].status").isEqualTo("DUPLICATE")
+                .jsonPath("$[2].status").isEqualTo("INVALID");
+    }
+
+    // JUnit test for streaming export REST API
+    @Test
+    public void givenListOfEmployees_whenExportEmployees_thenStreamOneJsonLinePerEmployee() {
+        // given - precondition or setup
+        webTestClient.post().uri("/api/employees/batch")
+                .bodyValue(List.of(
+                        employee("Vijay", "Singh", "vijay@gmail.com"),
+                        employee("Aashu", "Singh", "aashu@gmail.com")))
+                .exchange()
+                .expectStatus().isOk();
+
+        // when -  action or the behaviour that we are going test
+        List<Employee> exported = webTestClient.get().uri("/api/employees/export")
+                .exchange()
+
+                // then - verify the output
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(EmployeeController.APPLICATION_NDJSON_VALUE)
+                .returnResult(Employee.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+        assertThat(exported).extracting(Employee::getEmail).containsExactly("vijay@gmail.com", "aashu@gmail.com");
+    }
+
+    // JUnit test for conditional update and patch REST APIs
+    @Test
+    public void givenStaleIfMatch_whenUpdateOrPatchEmployee_thenReturn412() {
+        // given - precondition or setup
+        Employee saved = save(employee("Vijay", "Singh", "vijay@gmail.com"));
+        webTestClient.put().uri("/api/employees/{id}", saved.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(employee("Vijay", "Thakur", "vijay@gmail.com"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody()
+                .jsonPath("$.lastName").isEqualTo("Thakur")
+                .jsonPath("$.version").isEqualTo(1);
+
+        // when -  action or the behaviour that we are going test
+        webTestClient.put().uri("/api/employees/{id}", saved.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(employee("Vijay", "Kumar", "vijay@gmail.com"))
+                .exchange()
+
+                // then - verify the output
+                .expectStatus().isEqualTo(412);
+        webTestClient.patch().uri("/api/employees/{id}", saved.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .bodyValue("{\"lastName\":\"Kumar\"}")
+                .exchange()
+                .expectStatus().isEqualTo(412);
+        webTestClient.patch().uri("/api/employees/{id}", saved.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\", \"1\"")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .bodyValue("{\"lastName\":\"Kumar\"}")
+                .exchange()
+                .expectStatus().isNoContent()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"2\"");
+        webTestClient.get().uri("/api/employees/{id}", saved.getId())
+                .exchange()
+                .expectBody()
+                .jsonPath("$.lastName").isEqualTo("Kumar")
+                .jsonPath("$.version").isEqualTo(2);
+    }
+
+    // JUnit test for get employee by email REST API
+    @Test
+    public void givenEmail_whenGetEmployeeByEmail_thenReturnEmployeeOr404() {
+        // given - precondition or setup
+        save(employee("Vijay", "Singh", "vijay@gmail.com"));
+
+        // when -  action or the behaviour that we are going test
+        webTestClient.get().uri("/api/employees?email={email}", "vijay@gmail.com")
+                .exchange()
+
+                // then - verify the output
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo("Vijay");
+        webTestClient.get().uri("/api/employees?email={email}", "aashu@gmail.com")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    // JUnit test for statistics REST APIs
+    @Test
+    public void givenNewEmployee_whenGetStats_thenCountIt() {
+        // given - precondition or setup
+        save(employee("Vijay", "Rathore", "vijay@rathore.example"));
+
+        // when -  action or the behaviour that we are going test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/stats/last-names?limit=1000")
+                .exchange();
+
+        // then - verify the output
+        response.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[?(@.value == 'Rathore')].count").isEqualTo(1);
+        webTestClient.get().uri("/api/employees/stats")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.total").isNumber();
+    }
+
+    // JUnit test for change feed polling REST API
+    @Test
+    public void givenNewEmployee_whenGetChanges_thenIncludeIt() {
+        // given - precondition or setup
+        long after = webTestClient.get().uri("/api/employees/changes?after={after}", Long.MAX_VALUE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(EmployeeChanges.class)
+                .returnResult()
+                .getResponseBody()
+                .lastSequence();
+        Employee saved = save(employee("Vijay", "Singh", "vijay@gmail.com"));
+
+        // when -  action or the behaviour that we are going test
+        EmployeeChanges changes = webTestClient.get().uri("/api/employees/changes?after={after}", after)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(EmployeeChanges.class)
+                .returnResult()
+                .getResponseBody();
+
+        // then - verify the output
+        assertThat(changes.changes()).extracting(change -> change.id()).contains(saved.getId());
+    }
+
+    // JUnit test for bulk delete REST API with ids that do not exist
+    @Test
+    public void givenMissingIds_whenDeleteEmployees_thenRecordOnlyDeletedRows() {
+        // given - precondition or setup
+        Employee saved = save(employee("Vijay", "Singh", "vijay@gmail.com"));
+        long after = webTestClient.get().uri("/api/employees/changes?after={after}", Long.MAX_VALUE)
+                .exchange()
+                .expectBody(EmployeeChanges.class)
+                .returnResult()
+                .getResponseBody()
+                .lastSequence();
+
+        // when -  action or the behaviour that we are going test
+        webTestClient.post().uri("/api/employees/bulk-delete")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .bodyValue("{\"ids\":[" + saved.getId() + "," + (saved.getId() + 1000) + "]}")
+                .exchange()
+
+                // then - verify the output
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.deleted").isEqualTo(1);
+        EmployeeChanges changes = webTestClient.get().uri("/api/employees/changes?after={after}", after)
+                .exchange()
+                .expectBody(EmployeeChanges.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(changes.changes()).extracting(change -> change.id()).containsExactly(saved.getId());
+    }
+
+    // JUnit test for the change stream, which the reactive API does not serve
+    @Test
+    public void givenReactiveApi_whenStreamChanges_thenReturn501() {
+        // when -  action or the behaviour that we are going test
+        webTestClient.get().uri("/api/employees/changes/stream")
+                .exchange()
+
+                // then - verify the output
+                .expectStatus().isEqualTo(501);
+    }
+
+    // JUnit test for streaming export REST API - length-prefixed CBOR records
+    @Test
+    public void givenFramedCborAccept_whenExportEmployees_thenStreamFramedRecords() throws IOException {
+        // given - precondition or setup
+        save(employee("Vijay", "Singh", "vijay@gmail.com"));
+        save(employee("Aashu", "Singh", "aashu@gmail.com"));
+
+        // when -  action or the behaviour that we are going test
+        byte[] content = webTestClient.get().uri("/api/employees/export")
+                .accept(LengthPrefixedFrames.APPLICATION_CBOR_FRAMED)
+                .exchange()
+
+                // then - verify the output
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(LengthPrefixedFrames.APPLICATION_CBOR_FRAMED)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(content));
+        List<EmployeeView> exported = new ArrayList<>();
+        for (byte[] frame = LengthPrefixedFrames.read(input); frame != null; frame = LengthPrefixedFrames.read(input)) {
+            exported.add(new CBORMapper().readValue(frame, EmployeeView.class));
+        }
+        assertThat(exported).extracting(EmployeeView::email).containsExactly("vijay@gmail.com", "aashu@gmail.com");
+    }
+
+    private Employee save(Employee employee) {
+        return webTestClient.post().uri("/api/employees")
+                .bodyValue(employee)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Employee.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private static Employee employee(String firstName, String lastName, String email) {
+        return Employee.builder().firstName(firstName).lastName(lastName).email(email).build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.excellence.spring_boot_testing.metrics;
+
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.repository.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// every statement counts as slow, so each repository call lands in the log
+@SpringBootTest(properties = {"employees.slow-query.threshold=0ms", "employees.slow-query.capacity=5"})
+@AutoConfigureMockMvc
+public class SlowQueryLogTests {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    public void tearDown() {
+        employeeRepository.deleteAll();
+    }
+
+    @DisplayName("Junit test for capturing a slow query with its repository method, redacted parameters and plan")
+    @Test
+    public void givenZeroThreshold_whenFindByEmail_thenCaptureQueryWithPlan() {
+        // given - precondition or setup
+        employeeRepository.save(Employee.builder().firstName("Vijay").lastName("Singh").email("vijay@gmail.com").build());
+
+        // when - action or the behaviour that we are going test
+        employeeRepository.findByEmail("vijay@gmail.com");
+
+        // then - verify the output
+        SlowQuery slowQuery = slowQueryLog.recent().get(0);
+        assertThat(slowQuery.repositoryMethod()).isEqualTo("EmployeeRepository.findByEmail");
+        assertThat(slowQuery.sql()).startsWith("select");
+        assertThat(slowQuery.parameters()).containsExactly("1='***' (15 chars)");
+        assertThat(slowQuery.plan()).containsIgnoringCase("UK_EMPLOYEES_EMAIL");
+    }
+
+    @DisplayName("Junit test for the slow query ring keeping only the newest entries")
+    @Test
+    public void givenFullRing_whenAdd_thenDropOldestEntry() {
+        // given - precondition or setup
+        SlowQueryLog ring = new SlowQueryLog(2);
+
+        // when - action or the behaviour that we are going test
+        for (int i = 1; i <= 3; i++) {
+            ring.add(new SlowQuery(Instant.now(), i, null, "select " + i, List.of(), null));
+        }
+
+        // then - verify the output
+        assertThat(ring.recent()).extracting(SlowQuery::sql).containsExactly("select 3", "select 2");
+    }
+
+    @DisplayName("Junit test for reading slow queries from the admin endpoint")
+    @Test
+    public void givenSlowQueries_whenGetSlowQueriesEndpoint_thenReturnRecentQueries() throws Exception {
+        // given - precondition or setup
+        employeeRepository.findVersionById(42L);
+
+        // when - action or the behaviour that we are going test
+        mockMvc.perform(get("/actuator/slowqueries"))
+
+                // then - verify the output
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].repositoryMethod", is("EmployeeRepository.findVersionById")))
+                .andExpect(jsonPath("$[0].parameters[0]", is("1=42")));
+    }
+}
@@ -0,0 +1,218 @@
+package com.excellence.spring_boot_testing.offheap;
+
+import com.excellence.spring_boot_testing.dto.EmployeeCollectionVersion;
+import com.excellence.spring_boot_testing.dto.EmployeePatch;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EmployeeColumnStoreTests {
+
+    @TempDir
+    private Path directory;
+
+    @DisplayName("Junit test for rebuilding the store from its journal")
+    @Test
+    public void givenWrittenStore_whenReopen_thenReplayJournal() throws IOException {
+        // given - precondition or setup
+        Path journal = directory.resolve("employees.journal");
+        Employee vijay = employee("Vijay", "Singh", "vijay@gmail.com");
+        Employee tony = employee("Tony", "Stark", "tony@stark.com");
+        try (EmployeeColumnStore store = new EmployeeColumnStore(journal, true)) {
+            store.saveAll(List.of(vijay, tony, employee("Steve", "Rogers", "steve@gmail.com")));
+            store.patch(vijay.getId(), new EmployeePatch(null, "Thakur", "aashu@gmail.com"));
+            store.deleteAll(List.of(tony.getId()));
+        }
+
+        // when - action or the behaviour that we are going test
+        try (EmployeeColumnStore reopened = new EmployeeColumnStore(journal, true)) {
+            Employee bruce = reopened.save(employee("Bruce", "Banner", "bruce@gmail.com"));
+
+            // then - verify the output
+            assertThat(reopened.findById(vijay.getId()))
+                    .isEqualTo(new EmployeeView(vijay.getId(), "Vijay", "Thakur", "aashu@gmail.com", 1L));
+            assertThat(reopened.findById(tony.getId())).isNull();
+            assertThat(reopened.existsByEmail("vijay@gmail.com")).isFalse();
+            assertThat(reopened.findByEmail("steve@gmail.com")).isNotNull();
+            assertThat(bruce.getId()).isGreaterThan(tony.getId());
+            assertThat(reopened.collectionVersion()).isEqualTo(new EmployeeCollectionVersion(3, bruce.getId(), 1));
+        }
+    }
+
+    @DisplayName("Junit test for dropping a record cut short by a crash")
+    @Test
+    public void givenTornJournalTail_whenReopen_thenTruncateItAndKeepWriting() throws IOException {
+        // given - precondition or setup
+        Path journal = directory.resolve("employees.journal");
+        try (EmployeeColumnStore store = new EmployeeColumnStore(journal, true)) {
+            store.save(employee("Vijay", "Singh", "vijay@gmail.com"));
+            store.save(employee("Tony", "Stark", "tony@gmail.com"));
+        }
+        long intact = Files.size(journal);
+        Files.write(journal, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        // when - action or the behaviour that we are going test
+        try (EmployeeColumnStore reopened = new EmployeeColumnStore(journal, true)) {
+            assertThat(Files.size(journal)).isEqualTo(intact);
+            reopened.save(employee("Steve", "Rogers", "steve@gmail.com"));
+        }
+
+        // then - verify the output
+        try (EmployeeColumnStore reopened = new EmployeeColumnStore(journal, true)) {
+            assertThat(reopened.stream().map(EmployeeView::firstName)).containsExactly("Vijay", "Tony", "Steve");
+        }
+    }
+
+    @DisplayName("Junit test for compacting the journal while the store keeps taking writes")
+    @Test
+    public void givenManyUpdates_whenPatchRepeatedly_thenKeepTheJournalBounded() throws IOException {
+        // given - precondition or setup
+        Path journal = directory.resolve("employees.journal");
+        int patches = 30_000;
+        long recordBytes;
+        try (EmployeeColumnStore store = new EmployeeColumnStore(journal, false)) {
+            long id = store.save(employee("Name0", "Name0", "name@gmail.com")).getId();
+            recordBytes = Files.size(journal);
+
+            // when - action or the behaviour that we are going test
+            for (int i = 1; i <= patches; i++) {
+                store.patch(id, new EmployeePatch("Name" + i % 10, null, null));
+            }
+
+            // then - verify the output
+            assertThat(Files.size(journal)).isLessThan(recordBytes * patches / 2);
+        }
+        try (EmployeeColumnStore reopened = new EmployeeColumnStore(journal, false)) {
+            assertThat(reopened.stream().toList())
+                    .singleElement()
+                    .satisfies(view -> assertThat(view.version()).isEqualTo(patches))
+                    .satisfies(view -> assertThat(view.firstName()).isEqualTo("Name0"));
+        }
+    }
+
+    @DisplayName("Junit test for ids of deleted employees surviving journal compaction")
+    @Test
+    public void givenNewestEmployeeDeleted_whenCompactAndReopen_thenNotReuseItsId() throws IOException {
+        // given - precondition or setup
+        Path journal = directory.resolve("employees.journal");
+        long deletedId;
+        try (EmployeeColumnStore store = new EmployeeColumnStore(journal, false)) {
+            long id = store.save(employee("Vijay", "Singh", "vijay@gmail.com")).getId();
+            deletedId = store.save(employee("Aashu", "Singh", "aashu@gmail.com")).getId();
+            store.deleteAll(List.of(deletedId));
+            // patch until a compaction shrinks the journal down to the one live row
+            long before;
+            int patches = 0;
+            do {
+                before = Files.size(journal);
+                store.patch(id, new EmployeePatch("Name" + ++patches % 10, null, null));
+            } while (Files.size(journal) > before && patches < 100_000);
+            assertThat(Files.size(journal)).isLessThan(before);
+        }
+
+        // when - action or the behaviour that we are going test
+        try (EmployeeColumnStore reopened = new EmployeeColumnStore(journal, false)) {
+            long nextId = reopened.save(employee("Tony", "Stark", "tony@gmail.com")).getId();
+
+            // then - verify the output
+            assertThat(nextId).isGreaterThan(deletedId);
+            assertThat(reopened.collectionVersion().maxId()).isEqualTo(nextId);
+        }
+    }
+
+    @DisplayName("Junit test for the unique email and optimistic version checks")
+    @Test
+    public void givenStoredEmployee_whenSaveConflictingWrites_thenRejectThem() throws IOException {
+        // given - precondition or setup
+        try (EmployeeColumnStore store = new EmployeeColumnStore(directory.resolve("employees.journal"), false)) {
+            Employee vijay = store.save(employee("Vijay", "Singh", "vijay@gmail.com"));
+            Employee stale = employee("Aashu", "Singh", "vijay@gmail.com");
+            stale.setId(vijay.getId());
+            store.save(vijay);
+
+            // when - action or the behaviour that we are going test
+            // then - verify the output
+            assertThatThrownBy(() -> store.save(employee("Tony", "Stark", "vijay@gmail.com")))
+                    .isInstanceOf(DuplicateKeyException.class);
+            assertThatThrownBy(() -> store.save(stale))
+                    .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+            assertThat(store.findById(vijay.getId()).version()).isEqualTo(1L);
+        }
+    }
+
+    @DisplayName("Junit test for a value too long for its column being rejected before it is journaled")
+    @Test
+    public void givenTooLongValue_whenPatchOrUpdate_thenRejectItAndKeepTheRowReadable() throws IOException {
+        // given - precondition or setup
+        Path journal = directory.resolve("employees.journal");
+        String tooLong = "\u00e9".repeat(40_000);
+        try (EmployeeColumnStore store = new EmployeeColumnStore(journal, false)) {
+            Employee vijay = store.save(employee("Vijay", "Singh", "vijay@gmail.com"));
+            Employee renamed = employee(tooLong, "Singh", "vijay@gmail.com");
+            renamed.setId(vijay.getId());
+
+            // when - action or the behaviour that we are going test
+            // then - verify the output
+            assertThatThrownBy(() -> store.patch(vijay.getId(), new EmployeePatch(null, tooLong, null)))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+            assertThatThrownBy(() -> store.update(renamed, null))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+            assertThatThrownBy(() -> store.save(employee("Tony", "Stark", tooLong + "@gmail.com")))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+            assertThat(store.findById(vijay.getId()).version()).isZero();
+        }
+        try (EmployeeColumnStore reopened = new EmployeeColumnStore(journal, false)) {
+            assertThat(reopened.stream().map(EmployeeView::firstName)).containsExactly("Vijay");
+        }
+    }
+
+    @DisplayName("Junit test for lock-free reads never seeing a half-written row")
+    @Test
+    public void givenConcurrentUpdates_whenReadWithoutLocking_thenSeeWholeRows() throws Exception {
+        // given - precondition or setup
+        try (EmployeeColumnStore store = new EmployeeColumnStore(directory.resolve("employees.journal"), false)) {
+            long id = store.save(employee("Name0", "Name0", "name@gmail.com")).getId();
+            AtomicBoolean running = new AtomicBoolean(true);
+            AtomicInteger torn = new AtomicInteger();
+            Thread reader = Thread.ofPlatform().start(() -> {
+                while (running.get()) {
+                    EmployeeView view = store.findById(id);
+                    if (!view.firstName().equals(view.lastName())) {
+                        torn.incrementAndGet();
+                    }
+                }
+            });
+
+            // when - action or the behaviour that we are going test
+            for (int i = 1; i <= 2_000; i++) {
+                store.patch(id, new EmployeePatch("Name" + i, "Name" + i, null));
+            }
+            running.set(false);
+            reader.join();
+
+            // then - verify the output
+            assertThat(torn).hasValue(0);
+            assertThat(store.findById(id).firstName()).isEqualTo("Name2000");
+        }
+    }
+
+    private static Employee employee(String firstName, String lastName, String email) {
+        return Employee.builder().firstName(firstName).lastName(lastName).email(email).build();
+    }
+}
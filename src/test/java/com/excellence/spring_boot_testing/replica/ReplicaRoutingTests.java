@@ -0,0 +1,154 @@
+package com.excellence.spring_boot_testing.replica;
+
+import com.excellence.spring_boot_testing.dto.EmployeePatch;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.service.EmployeeService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// two replicas that trail the primary by a second; no cache, so every read reaches a database
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "employees.replica.urls=jdbc:h2:mem:routing-replica-1;DB_CLOSE_DELAY=-1,jdbc:h2:mem:routing-replica-2;DB_CLOSE_DELAY=-1",
+        "employees.replica.lag=1s",
+        "employees.replica.stickiness=10s",
+        "spring.cache.type=none"})
+@ActiveProfiles("replica")
+@AutoConfigureMockMvc
+public class ReplicaRoutingTests {
+
+    private final JdbcTemplate primary = jdbc("routing-primary");
+
+    private final List<JdbcTemplate> replicas = List.of(jdbc("routing-replica-1"), jdbc("routing-replica-2"));
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    public void tearDown() {
+        primary.update("delete from employees");
+        replicas.forEach(replica -> replica.update("delete from employees"));
+    }
+
+    @DisplayName("Junit test for read-only transactions going to the replicas in turn")
+    @Test
+    public void givenRowOnlyOnReplicas_whenGetEmployeeById_thenReadFromEachReplica() {
+        // given - precondition or setup
+        for (int i = 0; i < replicas.size(); i++) {
+            replicas.get(i).update("insert into employees values (1000, 'Replica', ?, 'replica@gmail.com', 0)", "R" + (i + 1));
+        }
+
+        // when - action or the behaviour that we are going test
+        Set<String> lastNames = IntStream.range(0, 2)
+                .mapToObj(i -> employeeService.getEmployeeById(1000L))
+                .map(employee -> employee.map(EmployeeView::lastName).orElse("primary"))
+                .collect(Collectors.toSet());
+
+        // then - verify the output
+        assertThat(lastNames).containsExactlyInAnyOrder("R1", "R2");
+    }
+
+    @DisplayName("Junit test for writes going to the primary and reaching the replicas after the lag")
+    @Test
+    public void givenEmployee_whenSaveEmployee_thenWriteToPrimaryAndReplicateLater() throws InterruptedException {
+        // given - precondition or setup
+        Employee employee = Employee.builder().firstName("Vijay").lastName("Singh").email("vijay@gmail.com").build();
+
+        // when - action or the behaviour that we are going test
+        long id = employeeService.saveEmployee(employee).getId();
+
+        // then - verify the output
+        assertThat(count(primary, id)).isEqualTo(1);
+        assertThat(employeeService.getEmployeeById(id)).isEmpty();
+        awaitReplicated(id);
+        assertThat(employeeService.getEmployeeById(id)).map(EmployeeView::email).contains("vijay@gmail.com");
+    }
+
+    @DisplayName("Junit test for two employees swapping emails reaching the replicas")
+    @Test
+    public void givenEmployeesSwapEmails_whenReplicate_thenReplicasMatchThePrimary() throws InterruptedException {
+        // given - precondition or setup
+        long vijay = employeeService.saveEmployee(Employee.builder().firstName("Vijay").lastName("Singh").email("vijay@gmail.com").build()).getId();
+        long aashu = employeeService.saveEmployee(Employee.builder().firstName("Aashu").lastName("Singh").email("aashu@gmail.com").build()).getId();
+        awaitReplicated(aashu);
+
+        // when - action or the behaviour that we are going test
+        employeeService.patchEmployee(vijay, new EmployeePatch(null, null, "swap@gmail.com"), null);
+        employeeService.patchEmployee(aashu, new EmployeePatch(null, null, "vijay@gmail.com"), null);
+        employeeService.patchEmployee(vijay, new EmployeePatch(null, null, "aashu@gmail.com"), null);
+
+        // then - verify the output
+        for (int attempt = 0; attempt < 100 && replicas.stream().anyMatch(replica -> !email(replica, vijay).equals("aashu@gmail.com")
+                || !email(replica, aashu).equals("vijay@gmail.com")); attempt++) {
+            Thread.sleep(50);
+        }
+        for (JdbcTemplate replica : replicas) {
+            assertThat(email(replica, vijay)).isEqualTo("aashu@gmail.com");
+            assertThat(email(replica, aashu)).isEqualTo("vijay@gmail.com");
+        }
+    }
+
+    @DisplayName("Junit test for a client reading its own write from the primary while the replicas lag")
+    @Test
+    public void givenCreateResponseCookie_whenGetEmployee_thenReadFromPrimary() throws Exception {
+        // given - precondition or setup
+        Cookie sticky = mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Vijay\",\"lastName\":\"Singh\",\"email\":\"vijay@gmail.com\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().maxAge(ReadYourWritesFilter.COOKIE_NAME, 10))
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        long id = primary.queryForObject("select id from employees where email = 'vijay@gmail.com'", Long.class);
+
+        // when - action or the behaviour that we are going test
+        mockMvc.perform(get("/api/employees/{id}", id).cookie(sticky))
+
+                // then - verify the output
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/employees/{id}", id)).andExpect(status().isNotFound());
+    }
+
+    private void awaitReplicated(long id) throws InterruptedException {
+        for (int attempt = 0; attempt < 100 && replicas.stream().anyMatch(replica -> count(replica, id) == 0); attempt++) {
+            Thread.sleep(50);
+        }
+        replicas.forEach(replica -> assertThat(count(replica, id)).isEqualTo(1));
+    }
+
+    private static int count(JdbcTemplate jdbcTemplate, long id) {
+        return jdbcTemplate.queryForObject("select count(*) from employees where id = ?", Integer.class, id);
+    }
+
+    private static String email(JdbcTemplate jdbcTemplate, long id) {
+        return jdbcTemplate.queryForList("select email from employees where id = ?", String.class, id).stream().findFirst().orElse("");
+    }
+
+    private static JdbcTemplate jdbc(String database) {
+        return new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1", "sa", ""));
+    }
+}
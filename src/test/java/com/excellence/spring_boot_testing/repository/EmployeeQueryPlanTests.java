@@ -0,0 +1,96 @@
+package com.excellence.spring_boot_testing.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks with H2's EXPLAIN that the lookup queries are served by the indexes
+ * created in the migrations rather than by a full table scan. The statements explained are
+ * the ones Hibernate sends when the repository methods run, captured by {@link LastStatement}.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.excellence.spring_boot_testing.repository.EmployeeQueryPlanTests$LastStatement")
+public class EmployeeQueryPlanTests {
+
+    private static final String NAME_INDEX = "IDX_EMPLOYEES_LAST_NAME_FIRST_NAME";
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        LastStatement.SQL.remove();
+    }
+
+    @DisplayName("Junit test for the query plan of find by email")
+    @Test
+    public void givenEmailIndex_whenExplainFindByEmail_thenUseUniqueIndex() {
+        employeeRepository.findByEmail("vijay@gmail.com");
+
+        assertThat(explain("vijay@gmail.com")).containsIgnoringCase("UK_EMPLOYEES_EMAIL").doesNotContain("tableScan");
+    }
+
+    @DisplayName("Junit test for the query plan of findByJpql")
+    @Test
+    public void givenNameIndex_whenExplainFindByJpql_thenUseNameIndex() {
+        employeeRepository.findByJpql("Vijay", "Singh");
+
+        assertThat(explain("Vijay", "Singh")).containsIgnoringCase(NAME_INDEX).doesNotContain("tableScan");
+    }
+
+    @DisplayName("Junit test for the query plan of findByJPQLNamedParams")
+    @Test
+    public void givenNameIndex_whenExplainFindByJpqlNamedParams_thenUseNameIndex() {
+        employeeRepository.findByJPQLNamedParams("Vijay", "Singh");
+
+        assertThat(explain("Vijay", "Singh")).containsIgnoringCase(NAME_INDEX).doesNotContain("tableScan");
+    }
+
+    @DisplayName("Junit test for the query plan of findByNativeSQL")
+    @Test
+    public void givenNameIndex_whenExplainFindByNativeSql_thenUseNameIndex() {
+        employeeRepository.findByNativeSQL("Vijay", "Singh");
+
+        assertThat(explain("Vijay", "Singh")).containsIgnoringCase(NAME_INDEX).doesNotContain("tableScan");
+    }
+
+    @DisplayName("Junit test for the query plan of findByNativeSQLNamed")
+    @Test
+    public void givenNameIndex_whenExplainFindByNativeSqlNamed_thenUseNameIndex() {
+        employeeRepository.findByNativeSQLNamed("Vijay", "Singh");
+
+        assertThat(explain("Vijay", "Singh")).containsIgnoringCase(NAME_INDEX).doesNotContain("tableScan");
+    }
+
+    // the plan of the last statement Hibernate prepared on this thread, with the same bind values
+    private String explain(Object... parameters) {
+        String sql = LastStatement.SQL.get();
+        assertThat(sql).as("statement sent by Hibernate").isNotNull();
+        return jdbcTemplate.queryForObject("explain " + sql, String.class, parameters);
+    }
+
+    /**
+     * Records the SQL of every statement Hibernate prepares, unchanged. Hibernate instantiates
+     * it by class name, so the statement is kept in a thread local for the test to read.
+     */
+    public static class LastStatement implements StatementInspector {
+
+        static final ThreadLocal<String> SQL = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.set(sql);
+            return sql;
+        }
+    }
+}
@@ -1,16 +1,31 @@
 package com.excellence.spring_boot_testing.repository;
 
+import com.excellence.spring_boot_testing.dto.EmployeeCollectionVersion;
+import com.excellence.spring_boot_testing.dto.EmployeeEmail;
+import com.excellence.spring_boot_testing.dto.EmployeePatch;
+import com.excellence.spring_boot_testing.dto.EmployeeSummary;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
 import com.excellence.spring_boot_testing.model.Employee;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DataJpaTest
 public class EmployeeRepositoryTests {
@@ -18,6 +33,9 @@ public class EmployeeRepositoryTests {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private Employee employee;
 
     @BeforeEach
@@ -79,6 +97,208 @@ public class EmployeeRepositoryTests {
         assertThat(employeeList.size()).isEqualTo(2);
     }
 
+    // Junit tests for find existing emails operation
+    @DisplayName("Junit tests for find existing emails operation")
+    @Test
+    public void givenEmployeeObject_whenFindExistingEmails_thenReturnOnlyStoredEmails() {
+
+        // given - precondition or setup
+        employeeRepository.save(employee);
+
+        // when - action or the behaviour that we are going test
+        List<String> existingEmails = employeeRepository.findExistingEmails(List.of(employee.getEmail(), "tony@gmail.com"));
+
+        // then - verify the output
+        assertThat(existingEmails).containsExactly(employee.getEmail());
+    }
+
+    // Junit test for the unique email constraint
+    @DisplayName("Junit test for the unique email constraint")
+    @Test
+    public void givenEmployeeWithSameEmail_whenSaveAndFlush_thenThrowDataIntegrityViolation() {
+
+        // given - precondition or setup
+        employeeRepository.saveAndFlush(employee);
+        Employee employee1 = Employee.builder()
+                .firstName("Aashu")
+                .lastName("Singh")
+                .email(employee.getEmail())
+                .build();
+
+        // when - action or the behaviour that we are going test
+        // then - verify the output
+        assertThatThrownBy(() -> employeeRepository.saveAndFlush(employee1))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    // Junit tests for a value longer than its column
+    @DisplayName("Junit tests for a value longer than its column")
+    @Test
+    public void givenTooLongLastName_whenSave_thenThrowsException() {
+
+        // given - precondition or setup
+        employee.setLastName("x".repeat(256));
+
+        // when - action or the behaviour that we are going test
+        // then - verify the output
+        assertThatThrownBy(() -> employeeRepository.saveAndFlush(employee))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    // Junit tests for query by example operation
+    @DisplayName("Junit tests for query by example operation")
+    @Test
+    public void givenEmployeesList_whenFindAllByExample_thenReturnMatchingEmployees() {
+
+        // given - precondition or setup
+        employeeRepository.save(employee);
+        employeeRepository.save(Employee.builder().firstName("Vikram").lastName("Singh").email("vikram@gmail.com").build());
+        employeeRepository.save(Employee.builder().firstName("Vijay").lastName("Thakur").email("thakur@gmail.com").build());
+        Employee probe = Employee.builder().firstName("vi").lastName("Singh").build();
+        ExampleMatcher matcher = ExampleMatcher.matching()
+                .withIgnorePaths("id", "version")
+                .withMatcher("firstName", ExampleMatcher.GenericPropertyMatchers.startsWith().ignoreCase());
+
+        // when - action or the behaviour that we are going test
+        List<Employee> employees = employeeRepository.findAll(Example.of(probe, matcher), Sort.by(Sort.Direction.DESC, "firstName"));
+
+        // then - verify the output
+        assertThat(employees).extracting(Employee::getEmail).containsExactly("vikram@gmail.com", "vijay@gmail.com");
+        assertThat(employeeRepository.count(Example.of(probe, matcher))).isEqualTo(2);
+        assertThat(employeeRepository.exists(Example.of(probe, matcher.withMatcher("lastName", ExampleMatcher.GenericPropertyMatchers.exact()))))
+                .isTrue();
+    }
+
+    // Junit tests for query by example with any of the properties matching
+    @DisplayName("Junit tests for query by example with any of the properties matching")
+    @Test
+    public void givenEmployeesList_whenFindOneByAnyMatchingExample_thenReturnEmployee() {
+
+        // given - precondition or setup
+        employeeRepository.save(employee);
+        employeeRepository.save(Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build());
+        Employee probe = Employee.builder().firstName("Nobody").email("TONY@GMAIL.COM").build();
+        ExampleMatcher matcher = ExampleMatcher.matchingAny()
+                .withIgnorePaths("id", "version")
+                .withIgnoreCase("email");
+
+        // when - action or the behaviour that we are going test
+        Optional<Employee> found = employeeRepository.findOne(Example.of(probe, matcher));
+
+        // then - verify the output
+        assertThat(found).map(Employee::getLastName).contains("Stark");
+        assertThat(employeeRepository.findAll(Example.of(Employee.builder().build(), ExampleMatcher.matching()
+                .withIgnorePaths("id", "version")), PageRequest.of(0, 1)).getTotalElements()).isEqualTo(2);
+    }
+
+    // Junit tests for stream emails operation
+    @DisplayName("Junit tests for stream emails operation")
+    @Test
+    public void givenEmployeeObject_whenStreamEmails_thenReturnIdAndEmail() {
+
+        // given - precondition or setup
+        employeeRepository.save(employee);
+
+        // when - action or the behaviour that we are going test
+        List<EmployeeEmail> emails;
+        try (Stream<EmployeeEmail> stream = employeeRepository.streamEmails()) {
+            emails = stream.toList();
+        }
+
+        // then - verify the output
+        assertThat(emails).containsExactly(new EmployeeEmail(employee.getId(), employee.getEmail()));
+    }
+
+    // Junit tests for stream summaries operation
+    @DisplayName("Junit tests for stream summaries operation")
+    @Test
+    public void givenEmployeeObject_whenStreamSummaries_thenReturnSearchableFields() {
+
+        // given - precondition or setup
+        employeeRepository.save(employee);
+
+        // when - action or the behaviour that we are going test
+        List<EmployeeSummary> summaries;
+        try (Stream<EmployeeSummary> stream = employeeRepository.streamSummaries()) {
+            summaries = stream.toList();
+        }
+
+        // then - verify the output
+        assertThat(summaries).containsExactly(new EmployeeSummary(employee.getId(), "Vijay", "Singh", "vijay@gmail.com"));
+    }
+
+    // Junit tests for version probe operations
+    @DisplayName("Junit tests for version probe operations")
+    @Test
+    public void givenUpdatedEmployee_whenFindVersions_thenReturnBumpedVersions() {
+
+        // given - precondition or setup
+        employeeRepository.saveAndFlush(employee);
+        EmployeeCollectionVersion before = employeeRepository.findCollectionVersion();
+        employee.setFirstName("Aashu");
+        employeeRepository.saveAndFlush(employee);
+
+        // when - action or the behaviour that we are going test
+        Optional<Long> version = employeeRepository.findVersionById(employee.getId());
+        EmployeeCollectionVersion after = employeeRepository.findCollectionVersion();
+
+        // then - verify the output
+        assertThat(version).contains(1L);
+        assertThat(before).isEqualTo(new EmployeeCollectionVersion(1, employee.getId(), 0));
+        assertThat(after).isEqualTo(new EmployeeCollectionVersion(1, employee.getId(), 1));
+    }
+
+    // Junit tests for keyset page operation
+    @DisplayName("Junit tests for keyset page operation")
+    @Test
+    public void givenEmployeesList_whenFindByIdGreaterThan_thenReturnNextPageInIdOrder() {
+
+        // given - precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName("Aashu")
+                .lastName("Singh")
+                .email("aashu@gmail.com")
+                .build();
+        Employee employee2 = Employee.builder()
+                .firstName("Tony")
+                .lastName("Stark")
+                .email("tony@gmail.com")
+                .build();
+        employeeRepository.save(employee);
+        employeeRepository.save(employee1);
+        employeeRepository.save(employee2);
+
+        // when - action or the behaviour that we are going test
+        List<EmployeeView> page = employeeRepository.findNextPage(employee.getId(), Limit.of(1));
+
+        // then - verify the output
+        assertThat(page).extracting(EmployeeView::id).containsExactly(employee1.getId());
+    }
+
+    // Junit tests for stream all employees operation
+    @DisplayName("Junit tests for stream all employees operation")
+    @Test
+    public void givenEmployeesList_whenStreamAll_thenStreamEmployeesInIdOrder() {
+
+        // given - precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName("Aashu")
+                .lastName("Singh")
+                .email("aashu@gmail.com")
+                .build();
+        employeeRepository.save(employee);
+        employeeRepository.save(employee1);
+
+        // when - action or the behaviour that we are going test
+        List<Long> ids;
+        try (Stream<EmployeeView> employees = employeeRepository.streamAll()) {
+            ids = employees.map(EmployeeView::id).toList();
+        }
+
+        // then - verify the output
+        assertThat(ids).containsExactly(employee.getId(), employee1.getId());
+    }
+
     // Junit tests for get employee by id operation
     @DisplayName("Junit tests for get employee by id operation")
     @Test
@@ -99,6 +319,41 @@ public class EmployeeRepositoryTests {
         assertThat(employeeDB).isNotNull();
     }
 
+    // Junit tests for find all employee views operation
+    @DisplayName("Junit tests for find all employee views operation")
+    @Test
+    public void givenEmployeesList_whenFindAllViews_thenReturnProjectionsWithoutManagingThem() {
+
+        // given - precondition or setup
+        employeeRepository.save(employee);
+        entityManager.flush();
+        entityManager.clear();
+
+        // when - action or the behaviour that we are going test
+        List<EmployeeView> employeeViews = employeeRepository.findAllViews();
+
+        // then - verify the output
+        assertThat(employeeViews).containsExactly(new EmployeeView(employee.getId(), "Vijay", "Singh", "vijay@gmail.com", 0L));
+        assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    // Junit tests for exists by email operation
+    @DisplayName("Junit tests for exists by email operation")
+    @Test
+    public void givenEmployeeEmail_whenExistsByEmail_thenReturnTrueOnlyForStoredEmail() {
+
+        // given - precondition or setup
+        employeeRepository.save(employee);
+
+        // when - action or the behaviour that we are going test
+        boolean stored = employeeRepository.existsByEmail(employee.getEmail());
+        boolean unknown = employeeRepository.existsByEmail("tony@gmail.com");
+
+        // then - verify the output
+        assertThat(stored).isTrue();
+        assertThat(unknown).isFalse();
+    }
+
     // Junit tests for get employee by email operation
     @DisplayName("Junit tests for get employee by email operation")
     @Test
@@ -143,6 +398,55 @@ public class EmployeeRepositoryTests {
         assertThat(updatedEmployee.getFirstName()).isEqualTo("Aashu");
     }
 
+    // Junit tests for conditional update employee operation
+    @DisplayName("Junit tests for conditional update employee operation")
+    @Test
+    public void givenExpectedVersion_whenUpdateEmployee_thenUpdateOnlyWhileItMatches() {
+
+        // given - precondition or setup
+        employeeRepository.saveAndFlush(employee);
+        Employee update = Employee.builder()
+                .id(employee.getId())
+                .firstName("Aashu")
+                .lastName("Thakur")
+                .email("aashu@gmail.com")
+                .build();
+
+        // when - action or the behaviour that we are going test
+        int updated = employeeRepository.updateEmployee(update, 0L);
+        int stale = employeeRepository.updateEmployee(update, 0L);
+        entityManager.clear();
+        Employee updatedEmployee = employeeRepository.findById(employee.getId()).get();
+
+        // then - verify the output
+        assertThat(updated).isEqualTo(1);
+        assertThat(stale).isEqualTo(0);
+        assertThat(updatedEmployee.getFirstName()).isEqualTo("Aashu");
+        assertThat(updatedEmployee.getVersion()).isEqualTo(1L);
+    }
+
+    // Junit tests for patch employee operation
+    @DisplayName("Junit tests for patch employee operation")
+    @Test
+    public void givenEmployeePatch_whenPatchEmployee_thenUpdateOnlySuppliedFields() {
+
+        // given - precondition or setup
+        employeeRepository.saveAndFlush(employee);
+
+        // when - action or the behaviour that we are going test
+        int updated = employeeRepository.patchEmployee(employee.getId(), new EmployeePatch(null, "Thakur", null), null);
+        int missing = employeeRepository.patchEmployee(employee.getId() + 1, new EmployeePatch(null, "Thakur", null), null);
+        entityManager.clear();
+        Employee patchedEmployee = employeeRepository.findById(employee.getId()).get();
+
+        // then - verify the output
+        assertThat(updated).isEqualTo(1);
+        assertThat(missing).isEqualTo(0);
+        assertThat(patchedEmployee.getFirstName()).isEqualTo("Vijay");
+        assertThat(patchedEmployee.getLastName()).isEqualTo("Thakur");
+        assertThat(patchedEmployee.getVersion()).isEqualTo(1L);
+    }
+
     // Junit tests for delete employee operation
     @DisplayName("Junit tests for delete employee operation")
     @Test
@@ -164,6 +468,54 @@ public class EmployeeRepositoryTests {
         assertThat(optionalEmployee).isEmpty();
     }
 
+    // Junit tests for single statement delete operation
+    @DisplayName("Junit tests for single statement delete operation")
+    @Test
+    public void givenEmployeeObject_whenDeleteEmployeeById_thenReturnDeletedCount() {
+
+        // given - precondition or setup
+        employeeRepository.saveAndFlush(employee);
+
+        // when - action or the behaviour that we are going test
+        int deleted = employeeRepository.deleteEmployeeById(employee.getId());
+        int deletedAgain = employeeRepository.deleteEmployeeById(employee.getId());
+        entityManager.clear();
+
+        // then - verify the output
+        assertThat(deleted).isEqualTo(1);
+        assertThat(deletedAgain).isEqualTo(0);
+        assertThat(employeeRepository.findById(employee.getId())).isEmpty();
+    }
+
+    // Junit tests for bulk delete by last name operation
+    @DisplayName("Junit tests for bulk delete by last name operation")
+    @Test
+    public void givenEmployeesList_whenDeleteEmployeesByIdsOfLastName_thenDeleteOnlyThatLastName() {
+
+        // given - precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName("Aashu")
+                .lastName("Singh")
+                .email("aashu@gmail.com")
+                .build();
+        Employee employee2 = Employee.builder()
+                .firstName("Tony")
+                .lastName("Stark")
+                .email("tony@gmail.com")
+                .build();
+        employeeRepository.saveAllAndFlush(List.of(employee, employee1, employee2));
+
+        // when - action or the behaviour that we are going test
+        List<Long> ids = employeeRepository.findIdsByLastName("Singh");
+        int deleted = employeeRepository.deleteEmployeesByIds(ids);
+        entityManager.clear();
+
+        // then - verify the output
+        assertThat(ids).containsExactlyInAnyOrder(employee.getId(), employee1.getId());
+        assertThat(deleted).isEqualTo(2);
+        assertThat(employeeRepository.findAll()).extracting(Employee::getId).containsExactly(employee2.getId());
+    }
+
     // Junit tests for custom query using JPQL with index
     @DisplayName("Junit tests for custom query using JPQL with index")
     @Test
@@ -0,0 +1,39 @@
+package com.excellence.spring_boot_testing.repository;
+
+import com.excellence.spring_boot_testing.config.OffHeapConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// every EmployeeRepositoryTests case, run against the off-heap store instead of Hibernate
+@DataJpaTest(properties = "employees.offheap.fsync=false")
+@ActiveProfiles("offheap")
+@Import({OffHeapConfig.class, OffHeapEmployeeRepository.class})
+public class OffHeapEmployeeRepositoryTests extends EmployeeRepositoryTests {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @DynamicPropertySource
+    static void journal(DynamicPropertyRegistry registry) throws IOException {
+        Path journal = Files.createTempDirectory("employees-offheap").resolve("employees.journal");
+        registry.add("employees.offheap.journal", journal::toString);
+    }
+
+    // the store ignores the test transaction's rollback
+    @AfterEach
+    public void tearDown() {
+        assertThat(employeeRepository).isInstanceOf(OffHeapEmployeeRepository.class);
+        employeeRepository.deleteAll();
+    }
+}
@@ -0,0 +1,92 @@
+package com.excellence.spring_boot_testing.service;
+
+import com.excellence.spring_boot_testing.dto.EmployeeChange;
+import com.excellence.spring_boot_testing.dto.EmployeeChanges;
+import com.excellence.spring_boot_testing.event.EmployeeChangedEvent;
+import com.excellence.spring_boot_testing.event.EmployeeChangedEvent.ChangeType;
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.service.impl.EmployeeChangeFeed;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeChangeFeedTests {
+
+    private EmployeeChangeFeed changeFeed;
+
+    @BeforeEach
+    public void setup() {
+        changeFeed = new EmployeeChangeFeed(4);
+    }
+
+    @DisplayName("Junit test for reading changes after a cursor in order")
+    @Test
+    public void givenChanges_whenChangesAfter_thenReturnNewerChangesInOrder() {
+        // given - precondition or setup
+        long start = changeFeed.latestSequence();
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.created(
+                Employee.builder().id(1L).firstName("Vijay").lastName("Singh").email("vijay@gmail.com").build()));
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.updated(Employee.builder().id(1L).lastName("Thakur").build()));
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.deleted(1L));
+
+        // when - action or the behaviour that we are going test
+        EmployeeChanges first = changeFeed.changesAfter(start, 2);
+        EmployeeChanges rest = changeFeed.changesAfter(first.lastSequence(), 10);
+
+        // then - verify the output
+        assertThat(first.reset()).isFalse();
+        assertThat(first.changes()).containsExactly(
+                new EmployeeChange(start + 1, ChangeType.CREATED, 1L, "Vijay", "Singh", "vijay@gmail.com"),
+                new EmployeeChange(start + 2, ChangeType.UPDATED, 1L, null, "Thakur", null));
+        assertThat(rest.changes()).containsExactly(new EmployeeChange(start + 3, ChangeType.DELETED, 1L, null, null, null));
+        assertThat(changeFeed.changesAfter(rest.lastSequence(), 10).changes()).isEmpty();
+    }
+
+    @DisplayName("Junit test for a cursor that fell out of the ring")
+    @Test
+    public void givenCursorOlderThanRing_whenChangesAfter_thenReset() {
+        // given - precondition or setup
+        long start = changeFeed.latestSequence();
+        for (long id = 1; id <= 5; id++) {
+            changeFeed.onEmployeeChanged(EmployeeChangedEvent.deleted(id));
+        }
+
+        // when - action or the behaviour that we are going test
+        EmployeeChanges behind = changeFeed.changesAfter(start, 10);
+        EmployeeChanges beforeRestart = changeFeed.changesAfter(42L, 10);
+
+        // then - verify the output
+        assertThat(behind.reset()).isTrue();
+        assertThat(behind.lastSequence()).isEqualTo(start + 5);
+        assertThat(beforeRestart.reset()).isTrue();
+        assertThat(changeFeed.changesAfter(start + 1, 10).changes()).extracting(EmployeeChange::id)
+                .containsExactly(2L, 3L, 4L, 5L);
+    }
+
+    @DisplayName("Junit test for a waiting reader woken by a new change")
+    @Test
+    public void givenWaitingReader_whenChangeAppended_thenAwaitReturns() throws Exception {
+        // given - precondition or setup
+        long start = changeFeed.latestSequence();
+        CompletableFuture<Boolean> awaited = CompletableFuture.supplyAsync(() -> {
+            try {
+                return changeFeed.awaitChangeAfter(start, Duration.ofSeconds(10));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // when - action or the behaviour that we are going test
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.deleted(1L));
+
+        // then - verify the output
+        assertThat(awaited.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(changeFeed.awaitChangeAfter(start + 1, Duration.ofMillis(10))).isFalse();
+    }
+}
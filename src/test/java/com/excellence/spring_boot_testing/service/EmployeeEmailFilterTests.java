@@ -0,0 +1,96 @@
+package com.excellence.spring_boot_testing.service;
+
+import com.excellence.spring_boot_testing.dto.EmployeeEmail;
+import com.excellence.spring_boot_testing.event.EmployeeChangedEvent;
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.repository.EmployeeRepository;
+import com.excellence.spring_boot_testing.service.impl.EmployeeEmailFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeEmailFilterTests {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private EmployeeEmailFilter emailFilter;
+
+    @BeforeEach
+    public void setup() {
+        emailFilter = new EmployeeEmailFilter(employeeRepository, transactionManager);
+    }
+
+    @DisplayName("Junit test for mightContain before the emails are loaded")
+    @Test
+    public void givenFilterNotLoaded_whenMightContain_thenReturnTrue() {
+        // when - action or the behaviour that we are going test
+        boolean mightContain = emailFilter.mightContain("tony@gmail.com");
+
+        // then - verify the output
+        assertThat(mightContain).isTrue();
+    }
+
+    @DisplayName("Junit test for mightContain after the emails are loaded")
+    @Test
+    public void givenLoadedEmails_whenMightContain_thenReturnTrueOnlyForStoredEmails() {
+        // given - precondition or setup
+        given(employeeRepository.streamEmails()).willReturn(Stream.of(new EmployeeEmail(1L, "vijay@gmail.com")));
+
+        // when - action or the behaviour that we are going test
+        emailFilter.load();
+
+        // then - verify the output
+        assertThat(emailFilter.mightContain("vijay@gmail.com")).isTrue();
+        assertThat(emailFilter.mightContain("tony@gmail.com")).isFalse();
+    }
+
+    @DisplayName("Junit test for keeping the filter current on create, update and delete")
+    @Test
+    public void givenEmployeeChanges_whenOnEmployeeChanged_thenTrackCurrentEmails() {
+        // given - precondition or setup
+        given(employeeRepository.streamEmails()).willReturn(Stream.empty());
+        emailFilter.load();
+        Employee employee = Employee.builder().id(1L).firstName("Vijay").lastName("Singh").email("vijay@gmail.com").build();
+
+        // when - action or the behaviour that we are going test
+        emailFilter.onEmployeeChanged(EmployeeChangedEvent.created(employee));
+        boolean afterCreate = emailFilter.mightContain("vijay@gmail.com");
+        employee.setEmail("aashu@gmail.com");
+        emailFilter.onEmployeeChanged(EmployeeChangedEvent.updated(employee));
+        boolean oldEmailAfterUpdate = emailFilter.mightContain("vijay@gmail.com");
+        boolean newEmailAfterUpdate = emailFilter.mightContain("aashu@gmail.com");
+        emailFilter.onEmployeeChanged(EmployeeChangedEvent.deleted(1L));
+
+        // then - verify the output
+        assertThat(afterCreate).isTrue();
+        assertThat(oldEmailAfterUpdate).isFalse();
+        assertThat(newEmailAfterUpdate).isTrue();
+        assertThat(emailFilter.mightContain("aashu@gmail.com")).isFalse();
+    }
+
+    @DisplayName("Junit test for a partial update that does not touch the email")
+    @Test
+    public void givenPartialUpdateWithoutEmail_whenOnEmployeeChanged_thenKeepEmail() {
+        // given - precondition or setup
+        given(employeeRepository.streamEmails()).willReturn(Stream.of(new EmployeeEmail(1L, "vijay@gmail.com")));
+        emailFilter.load();
+
+        // when - action or the behaviour that we are going test
+        emailFilter.onEmployeeChanged(EmployeeChangedEvent.updated(Employee.builder().id(1L).lastName("Thakur").build()));
+
+        // then - verify the output
+        assertThat(emailFilter.mightContain("vijay@gmail.com")).isTrue();
+    }
+}
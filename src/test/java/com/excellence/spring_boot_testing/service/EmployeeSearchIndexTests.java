@@ -0,0 +1,99 @@
+package com.excellence.spring_boot_testing.service;
+
+import com.excellence.spring_boot_testing.dto.EmployeeSummary;
+import com.excellence.spring_boot_testing.event.EmployeeChangedEvent;
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.repository.EmployeeRepository;
+import com.excellence.spring_boot_testing.service.impl.EmployeeSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeSearchIndexTests {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private EmployeeSearchIndex searchIndex;
+
+    @BeforeEach
+    public void setup() {
+        searchIndex = new EmployeeSearchIndex(employeeRepository, transactionManager);
+        given(employeeRepository.streamSummaries()).willReturn(Stream.of(
+                new EmployeeSummary(1L, "Vijay", "Singh", "vijay@gmail.com"),
+                new EmployeeSummary(2L, "Aashu", "Singh", "aashu.singh@gmail.com"),
+                new EmployeeSummary(3L, "Vikram", "Thakur", "vikram@yahoo.com")));
+        searchIndex.load();
+    }
+
+    @DisplayName("Junit test for prefix search on a name")
+    @Test
+    public void givenNamePrefix_whenSearch_thenReturnMatchingEmployees() {
+        // when - action or the behaviour that we are going test
+        List<EmployeeSummary> results = searchIndex.search("vi", 10);
+
+        // then - verify the output
+        assertThat(results).extracting(EmployeeSummary::id).containsExactly(1L, 3L);
+    }
+
+    @DisplayName("Junit test for search with several terms")
+    @Test
+    public void givenSeveralTerms_whenSearch_thenReturnEmployeesMatchingAllTerms() {
+        // when - action or the behaviour that we are going test
+        List<EmployeeSummary> results = searchIndex.search("Singh aa", 10);
+
+        // then - verify the output
+        assertThat(results).extracting(EmployeeSummary::id).containsExactly(2L);
+    }
+
+    @DisplayName("Junit test for search on an email prefix")
+    @Test
+    public void givenEmailPrefix_whenSearch_thenReturnEmployee() {
+        // when - action or the behaviour that we are going test
+        List<EmployeeSummary> results = searchIndex.search("aashu.singh@g", 10);
+
+        // then - verify the output
+        assertThat(results).extracting(EmployeeSummary::id).containsExactly(2L);
+    }
+
+    @DisplayName("Junit test for search honouring the limit")
+    @Test
+    public void givenLimit_whenSearch_thenReturnAtMostLimitEmployees() {
+        // when - action or the behaviour that we are going test
+        List<EmployeeSummary> results = searchIndex.search("singh", 1);
+
+        // then - verify the output
+        assertThat(results).hasSize(1);
+    }
+
+    @DisplayName("Junit test for keeping the index current on create, update and delete")
+    @Test
+    public void givenEmployeeChanges_whenOnEmployeeChanged_thenSearchSeesThem() {
+        // when - action or the behaviour that we are going test
+        searchIndex.onEmployeeChanged(EmployeeChangedEvent.created(
+                Employee.builder().id(4L).firstName("Tony").lastName("Stark").email("tony@gmail.com").build()));
+        List<EmployeeSummary> afterCreate = searchIndex.search("sta", 10);
+        searchIndex.onEmployeeChanged(EmployeeChangedEvent.updated(Employee.builder().id(4L).lastName("Rogers").build()));
+        List<EmployeeSummary> oldNameAfterUpdate = searchIndex.search("sta", 10);
+        List<EmployeeSummary> newNameAfterUpdate = searchIndex.search("rog", 10);
+        searchIndex.onEmployeeChanged(EmployeeChangedEvent.deleted(4L));
+
+        // then - verify the output
+        assertThat(afterCreate).extracting(EmployeeSummary::id).containsExactly(4L);
+        assertThat(oldNameAfterUpdate).isEmpty();
+        assertThat(newNameAfterUpdate).containsExactly(new EmployeeSummary(4L, "Tony", "Rogers", "tony@gmail.com"));
+        assertThat(searchIndex.search("tony", 10)).isEmpty();
+    }
+}
@@ -0,0 +1,218 @@
+package com.excellence.spring_boot_testing.service;
+
+import com.excellence.spring_boot_testing.config.CacheConfig;
+import com.excellence.spring_boot_testing.controller.EmployeeListSnapshot;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.replica.ReplicaRoutingDataSource;
+import com.excellence.spring_boot_testing.repository.EmployeeRepository;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+public class EmployeeServiceCachingTests {
+
+    @MockBean
+    private EmployeeRepository employeeRepository;
+
+    // its background rebuild would call the repository mock while a test is stubbing it
+    @MockBean
+    private EmployeeListSnapshot listSnapshot;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE).clear();
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Vijay")
+                .lastName("Singh")
+                .email("vijay@gmail.com")
+                .build();
+    }
+
+    @DisplayName("Junit test for getEmployeeById served from the cache")
+    @Test
+    public void givenCachedEmployee_whenGetEmployeeById_thenQueryRepositoryOnce() {
+        // given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+
+        // when - action or the behaviour that we are going test
+        employeeService.getEmployeeById(1L);
+        Optional<EmployeeView> cachedEmployee = employeeService.getEmployeeById(1L);
+
+        // then - verify the output
+        assertThat(cachedEmployee).contains(EmployeeView.of(employee));
+        verify(employeeRepository, times(1)).findById(1L);
+        assertThat(stats().hitCount()).isGreaterThanOrEqualTo(1);
+    }
+
+    @DisplayName("Junit test for getEmployeeById not caching a missing employee")
+    @Test
+    public void givenMissingEmployee_whenGetEmployeeById_thenDoNotCacheTheMiss() {
+        // given - precondition or setup
+        given(employeeRepository.findById(2L)).willReturn(Optional.empty());
+
+        // when - action or the behaviour that we are going test
+        employeeService.getEmployeeById(2L);
+        employeeService.getEmployeeById(2L);
+
+        // then - verify the output
+        verify(employeeRepository, times(2)).findById(2L);
+    }
+
+    @DisplayName("Junit test for a caller pinned to the primary bypassing the cache")
+    @Test
+    public void givenCachedEmployee_whenGetEmployeeByIdPinned_thenQueryRepository() {
+        // given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        employeeService.getEmployeeById(1L);
+
+        // when - action or the behaviour that we are going test
+        ReplicaRoutingDataSource.pinToPrimary();
+        try {
+            employeeService.getEmployeeById(1L);
+        } finally {
+            ReplicaRoutingDataSource.unpin();
+        }
+
+        // then - verify the output
+        verify(employeeRepository, times(2)).findById(1L);
+    }
+
+    @DisplayName("Junit test for updateEmployee evicting the cached employee")
+    @Test
+    public void givenCachedEmployee_whenUpdateEmployee_thenEvictIt() {
+        // given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        given(employeeRepository.updateEmployee(any(Employee.class), eq(0L))).willReturn(1);
+        employeeService.getEmployeeById(1L);
+
+        // when - action or the behaviour that we are going test
+        employeeService.updateEmployee(1L, employee, 0L);
+        employeeService.getEmployeeById(1L);
+
+        // then - verify the output
+        verify(employeeRepository, times(2)).findById(1L);
+    }
+
+    @DisplayName("Junit test for deleteEmployee evicting the cached employee")
+    @Test
+    public void givenCachedEmployee_whenDeleteEmployee_thenEvictIt() {
+        // given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        employeeService.getEmployeeById(1L);
+
+        // when - action or the behaviour that we are going test
+        employeeService.deleteEmployee(1L);
+        given(employeeRepository.findById(1L)).willReturn(Optional.empty());
+        Optional<EmployeeView> deletedEmployee = employeeService.getEmployeeById(1L);
+
+        // then - verify the output
+        assertThat(deletedEmployee).isEmpty();
+    }
+
+    @DisplayName("Junit test for a burst of concurrent lookups of one employee issuing one query")
+    @Test
+    public void givenBurstOfLookups_whenGetEmployeeById_thenQueryOnce() throws Exception {
+        // given - precondition or setup
+        int callers = 16;
+        double coalescedBefore = coalesced();
+        given(employeeRepository.findById(1L)).willAnswer(invocation -> {
+            // hold the query until every other caller is waiting on it
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (coalesced() < coalescedBefore + callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            return Optional.of(employee);
+        });
+
+        // when - action or the behaviour that we are going test
+        List<Future<Optional<EmployeeView>>> results;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results = executor.invokeAll(Collections.nCopies(callers, () -> employeeService.getEmployeeById(1L)));
+        }
+
+        // then - verify the output
+        for (Future<Optional<EmployeeView>> result : results) {
+            assertThat(result.get()).contains(EmployeeView.of(employee));
+        }
+        verify(employeeRepository, times(1)).findById(1L);
+        assertThat(coalesced() - coalescedBefore).isEqualTo(callers - 1);
+    }
+
+    @DisplayName("Junit test for a caller pinned to the primary not joining an in-flight lookup")
+    @Test
+    public void givenLookupInFlight_whenGetEmployeeByIdPinned_thenQueryOnItsOwn() throws Exception {
+        // given - precondition or setup
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(employeeRepository.findById(1L))
+                .willAnswer(invocation -> {
+                    started.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return Optional.of(employee);
+                })
+                .willReturn(Optional.of(employee));
+        CompletableFuture<Optional<EmployeeView>> unpinned = CompletableFuture.supplyAsync(() -> employeeService.getEmployeeById(1L));
+        started.await(5, TimeUnit.SECONDS);
+
+        // when - action or the behaviour that we are going test
+        Optional<EmployeeView> pinned;
+        ReplicaRoutingDataSource.pinToPrimary();
+        try {
+            pinned = employeeService.getEmployeeById(1L);
+        } finally {
+            ReplicaRoutingDataSource.unpin();
+            release.countDown();
+        }
+
+        // then - verify the output
+        assertThat(pinned).contains(EmployeeView.of(employee));
+        assertThat(unpinned.get(5, TimeUnit.SECONDS)).contains(EmployeeView.of(employee));
+        verify(employeeRepository, times(2)).findById(1L);
+    }
+
+    private CacheStats stats() {
+        return ((CaffeineCache) cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE)).getNativeCache().stats();
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("employee.lookups").tag("lookup", "id").tag("result", "coalesced").counter().count();
+    }
+}
@@ -1,27 +1,49 @@
 package com.excellence.spring_boot_testing.service;
 
-import com.excellence.spring_boot_testing.exception.ResourceNotFoundException;
+import com.excellence.spring_boot_testing.dto.EmployeeBatchResult;
+import com.excellence.spring_boot_testing.dto.EmployeeBulkDelete;
+import com.excellence.spring_boot_testing.dto.EmployeePatch;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.event.EmployeeChangedEvent;
+import com.excellence.spring_boot_testing.exception.EmployeeAlreadyExistsException;
+import com.excellence.spring_boot_testing.exception.EmployeeVersionMismatchException;
 import com.excellence.spring_boot_testing.model.Employee;
 import com.excellence.spring_boot_testing.repository.EmployeeRepository;
+import com.excellence.spring_boot_testing.service.impl.EmployeeChangeFeed;
+import com.excellence.spring_boot_testing.service.impl.EmployeeEmailFilter;
+import com.excellence.spring_boot_testing.service.impl.EmployeeLookups;
+import com.excellence.spring_boot_testing.service.impl.EmployeeSearchIndex;
 import com.excellence.spring_boot_testing.service.impl.EmployeeServiceImpl;
+import com.excellence.spring_boot_testing.service.impl.EmployeeStatistics;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +51,22 @@ public class EmployeeServiceTests {
 
     @Mock
     private EmployeeRepository employeeRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private EmployeeEmailFilter emailFilter;
+    @Mock
+    private EmployeeSearchIndex searchIndex;
+    @Mock
+    private EmployeeStatistics statistics;
+    @Mock
+    private EmployeeChangeFeed changeFeed;
+    @Spy
+    private EmployeeLookups lookups = new EmployeeLookups(new SimpleMeterRegistry(), Duration.ofSeconds(5));
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private EmployeeServiceImpl employeeService;
     private Employee employee;
@@ -50,14 +88,14 @@ public class EmployeeServiceTests {
     @Test
     public void givenEmployeeObject_whenSaveEmployee_thenReturnEmployeeObject() {
         // given - precondition or setup
-        given(employeeRepository.findByEmail(employee.getEmail()))
-                .willReturn(Optional.of(employee));
+        given(emailFilter.mightContain(employee.getEmail())).willReturn(true);
+        given(employeeRepository.existsByEmail(employee.getEmail())).willReturn(true);
 
         System.out.println(employeeRepository);
         System.out.println(employeeService);
 
         // when - action or the behaviour that we are going test
-        org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+        org.junit.jupiter.api.Assertions.assertThrows(EmployeeAlreadyExistsException.class, () -> {
             employeeService.saveEmployee(employee);
         });
 
@@ -66,6 +104,55 @@ public class EmployeeServiceTests {
 
     }
 
+    // Junit test for saveEmployee method with an email the filter rules out
+    @DisplayName("Junit test for saveEmployee method (new email)")
+    @Test
+    public void givenNewEmail_whenSaveEmployee_thenSaveWithoutLookup() {
+        // given - precondition or setup
+        given(emailFilter.mightContain(employee.getEmail())).willReturn(false);
+        given(employeeRepository.save(employee)).willReturn(employee);
+
+        // when - action or the behaviour that we are going test
+        Employee savedEmployee = employeeService.saveEmployee(employee);
+
+        // then - verify the output
+        assertThat(savedEmployee).isNotNull();
+        verify(employeeRepository, never()).existsByEmail(anyString());
+        verify(eventPublisher).publishEvent(EmployeeChangedEvent.created(employee));
+    }
+
+    // Junit test for saveEmployees method
+    @DisplayName("Junit test for saveEmployees method")
+    @Test
+    public void givenEmployeesList_whenSaveEmployees_thenInsertOnlyNewValidEmployees() {
+        // given - precondition or setup
+        Employee existing = Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build();
+        Employee repeated = Employee.builder().firstName("Vijay").lastName("Thakur").email("vijay@gmail.com").build();
+        Employee invalid = Employee.builder().firstName("Aashu").lastName("Singh").build();
+
+        given(emailFilter.mightContain(anyString())).willReturn(true);
+        given(employeeRepository.findExistingEmails(anyCollection())).willReturn(List.of("tony@gmail.com"));
+        given(employeeRepository.saveAll(anyList())).willAnswer((invocation) -> {
+            List<Employee> saved = invocation.getArgument(0);
+            saved.forEach(e -> e.setId(10L));
+            return saved;
+        });
+
+        // when - action or the behaviour that we are going test
+        List<EmployeeBatchResult> results = employeeService.saveEmployees(List.of(employee, existing, repeated, invalid));
+
+        // then - verify the output
+        assertThat(results).extracting(EmployeeBatchResult::status).containsExactly(
+                EmployeeBatchResult.Status.CREATED,
+                EmployeeBatchResult.Status.DUPLICATE,
+                EmployeeBatchResult.Status.DUPLICATE,
+                EmployeeBatchResult.Status.INVALID);
+        assertThat(results.get(0).id()).isEqualTo(10L);
+        verify(employeeRepository, times(1)).findExistingEmails(anyCollection());
+        verify(employeeRepository).saveAll(List.of(employee));
+        verify(employeeRepository, never()).existsByEmail(any());
+    }
+
     // Junit tests for getAllEmployees method
     @DisplayName("Junit tests for getAllEmployees method")
     @Test
@@ -79,10 +166,10 @@ public class EmployeeServiceTests {
                 .email("aashu@gmail.com")
                 .build();
 
-        given(employeeRepository.findAll()).willReturn(List.of(employee, employee1));
+        given(employeeRepository.findAllViews()).willReturn(List.of(EmployeeView.of(employee), EmployeeView.of(employee1)));
 
         // when - action or the behaviour that we are going test
-        List<Employee> employeeList = employeeService.getAllEmployees();
+        List<EmployeeView> employeeList = employeeService.getAllEmployees();
 
         // then - verify the output
         assertThat(employeeList).isNotNull();
@@ -103,10 +190,10 @@ public class EmployeeServiceTests {
                 .email("aashu@gmail.com")
                 .build();
 
-        given(employeeRepository.findAll()).willReturn(Collections.emptyList());
+        given(employeeRepository.findAllViews()).willReturn(Collections.emptyList());
 
         // when - action or the behaviour that we are going test
-        List<Employee> employeeList = employeeService.getAllEmployees();
+        List<EmployeeView> employeeList = employeeService.getAllEmployees();
 
         // then - verify the output
         assertThat(employeeList).isNotNull();
@@ -114,6 +201,51 @@ public class EmployeeServiceTests {
 
     }
 
+    // Junit tests for getEmployeesAfter method
+    @DisplayName("Junit tests for getEmployeesAfter method")
+    @Test
+    public void givenLastSeenId_whenGetEmployeesAfter_thenReturnNextEmployees() {
+
+        // given - precondition or setup
+        Employee employee1 = Employee.builder()
+                .id(2L)
+                .firstName("Aashu")
+                .lastName("Singh")
+                .email("aashu@gmail.com")
+                .build();
+
+        given(employeeRepository.findNextPage(1L, Limit.of(10))).willReturn(List.of(EmployeeView.of(employee1)));
+
+        // when - action or the behaviour that we are going test
+        List<EmployeeView> employeeList = employeeService.getEmployeesAfter(1L, 10);
+
+        // then - verify the output
+        assertThat(employeeList).containsExactly(EmployeeView.of(employee1));
+    }
+
+    // Junit tests for exportEmployees method
+    @DisplayName("Junit tests for exportEmployees method")
+    @Test
+    public void givenEmployeesStream_whenExportEmployees_thenPassEachEmployee() {
+
+        // given - precondition or setup
+        Employee employee1 = Employee.builder()
+                .id(2L)
+                .firstName("Aashu")
+                .lastName("Singh")
+                .email("aashu@gmail.com")
+                .build();
+
+        given(employeeRepository.streamAll()).willReturn(Stream.of(EmployeeView.of(employee), EmployeeView.of(employee1)));
+
+        // when - action or the behaviour that we are going test
+        List<EmployeeView> exported = new ArrayList<>();
+        employeeService.exportEmployees(exported::add);
+
+        // then - verify the output
+        assertThat(exported).containsExactly(EmployeeView.of(employee), EmployeeView.of(employee1));
+    }
+
     // Junit tests for getEmployeeById method
     @DisplayName("Junit tests for getEmployeeById method")
     @Test
@@ -123,29 +255,98 @@ public class EmployeeServiceTests {
         given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
 
         // when - action or the behaviour that we are going test
-        Employee savedEmployee = employeeService.getEmployeeById(employee.getId()).get();
+        EmployeeView savedEmployee = employeeService.getEmployeeById(employee.getId()).get();
 
         // then
         assertThat(savedEmployee).isNotNull();
 
     }
 
+    // Junit tests for getEmployeeVersion method
+    @DisplayName("Junit tests for getEmployeeVersion method")
+    @Test
+    public void givenEmployeeId_whenGetEmployeeVersion_thenReturnVersionOnly() {
+
+        // given - precondition or setup
+        given(employeeRepository.findVersionById(1L)).willReturn(Optional.of(2L));
+
+        // when - action or the behaviour that we are going test
+        Optional<Long> version = employeeService.getEmployeeVersion(1L);
+
+        // then
+        assertThat(version).contains(2L);
+        verify(employeeRepository, never()).findById(1L);
+    }
+
     // Junit test for updateEmployee Method
     @Test
     @DisplayName("Junit test for updateEmployee Method")
     public void givenEmployeeObject_whenUpdateEmployee_thenReturnUpdatedEmployee() {
 
         // given - precondition or setup
-        given(employeeRepository.save(employee)).willReturn(employee);
+        given(employeeRepository.updateEmployee(employee, null)).willReturn(1);
+        given(employeeRepository.findVersionById(1L)).willReturn(Optional.of(1L));
         employee.setEmail("victory@gmail.com");
         employee.setFirstName("Victory");
 
         // when - action or the behaviour that we are going test
-        Employee updatedEmployee = employeeService.updateEmployee(employee);
+        Optional<EmployeeView> updatedEmployee = employeeService.updateEmployee(1L, employee, null);
+
+        // then - verify the output
+        assertThat(updatedEmployee).map(EmployeeView::email).contains("victory@gmail.com");
+        assertThat(updatedEmployee).map(EmployeeView::firstName).contains("Victory");
+        assertThat(updatedEmployee).map(EmployeeView::version).contains(1L);
+        verify(employeeRepository, never()).save(any(Employee.class));
+    }
+
+    // Junit test for updateEmployee method with a stale expected version
+    @DisplayName("Junit test for updateEmployee method with a stale expected version")
+    @Test
+    public void givenStaleVersion_whenUpdateEmployee_thenThrowsVersionMismatch() {
+        // given - precondition or setup
+        given(employeeRepository.updateEmployee(employee, 3L)).willReturn(0);
+        given(employeeRepository.findVersionById(1L)).willReturn(Optional.of(4L));
+
+        // when - action or the behaviour that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(EmployeeVersionMismatchException.class,
+                () -> employeeService.updateEmployee(1L, employee, 3L));
+
+        // then - verify the output
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    // Junit test for patchEmployee method
+    @DisplayName("Junit test for patchEmployee method")
+    @Test
+    public void givenEmployeePatch_whenPatchEmployee_thenUpdateWithoutLoading() {
+        // given - precondition or setup
+        EmployeePatch patch = new EmployeePatch(null, null, "victory@gmail.com");
+        given(employeeRepository.patchEmployee(1L, patch, 2L)).willReturn(1);
+
+        // when - action or the behaviour that we are going test
+        Optional<Long> version = employeeService.patchEmployee(1L, patch, 2L);
+
+        // then - verify the output
+        assertThat(version).contains(3L);
+        verify(employeeRepository, never()).findById(1L);
+        verify(employeeRepository, never()).findVersionById(1L);
+        verify(eventPublisher).publishEvent(any(EmployeeChangedEvent.class));
+    }
+
+    // Junit test for patchEmployee method (negative scenario)
+    @DisplayName("Junit test for patchEmployee method (negative scenario)")
+    @Test
+    public void givenMissingEmployee_whenPatchEmployee_thenReturnEmpty() {
+        // given - precondition or setup
+        EmployeePatch patch = new EmployeePatch("Victory", null, null);
+        given(employeeRepository.patchEmployee(1L, patch, null)).willReturn(0);
+
+        // when - action or the behaviour that we are going test
+        Optional<Long> version = employeeService.patchEmployee(1L, patch, null);
 
         // then - verify the output
-        assertThat(updatedEmployee.getEmail()).isEqualTo("victory@gmail.com");
-        assertThat(updatedEmployee.getFirstName()).isEqualTo("Victory");
+        assertThat(version).isEmpty();
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     // Junit test for deleteEmployee method
@@ -155,14 +356,68 @@ public class EmployeeServiceTests {
         // given - precondition or setup
         long employeeId = 1L;
 
-        willDoNothing().given(employeeRepository).deleteById(employeeId);
+        given(employeeRepository.deleteEmployeeById(employeeId)).willReturn(1);
 
         // when - action or the behaviour that we are going test
-        employeeService.deleteEmployee(employeeId);
+        boolean deleted = employeeService.deleteEmployee(employeeId);
 
         // then - verify the output
-        verify(employeeRepository, times(1)).deleteById(employeeId);
+        assertThat(deleted).isTrue();
+        verify(employeeRepository, times(1)).deleteEmployeeById(employeeId);
+        verify(employeeRepository, never()).deleteById(employeeId);
+        verify(eventPublisher).publishEvent(EmployeeChangedEvent.deleted(employeeId));
+
+    }
+
+    // Junit test for deleteEmployee method (negative scenario)
+    @DisplayName("Junit test for deleteEmployee method (negative scenario)")
+    @Test
+    public void givenMissingEmployeeId_whenDeleteEmployee_thenReturnFalse() {
+        // given - precondition or setup
+        given(employeeRepository.deleteEmployeeById(1L)).willReturn(0);
+
+        // when - action or the behaviour that we are going test
+        boolean deleted = employeeService.deleteEmployee(1L);
+
+        // then - verify the output
+        assertThat(deleted).isFalse();
+        verify(eventPublisher, never()).publishEvent(any());
+    }
 
+    // Junit test for deleteEmployees method
+    @DisplayName("Junit test for deleteEmployees method")
+    @Test
+    public void givenLastName_whenDeleteEmployees_thenDeleteMatchingIdsInOneStatement() {
+        // given - precondition or setup
+        given(employeeRepository.findIdsByLastName("Singh")).willReturn(List.of(1L, 2L));
+        given(employeeRepository.findIdsForDelete(List.of(1L, 2L))).willReturn(List.of(1L, 2L));
+        given(employeeRepository.deleteEmployeesByIds(List.of(1L, 2L))).willReturn(2);
+
+        // when - action or the behaviour that we are going test
+        int deleted = employeeService.deleteEmployees(new EmployeeBulkDelete(null, "Singh"));
+
+        // then - verify the output
+        assertThat(deleted).isEqualTo(2);
+        verify(employeeRepository, times(1)).deleteEmployeesByIds(anyCollection());
+        verify(eventPublisher).publishEvent(EmployeeChangedEvent.deleted(1L));
+        verify(eventPublisher).publishEvent(EmployeeChangedEvent.deleted(2L));
+    }
+
+    // Junit test for deleteEmployees method with ids that do not exist
+    @DisplayName("Junit test for deleteEmployees method with ids that do not exist")
+    @Test
+    public void givenMissingIds_whenDeleteEmployees_thenPublishEventsOnlyForDeletedRows() {
+        // given - precondition or setup
+        given(employeeRepository.findIdsForDelete(List.of(1L, 42L))).willReturn(List.of(1L));
+        given(employeeRepository.deleteEmployeesByIds(List.of(1L))).willReturn(1);
+
+        // when - action or the behaviour that we are going test
+        int deleted = employeeService.deleteEmployees(new EmployeeBulkDelete(List.of(1L, 42L), null));
+
+        // then - verify the output
+        assertThat(deleted).isEqualTo(1);
+        verify(eventPublisher).publishEvent(EmployeeChangedEvent.deleted(1L));
+        verify(eventPublisher, never()).publishEvent(EmployeeChangedEvent.deleted(42L));
     }
 
 
@@ -0,0 +1,99 @@
+package com.excellence.spring_boot_testing.service;
+
+import com.excellence.spring_boot_testing.dto.EmployeeGroupCount;
+import com.excellence.spring_boot_testing.dto.EmployeeSummary;
+import com.excellence.spring_boot_testing.event.EmployeeChangedEvent;
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.repository.EmployeeRepository;
+import com.excellence.spring_boot_testing.repository.ShardedEmployeeRepository;
+import com.excellence.spring_boot_testing.service.impl.EmployeeStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeStatisticsTests {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private ObjectProvider<ShardedEmployeeRepository> shardedRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private EmployeeStatistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        statistics = new EmployeeStatistics(employeeRepository, shardedRepository, transactionManager, Duration.ZERO);
+        given(employeeRepository.streamSummaries()).willReturn(Stream.of(
+                new EmployeeSummary(1L, "Vijay", "Singh", "vijay@gmail.com"),
+                new EmployeeSummary(2L, "Aashu", "Singh", "aashu@Gmail.com"),
+                new EmployeeSummary(3L, "Vikram", "Thakur", "vikram@yahoo.com")));
+        statistics.reconcile();
+    }
+
+    @DisplayName("Junit test for counts loaded from the database")
+    @Test
+    public void givenStoredEmployees_whenReconcile_thenCountByLastNameAndDomain() {
+        // when - action or the behaviour that we are going test
+        // then - verify the output
+        assertThat(statistics.total()).isEqualTo(3);
+        assertThat(statistics.topLastNames(10)).containsExactly(
+                new EmployeeGroupCount("Singh", 2), new EmployeeGroupCount("Thakur", 1));
+        assertThat(statistics.topEmailDomains(1)).containsExactly(new EmployeeGroupCount("gmail.com", 2));
+    }
+
+    @DisplayName("Junit test for counters following create, update, patch and delete")
+    @Test
+    public void givenEmployeeChanges_whenOnEmployeeChanged_thenCountersFollow() {
+        // when - action or the behaviour that we are going test
+        statistics.onEmployeeChanged(EmployeeChangedEvent.created(
+                Employee.builder().id(4L).firstName("Tony").lastName("Thakur").email("tony@stark.com").build()));
+        statistics.onEmployeeChanged(EmployeeChangedEvent.updated(
+                Employee.builder().id(1L).firstName("Vijay").lastName("Thakur").email("vijay@gmail.com").build()));
+        statistics.onEmployeeChanged(EmployeeChangedEvent.updated(Employee.builder().id(3L).email("vikram@gmail.com").build()));
+        statistics.onEmployeeChanged(EmployeeChangedEvent.deleted(2L));
+
+        // then - verify the output
+        assertThat(statistics.total()).isEqualTo(3);
+        assertThat(statistics.topLastNames(10)).containsExactly(new EmployeeGroupCount("Thakur", 3));
+        assertThat(statistics.topEmailDomains(10)).containsExactly(
+                new EmployeeGroupCount("gmail.com", 2), new EmployeeGroupCount("stark.com", 1));
+    }
+
+    @DisplayName("Junit test for reconciliation keeping changes made while it reads")
+    @Test
+    public void givenChangeDuringReconcile_whenReconcile_thenCorrectDriftAndKeepChange() {
+        // given - precondition or setup
+        // a row written around the service, and a create committing while the rows are read
+        given(employeeRepository.streamSummaries()).willAnswer(invocation -> {
+            statistics.onEmployeeChanged(EmployeeChangedEvent.created(
+                    Employee.builder().id(5L).firstName("Steve").lastName("Rogers").email("steve@gmail.com").build()));
+            return Stream.of(
+                    new EmployeeSummary(1L, "Vijay", "Singh", "vijay@gmail.com"),
+                    new EmployeeSummary(3L, "Vikram", "Thakur", "vikram@yahoo.com"),
+                    new EmployeeSummary(4L, "Bruce", "Banner", "bruce@yahoo.com"));
+        });
+
+        // when - action or the behaviour that we are going test
+        statistics.reconcile();
+
+        // then - verify the output
+        assertThat(statistics.total()).isEqualTo(4);
+        assertThat(statistics.topLastNames(10)).extracting(EmployeeGroupCount::value)
+                .containsExactly("Banner", "Rogers", "Singh", "Thakur");
+        assertThat(statistics.topEmailDomains(10)).containsExactly(
+                new EmployeeGroupCount("gmail.com", 2), new EmployeeGroupCount("yahoo.com", 2));
+    }
+}
@@ -0,0 +1,160 @@
+package com.excellence.spring_boot_testing.service;
+
+import com.excellence.spring_boot_testing.dto.EmployeeBatchResult;
+import com.excellence.spring_boot_testing.dto.EmployeeBulkDelete;
+import com.excellence.spring_boot_testing.dto.EmployeePatch;
+import com.excellence.spring_boot_testing.dto.EmployeeView;
+import com.excellence.spring_boot_testing.exception.EmployeeAlreadyExistsException;
+import com.excellence.spring_boot_testing.exception.EmployeeVersionMismatchException;
+import com.excellence.spring_boot_testing.model.Employee;
+import com.excellence.spring_boot_testing.shard.EmployeeShards;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "employees.shards.urls=jdbc:h2:mem:sharding-test-0;DB_CLOSE_DELAY=-1,jdbc:h2:mem:sharding-test-1;DB_CLOSE_DELAY=-1,jdbc:h2:mem:sharding-test-2;DB_CLOSE_DELAY=-1",
+        "spring.cache.type=none"})
+@ActiveProfiles("sharded")
+public class ShardedEmployeeServiceTests {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeShards shards;
+
+    @AfterEach
+    public void tearDown() {
+        shards.fanOut(shard -> shard.update("delete from employees") + shard.update("delete from employee_emails"));
+    }
+
+    @DisplayName("Junit test for each employee being stored only on the shard its id hashes to")
+    @Test
+    public void givenEmployees_whenSaveEmployees_thenEachRowLivesOnItsIdShard() {
+        // given - precondition or setup
+        List<Employee> employees = IntStream.range(0, 30)
+                .mapToObj(i -> Employee.builder().firstName("Vijay").lastName("Singh").email("vijay" + i + "@gmail.com").build())
+                .toList();
+
+        // when - action or the behaviour that we are going test
+        List<EmployeeBatchResult> results = employeeService.saveEmployees(employees);
+
+        // then - verify the output
+        assertThat(results).extracting(EmployeeBatchResult::id).doesNotHaveDuplicates().doesNotContainNull();
+        for (EmployeeBatchResult result : results) {
+            for (int index = 0; index < shards.size(); index++) {
+                int rows = shards.shard(index).queryForObject("select count(*) from employees where id = ?", Integer.class, result.id());
+                assertThat(rows).isEqualTo(index == shards.indexForId(result.id()) ? 1 : 0);
+            }
+        }
+        assertThat(shards.fanOut(shard -> shard.queryForObject("select count(*) from employees", Integer.class)))
+                .allSatisfy(rows -> assertThat(rows).isPositive());
+    }
+
+    @DisplayName("Junit test for an email being unique across shards")
+    @Test
+    public void givenSavedEmail_whenSaveEmployeeWithSameEmail_thenThrowsException() {
+        // given - precondition or setup
+        employeeService.saveEmployee(Employee.builder().firstName("Vijay").lastName("Singh").email("vijay@gmail.com").build());
+
+        // when - action or the behaviour that we are going test
+        // then - verify the output
+        assertThatThrownBy(() -> employeeService.saveEmployee(
+                Employee.builder().firstName("Aashu").lastName("Thakur").email("vijay@gmail.com").build()))
+                .isInstanceOf(EmployeeAlreadyExistsException.class);
+        assertThat(employeeService.getAllEmployees()).hasSize(1);
+    }
+
+    @DisplayName("Junit test for a failed batch insert giving back the emails of the rows it did not write")
+    @Test
+    public void givenRowTooLongForShard_whenSaveEmployees_thenReleaseItsEmail() {
+        // given - precondition or setup
+        List<Employee> employees = List.of(
+                Employee.builder().firstName("Vijay").lastName("Singh").email("vijay@gmail.com").build(),
+                Employee.builder().firstName("Aashu").lastName("x".repeat(300)).email("aashu@gmail.com").build());
+
+        // when - action or the behaviour that we are going test
+        assertThatThrownBy(() -> employeeService.saveEmployees(employees)).isInstanceOf(DataAccessException.class);
+
+        // then - verify the output
+        Employee retry = Employee.builder().firstName("Aashu").lastName("Thakur").email("aashu@gmail.com").build();
+        assertThat(employeeService.saveEmployee(retry).getId()).isNotNull();
+        assertThat(shards.fanOut(shard -> shard.queryForObject("select count(*) from employee_emails", Integer.class))
+                .stream().mapToInt(Integer::intValue).sum())
+                .isEqualTo(employeeService.getAllEmployees().size());
+    }
+
+    @DisplayName("Junit test for reads fanning out to every shard and merging in id order")
+    @Test
+    public void givenEmployeesOnAllShards_whenGetAllAndPages_thenMergeInIdOrder() {
+        // given - precondition or setup
+        List<Long> ids = IntStream.range(0, 20)
+                .mapToObj(i -> employeeService.saveEmployee(
+                        Employee.builder().firstName("Vijay").lastName(i % 2 == 0 ? "Singh" : "Thakur").email("vijay" + i + "@gmail.com").build()).getId())
+                .toList();
+
+        // when - action or the behaviour that we are going test
+        List<EmployeeView> all = employeeService.getAllEmployees();
+        List<EmployeeView> secondPage = employeeService.getEmployeesAfter(ids.get(4), 5);
+
+        // then - verify the output
+        assertThat(all).extracting(EmployeeView::id).containsExactlyElementsOf(ids);
+        assertThat(secondPage).extracting(EmployeeView::id).containsExactlyElementsOf(ids.subList(5, 10));
+        assertThat(employeeService.getEmployeesVersion().count()).isEqualTo(20);
+        assertThat(employeeService.deleteEmployees(new EmployeeBulkDelete(null, "Singh"))).isEqualTo(10);
+        assertThat(employeeService.getAllEmployees()).extracting(EmployeeView::lastName).containsOnly("Thakur");
+    }
+
+    @DisplayName("Junit test for an email change freeing the old email on its shard")
+    @Test
+    public void givenEmailChange_whenPatchEmployee_thenOldEmailCanBeReused() {
+        // given - precondition or setup
+        long id = employeeService.saveEmployee(
+                Employee.builder().firstName("Vijay").lastName("Singh").email("vijay@gmail.com").build()).getId();
+
+        // when - action or the behaviour that we are going test
+        Optional<Long> version = employeeService.patchEmployee(id, new EmployeePatch(null, null, "vijay.singh@gmail.com"), null);
+
+        // then - verify the output
+        assertThat(version).contains(1L);
+        assertThat(employeeService.getEmployeeById(id)).map(EmployeeView::email).contains("vijay.singh@gmail.com");
+        assertThat(employeeService.saveEmployee(
+                Employee.builder().firstName("Aashu").lastName("Thakur").email("vijay@gmail.com").build()).getId()).isNotEqualTo(id);
+        assertThatThrownBy(() -> employeeService.patchEmployee(id, new EmployeePatch(null, null, "vijay@gmail.com"), null))
+                .isInstanceOf(EmployeeAlreadyExistsException.class);
+    }
+
+    @DisplayName("Junit test for a conditional update with a stale version leaving the employee unchanged")
+    @Test
+    public void givenStaleVersion_whenUpdateEmployee_thenRejectIt() {
+        // given - precondition or setup
+        long id = employeeService.saveEmployee(
+                Employee.builder().firstName("Vijay").lastName("Singh").email("vijay@gmail.com").build()).getId();
+        Optional<EmployeeView> updated = employeeService.updateEmployee(id,
+                Employee.builder().firstName("Aashu").lastName("Singh").email("vijay@gmail.com").build(), 0L);
+
+        // when - action or the behaviour that we are going test
+        assertThatThrownBy(() -> employeeService.updateEmployee(id,
+                Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build(), 0L))
+                .isInstanceOf(EmployeeVersionMismatchException.class);
+
+        // then - verify the output
+        assertThat(updated).map(EmployeeView::version).contains(1L);
+        assertThat(employeeService.getEmployeeById(id)).map(EmployeeView::firstName).contains("Aashu");
+        // the email the rejected update would have reserved is still free
+        assertThat(employeeService.saveEmployee(
+                Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build()).getId()).isNotEqualTo(id);
+    }
+}
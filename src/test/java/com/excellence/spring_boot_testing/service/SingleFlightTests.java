@@ -0,0 +1,97 @@
+package com.excellence.spring_boot_testing.service;
+
+import com.excellence.spring_boot_testing.service.impl.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTests {
+
+    private MeterRegistry meterRegistry;
+    private SingleFlight<Long, String> singleFlight;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("id", Duration.ofMillis(200), meterRegistry);
+    }
+
+    @DisplayName("Junit test for a failed fetch reaching the waiting caller and not being kept")
+    @Test
+    public void givenFailingFetch_whenCallersShareIt_thenAllFailAndNextCallFetchesAgain() throws Exception {
+        // given - precondition or setup
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute(1L, () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("database down");
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> singleFlight.execute(1L, () -> "unused"));
+        awaitCount("coalesced", 1);
+
+        // when - action or the behaviour that we are going test
+        release.countDown();
+
+        // then - verify the output
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(singleFlight.execute(1L, () -> "Vijay")).isEqualTo("Vijay");
+        assertThat(count("fetched")).isEqualTo(2);
+    }
+
+    @DisplayName("Junit test for a waiter giving up on a stuck fetch and dropping it")
+    @Test
+    public void givenStuckFetch_whenWaiterTimesOut_thenNextCallFetchesOnItsOwn() throws Exception {
+        // given - precondition or setup
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> stuck = CompletableFuture.supplyAsync(() -> singleFlight.execute(1L, () -> {
+            started.countDown();
+            await(release);
+            return "stale";
+        }));
+        started.await(5, TimeUnit.SECONDS);
+
+        // when - action or the behaviour that we are going test
+        // then - verify the output
+        assertThatThrownBy(() -> singleFlight.execute(1L, () -> "unused")).isInstanceOf(QueryTimeoutException.class);
+        AtomicInteger fetches = new AtomicInteger();
+        assertThat(singleFlight.execute(1L, () -> "fresh" + fetches.incrementAndGet())).isEqualTo("fresh1");
+        assertThat(count("timed_out")).isEqualTo(1);
+        release.countDown();
+        assertThat(stuck.get(5, TimeUnit.SECONDS)).isEqualTo("stale");
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("employee.lookups").tag("lookup", "id").tag("result", result).counter().count();
+    }
+
+    private void awaitCount(String result, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(result) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}